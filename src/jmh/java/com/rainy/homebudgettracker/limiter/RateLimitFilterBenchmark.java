@@ -0,0 +1,112 @@
+package com.rainy.homebudgettracker.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Requests passing through the rate limit filter from 64 threads, spread over one or 64 client addresses, with the
+ * token bucket filter and with the earlier filter that scheduled a task per request, kept here as a baseline. The
+ * limit is high enough for every request to be let through, so only the bookkeeping is measured.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RateLimitFilterBenchmark {
+    private static final long LIMIT = 1_000_000_000L;
+    private static final FilterChain CHAIN = (request, response) -> {};
+
+    @Param({"1", "64"})
+    private int clients;
+
+    private RateLimitFilter tokenBucketFilter;
+    private ScheduledTaskRateLimitFilter scheduledTaskFilter;
+
+    @Setup
+    public void createFilters() {
+        RateLimitProperties properties = new RateLimitProperties(
+                Map.of(RateLimitRoutes.DEFAULT_BUDGET, new RateLimitProperties.Budget(
+                        LIMIT, Duration.ofSeconds(2), Duration.ofMinutes(5), 16 << 20, 1)),
+                List.of());
+        tokenBucketFilter = new RateLimitFilter(properties,
+                new DefaultListableBeanFactory().getBeanProvider(RateLimitStore.class), new SimpleMeterRegistry());
+        scheduledTaskFilter = new ScheduledTaskRateLimitFilter();
+    }
+
+    @TearDown
+    public void shutdownFilters() {
+        scheduledTaskFilter.executor.shutdownNow();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        private final MockHttpServletRequest request = new MockHttpServletRequest();
+        private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        @Setup
+        public void assignAddress(RateLimitFilterBenchmark benchmark) {
+            request.setRemoteAddr("10.0.0." + THREADS.getAndIncrement() % benchmark.clients);
+        }
+    }
+
+    @Benchmark
+    public void tokenBucket(Client client) throws IOException, ServletException {
+        tokenBucketFilter.doFilter(client.request, client.response, CHAIN);
+    }
+
+    @Benchmark
+    public void scheduledTaskPerRequest(Client client) throws IOException, ServletException {
+        scheduledTaskFilter.doFilter(client.request, client.response, CHAIN);
+    }
+
+    private static final class ScheduledTaskRateLimitFilter implements Filter {
+        private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(8);
+        private final ConcurrentHashMap<String, AtomicLong> requestCount = new ConcurrentHashMap<>();
+
+        @Override
+        public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+                throws IOException, ServletException {
+            String ipAddress = servletRequest.getRemoteAddr();
+            AtomicLong count = requestCount.computeIfAbsent(ipAddress, k -> new AtomicLong());
+
+            if (count.incrementAndGet() > LIMIT) {
+                executor.schedule(() -> {
+                    requestCount.remove(ipAddress);
+                }, 5, TimeUnit.MINUTES);
+                return;
+            }
+
+            executor.schedule(() -> {
+                if (count.get() >= LIMIT) {
+                    return;
+                }
+
+                if (count.decrementAndGet() == 0) {
+                    requestCount.remove(ipAddress);
+                }
+            }, 2, TimeUnit.SECONDS);
+
+            filterChain.doFilter(servletRequest, servletResponse);
+        }
+    }
+}
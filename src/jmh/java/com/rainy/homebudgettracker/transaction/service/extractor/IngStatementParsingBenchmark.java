@@ -0,0 +1,164 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parsing of a synthetic 100k-row ING statement with the extractor compiled from {@code bank-formats/ing.yaml}, with
+ * the hand-written tokenizer based extractor it replaced and with the earlier readLine/split/regex implementation.
+ * The two previous implementations are kept here as baselines.
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class IngStatementParsingBenchmark {
+    private static final Charset WINDOWS_1250 = Charset.forName("Windows-1250");
+    private static final String HEADER = "\"Data transakcji\";\"Data księgowania\";\"Dane kontrahenta\";\"Tytuł\";\"Nr rachunku\";\"Nazwa banku\";\"Szczegóły\";\"Nr transakcji\";\"Kwota transakcji (waluta rachunku)\";\"Waluta\";\"Kwota blokady/zwolnienie blokady\";\"Waluta\";\"Kwota płatności w walucie\";\"Waluta\";\"Konto\";\"Saldo po transakcji\";\"Waluta\";;;;";
+    private static final String[] METHODS = {"TR.KART", "PRZELEW", "TR.BLIK", "P.BLIK", "EXPRESS"};
+
+    @Param("100000")
+    private int rows;
+
+    private byte[] statement;
+    private final TransactionExtractor bankFormatExtractor = BankFormatExtractor.compile(
+            BankFormats.read(IngStatementParsingBenchmark.class.getResourceAsStream("/bank-formats/ing.yaml")));
+    private final HandWrittenIngExtractor handWrittenExtractor = new HandWrittenIngExtractor();
+
+    @Setup
+    public void createStatement() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 21; i++) {
+            csv.append("Lista transakcji ").append(i).append('\n');
+        }
+        csv.append(HEADER).append('\n');
+        for (int i = 0; i < rows; i++) {
+            csv.append("2025-07-").append(10 + i % 20).append(";2025-07-").append(10 + i % 20)
+                    .append(";\" SKLEP SPOŻYWCZY ").append(i % 997).append(" WARSZAWA \"")
+                    .append(";\"Płatność kartą ").append(i).append(" PLN\";'12 1050 0000 0000 ").append(i)
+                    .append("';ING;\"").append(METHODS[i % METHODS.length]).append(" \";'").append(100_000 + i)
+                    .append("';-").append(i % 500).append(',').append(i % 100).append(";PLN;;;;;Konto;")
+                    .append(10_000 - i % 500).append(",00;PLN;;;;\n");
+        }
+        statement = csv.toString().getBytes(WINDOWS_1250);
+    }
+
+    @Benchmark
+    public void bankFormat(Blackhole blackhole) {
+        try (Stream<TransactionResponse> transactions = bankFormatExtractor.stream(new ByteArrayInputStream(statement))) {
+            transactions.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void handWrittenTokenizer(Blackhole blackhole) {
+        try (Stream<TransactionResponse> transactions = handWrittenExtractor.stream(new ByteArrayInputStream(statement))) {
+            transactions.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void readLineSplitAndRegex(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(statement), WINDOWS_1250))) {
+            for (int i = 0; i < 22; i++) {
+                reader.readLine();
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(";", -1);
+                if (values.length >= 9 && !values[0].isEmpty() && !values[3].isEmpty() && !values[6].isEmpty()
+                        && !values[8].isEmpty()) {
+                    String details = Stream.of(cleanDetails(values[2]), cleanDetails(values[3]))
+                            .filter(s -> s != null && !s.isBlank())
+                            .collect(Collectors.joining(" "));
+                    blackhole.consume(TransactionResponse.builder()
+                            .id(UUID.randomUUID())
+                            .date(values[0])
+                            .details(details)
+                            .transactionMethod(values[6].replace(" ", "").replace("\"", ""))
+                            .amount(values[8].replace(",", "."))
+                            .build());
+                }
+            }
+        }
+    }
+
+    private static String cleanDetails(String rawDetails) {
+        if (rawDetails == null || rawDetails.isEmpty()) return rawDetails;
+        return rawDetails.replaceAll("^\"|\"$", "").trim();
+    }
+
+    /*
+     * The ING extractor as it was written by hand before the bank formats, without the header validation.
+     */
+    private static final class HandWrittenIngExtractor {
+        private static final int COL_DATE = 0;
+        private static final int COL_CONTRACTOR = 2;
+        private static final int COL_DETAILS = 3;
+        private static final int COL_TRANSACTION_METHOD = 6;
+        private static final int COL_AMOUNT = 8;
+
+        Stream<TransactionResponse> stream(InputStream inputStream) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, WINDOWS_1250));
+            try {
+                for (int i = 0; i < 22; i++) {
+                    reader.readLine();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return StatementRecords.of(new CsvTokenizer(reader, ';'), "ING", this::checkIfProperRow, this::toTransaction);
+        }
+
+        private TransactionResponse toTransaction(CsvTokenizer row) {
+            CharSequence participant = row.trimmedField(COL_CONTRACTOR);
+            CharSequence title = row.trimmedField(COL_DETAILS);
+            StringBuilder details = new StringBuilder(participant.length() + title.length() + 1).append(participant);
+            if (!participant.isEmpty() && !title.isEmpty()) {
+                details.append(' ');
+            }
+            details.append(title);
+
+            return TransactionResponse.builder()
+                    .id(UUID.randomUUID())
+                    .date(row.value(COL_DATE))
+                    .details(details.toString())
+                    .transactionMethod(mapToTransactionMethod(row.value(COL_TRANSACTION_METHOD)))
+                    .amount(row.value(COL_AMOUNT).replace(',', '.'))
+                    .build();
+        }
+
+        private boolean checkIfProperRow(CsvTokenizer row) {
+            return row.fieldCount() >= 9
+                    && !row.field(COL_DATE).isEmpty()
+                    && !row.field(COL_DETAILS).isEmpty()
+                    && !row.field(COL_TRANSACTION_METHOD).isEmpty()
+                    && !row.field(COL_AMOUNT).isEmpty();
+        }
+
+        private String mapToTransactionMethod(String value) {
+            String name = value.replace(" ", "").replace("\"", "");
+            return switch (name) {
+                case "TR.KART" -> "DEBIT_CARD";
+                case "PRZELEW" -> "BANK_TRANSFER";
+                case "EXPRESS" -> "EXPRESS_TRANSFER";
+                case "TR.BLIK" -> "BLIK";
+                case "P.BLIK" -> "BLIK_TRANSFER";
+                default -> "OTHER";
+            };
+        }
+    }
+}
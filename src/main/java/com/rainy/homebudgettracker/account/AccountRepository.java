@@ -1,6 +1,8 @@
 package com.rainy.homebudgettracker.account;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
@@ -17,12 +19,20 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Query("""
                 SELECT new com.rainy.homebudgettracker.account.AccountWithBalance(
                     a,
-                    SUM(t.amount)
+                    b.closingBalance
                 )
                 FROM Account a
-                LEFT JOIN Transaction t ON t.account = a
+                LEFT JOIN AccountMonthlyBalance b ON b.id.accountId = a.id
+                    AND b.id.monthStart = (
+                        SELECT MAX(l.id.monthStart)
+                        FROM AccountMonthlyBalance l
+                        WHERE l.id.accountId = a.id
+                    )
                 WHERE a.id = :accountId
-                GROUP BY a
             """)
     Optional<AccountWithBalance> findAccountWithBalanceById(UUID accountId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :accountId")
+    Optional<Account> lockById(UUID accountId);
 }
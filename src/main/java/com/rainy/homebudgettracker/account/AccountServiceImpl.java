@@ -2,6 +2,8 @@ package com.rainy.homebudgettracker.account;
 
 import com.rainy.homebudgettracker.handler.exception.UserIsNotOwnerException;
 import com.rainy.homebudgettracker.transaction.AccountBalance;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
 import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
 import com.rainy.homebudgettracker.user.UserService;
 import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException;
@@ -23,6 +25,8 @@ import static com.rainy.homebudgettracker.transaction.service.helper.BigDecimalN
 public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final AccountMonthlyBalanceRepository accountMonthlyBalanceRepository;
+    private final DailyTransactionRollupRepository dailyTransactionRollupRepository;
     private final UserService userService;
     private final ModelMapper modelMapper;
 
@@ -100,9 +104,17 @@ public class AccountServiceImpl implements AccountService {
         return modelMapper.map(updatedAccount, AccountResponse.class);
     }
 
+    /*
+     * The account is locked before its derived rows are deleted, so a transaction being saved to it cannot add a row
+     * after they are gone.
+     */
+    @Transactional
     @Override
     public void deleteCurrentUserAccount(UUID id) {
         Account account = findCurrentUserAccount(id);
+        accountRepository.lockById(account.getId());
+        dailyTransactionRollupRepository.deleteAllByAccountId(account.getId());
+        accountMonthlyBalanceRepository.deleteAllByAccountId(account.getId());
         accountRepository.delete(account);
     }
 }
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +14,7 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     Page<Category> findAllByUserSub(String userSub, Pageable pageable);
     List<Category> findAllByUserSubOrderByNameAsc(String userSub);
     Optional<Category> findByUserSubAndName(String userSub, String name);
+    List<Category> findAllByUserSubAndNameIn(String userSub, Collection<String> names);
     Optional<Category> findByIdAndUserSub(UUID id, String userSub);
     boolean existsByUserSubAndName(String userSub, String name);
     @Modifying
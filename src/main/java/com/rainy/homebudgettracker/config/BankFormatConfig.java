@@ -0,0 +1,48 @@
+package com.rainy.homebudgettracker.config;
+
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormat;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormatExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormats;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractors;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Bank formats are compiled at startup, so a broken definition stops the application instead of failing the first
+ * import. The location can point outside the application, e.g. file:/etc/budget/bank-formats/*.yaml, to add a bank
+ * without a new build.
+ */
+@Configuration
+@Log4j2
+public class BankFormatConfig {
+
+    @Bean
+    public TransactionExtractors transactionExtractors(
+            ObjectProvider<TransactionExtractor> extractorBeans,
+            @Value("${application.import.bank-formats:classpath*:bank-formats/*.yaml}") String bankFormatsLocation
+    ) {
+        List<TransactionExtractor> extractors = new ArrayList<>();
+        Set<BankName> bankNames = new HashSet<>();
+        for (BankFormat format : BankFormats.readAll(bankFormatsLocation)) {
+            BankFormatExtractor extractor = BankFormatExtractor.compile(format);
+            if (!bankNames.add(extractor.getBankName())) {
+                throw new IllegalStateException("Bank format " + extractor.getBankName() + " is defined more than once");
+            }
+            extractors.add(extractor);
+        }
+        log.info("Loaded bank formats: {}", bankNames);
+
+        extractorBeans.orderedStream().forEach(extractors::add);
+        return new TransactionExtractors(extractors);
+    }
+}
@@ -2,12 +2,17 @@ package com.rainy.homebudgettracker.config;
 
 import com.rainy.homebudgettracker.auth.JwtAuthenticationFilterDev;
 import com.rainy.homebudgettracker.auth.JwtAuthenticationFilterProd;
+import com.rainy.homebudgettracker.limiter.ConcurrencyLimitFilter;
+import com.rainy.homebudgettracker.limiter.ConcurrencyLimitProperties;
 import com.rainy.homebudgettracker.limiter.RateLimitFilter;
+import com.rainy.homebudgettracker.limiter.RateLimitProperties;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.servlet.Filter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -29,6 +34,7 @@ import static org.springframework.http.HttpHeaders.*;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties({RateLimitProperties.class, ConcurrencyLimitProperties.class})
 @RequiredArgsConstructor
 @SecurityRequirement(name = "bearerAuth")
 @Slf4j
@@ -36,6 +42,7 @@ public class SecurityConfig {
     private final JwtAuthenticationFilterProd jwtAuthenticationFilterProd;
     private final JwtAuthenticationFilterDev jwtAuthenticationFilterDev;
     private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private static final String[] WHITE_LIST = {
             "/v3/api-docs/**",
             "/swagger-ui.html",
@@ -67,13 +74,33 @@ public class SecurityConfig {
                 .authorizeHttpRequests(request -> request
                         .requestMatchers(WHITE_LIST).permitAll()
                         .anyRequest().authenticated())
-                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, jwtAuthenticationFilter.getClass())
+                .addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class)
                 .exceptionHandling(ex -> ex.authenticationEntryPoint((request, response, e) -> response.setStatus(401)));
 
         return http.build();
     }
 
+    /*
+     * The rate limit filter needs the authenticated user, so it only runs inside the security filter chain and not
+     * also as a servlet filter of its own.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration() {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(concurrencyLimitFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsFilter corsFilter() {
         final var source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,8 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+
+public record CurrencyPair(
+        CurrencyCode baseCurrency,
+        CurrencyCode targetCurrency
+) {}
@@ -0,0 +1,46 @@
+package com.rainy.homebudgettracker.exchange;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+
+/**
+ * Rate published on {@code date}: one unit of the base currency costs {@code rate} units of the quote currency.
+ * Rows are only ever inserted, so they are persisted without a lookup of the assigned id first.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Entity
+@Table(indexes = {
+        @Index(columnList = "base_currency, quote_currency, date")
+})
+public class ExchangeRate implements Persistable<ExchangeRateId> {
+    @EmbeddedId
+    private ExchangeRateId id;
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+
+    @Transient
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rainy.homebudgettracker.exchange;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the historical rate table up to date. NBP publishes table A around noon on working days.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateBackfillJob {
+    private final HistoricalExchangeRateService historicalExchangeRateService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    @Scheduled(cron = "${application.exchange.historical.backfill-cron:0 30 12 * * MON-FRI}", zone = "Europe/Warsaw")
+    public void backfill() {
+        try {
+            historicalExchangeRateService.backfill();
+        } catch (RuntimeException e) {
+            log.error("Failed to backfill historical exchange rates", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class ExchangeRateId implements Serializable {
+    @Column(nullable = false)
+    private LocalDate date;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CurrencyCode baseCurrency;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CurrencyCode quoteCurrency;
+}
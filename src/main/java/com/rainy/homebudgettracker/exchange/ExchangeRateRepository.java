@@ -0,0 +1,63 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, ExchangeRateId> {
+
+    /*
+     * Rates are not published on weekends and holidays, the last one published before applies on those days.
+     */
+    @Query("""
+        SELECT r FROM ExchangeRate r
+        WHERE r.id.baseCurrency = :baseCurrency
+            AND r.id.quoteCurrency = :quoteCurrency
+            AND r.id.date <= :date
+        ORDER BY r.id.date DESC
+        LIMIT 1
+    """)
+    Optional<ExchangeRate> findLatestOnOrBefore(CurrencyCode baseCurrency, CurrencyCode quoteCurrency, LocalDate date);
+
+    @Query("SELECT MAX(r.id.date) FROM ExchangeRate r WHERE r.id.quoteCurrency = :quoteCurrency")
+    Optional<LocalDate> findLatestDate(CurrencyCode quoteCurrency);
+
+    @Query("""
+        SELECT r FROM ExchangeRate r
+        WHERE r.id.baseCurrency IN :baseCurrencies
+            AND r.id.quoteCurrency = :quoteCurrency
+            AND r.id.date BETWEEN :startDate AND :endDate
+    """)
+    List<ExchangeRate> findAllInRange(
+            Collection<CurrencyCode> baseCurrencies, CurrencyCode quoteCurrency, LocalDate startDate, LocalDate endDate);
+
+    /*
+     * Another instance may be storing the same days at the same time; a rate that is already stored is kept instead
+     * of failing the insert.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO exchange_rate (date, base_currency, quote_currency, rate)
+        VALUES (:date, :baseCurrency, :quoteCurrency, :rate)
+        ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(LocalDate date, String baseCurrency, String quoteCurrency, BigDecimal rate);
+
+    @Transactional
+    default int insertAllIfAbsent(List<ExchangeRate> rates) {
+        int inserted = 0;
+        for (ExchangeRate rate : rates) {
+            inserted += insertIfAbsent(rate.getId().getDate(), rate.getId().getBaseCurrency().name(),
+                    rate.getId().getQuoteCurrency().name(), rate.getRate());
+        }
+        return inserted;
+    }
+}
@@ -2,9 +2,13 @@ package com.rainy.homebudgettracker.exchange;
 
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
 
 public interface ExchangeService {
     ExchangeResponse getExchangeRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency);
     ExchangeResponse getHistoricalExchangeRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency, LocalDate date);
+    Map<RateQuery, BigDecimal> getExchangeRates(Collection<RateQuery> queries);
 }
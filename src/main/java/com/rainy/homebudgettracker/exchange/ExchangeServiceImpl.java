@@ -1,35 +1,70 @@
 package com.rainy.homebudgettracker.exchange;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.rainy.homebudgettracker.exchange.nbp.NbpExchangeService;
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ExchangeServiceImpl implements ExchangeService {
+    // Upper bound of concurrent requests to the rate APIs, the APIs are shared by all users
+    private static final int MAX_CONCURRENT_FETCHES = 4;
+
     private final RestClient exchangeRateApiRestClient;
     private final NbpExchangeService nbpExchangeService;
+    private final HistoricalExchangeRateService historicalExchangeRateService;
+    /*
+     * Concurrent misses for the same pair wait for a single upstream call. Entries are refreshed in the background
+     * when the upstream publishes new rates, so the day boundary does not turn into a burst of misses; the refresh
+     * after write is a fallback in case that scheduled refresh did not run. The cache is asynchronous so that a slow
+     * upstream call does not hold the lock of the hash bin it shares with other pairs.
+     */
+    private final AsyncLoadingCache<CurrencyPair, ExchangeResponse> exchangeRateCache;
+    private final ExecutorService rateFetchExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_FETCHES, runnable -> {
+        Thread thread = new Thread(runnable, "exchange-rate-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    public ExchangeServiceImpl(@Qualifier("exchangeRateApi") RestClient exchangeRateApiRestClient, NbpExchangeService nbpExchangeService) {
+    public ExchangeServiceImpl(
+            @Qualifier("exchangeRateApi") RestClient exchangeRateApiRestClient,
+            NbpExchangeService nbpExchangeService,
+            HistoricalExchangeRateService historicalExchangeRateService
+    ) {
         this.exchangeRateApiRestClient = exchangeRateApiRestClient;
         this.nbpExchangeService = nbpExchangeService;
+        this.historicalExchangeRateService = historicalExchangeRateService;
+        this.exchangeRateCache = Caffeine.newBuilder()
+                .maximumSize(500)
+                .refreshAfterWrite(Duration.ofDays(1))
+                .expireAfterWrite(Duration.ofDays(2))
+                .recordStats()
+                .executor(rateFetchExecutor)
+                .buildAsync(pair -> fetchExchangeRate(pair.baseCurrency(), pair.targetCurrency()));
     }
 
-    @Cacheable(
-            value = "exchangeRates",
-            key = "#baseCurrency.name() + '-' + #targetCurrency.name() + '-' + {T(java.time.LocalDate).now().toString()}"
-    )
     @Override
     public ExchangeResponse getExchangeRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency) {
         if (baseCurrency == null || targetCurrency == null) {
@@ -45,6 +80,19 @@ public class ExchangeServiceImpl implements ExchangeService {
                     .build();
         }
 
+        return join(exchangeRateCache.get(new CurrencyPair(baseCurrency, targetCurrency)));
+    }
+
+    /*
+     * exchangerate-api publishes new rates daily at midnight UTC.
+     */
+    @Scheduled(cron = "${application.exchange.rate.refresh-cron:0 5 0 * * *}", zone = "UTC")
+    public void refreshExchangeRates() {
+        log.info("Refreshing {} cached exchange rates", exchangeRateCache.synchronous().estimatedSize());
+        exchangeRateCache.synchronous().refreshAll(exchangeRateCache.asMap().keySet());
+    }
+
+    private ExchangeResponse fetchExchangeRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency) {
         try {
             return getFromExchangeRateApi(baseCurrency, targetCurrency);
         } catch (HttpClientErrorException ex) {
@@ -66,8 +114,87 @@ public class ExchangeServiceImpl implements ExchangeService {
             throw new IllegalArgumentException("Date cannot be null");
         }
 
-        // TODO: Find out how to get historical exchange rates - exchangerate-api.com does not support this in the free plan
-        return getExchangeRate(baseCurrency, targetCurrency);
+        return historicalExchangeRateService.getRate(baseCurrency, targetCurrency, date)
+                .map(rate -> ExchangeResponse.builder()
+                        .result("success")
+                        .baseCode(baseCurrency.name())
+                        .targetCode(targetCurrency.name())
+                        .conversionRate(rate.toPlainString())
+                        .build())
+                .orElseGet(() -> {
+                    log.warn("No historical exchange rate from {} to {} on {}, using the current one",
+                            baseCurrency, targetCurrency, date);
+                    return getExchangeRate(baseCurrency, targetCurrency);
+                });
+    }
+
+    /*
+     * Historical rates come from the local rate table in one range query. Current rates missing from the cache are
+     * fetched concurrently, at most MAX_CONCURRENT_FETCHES at a time.
+     */
+    @Override
+    public Map<RateQuery, BigDecimal> getExchangeRates(Collection<RateQuery> queries) {
+        LocalDate today = LocalDate.now();
+        Map<RateQuery, BigDecimal> rates = new HashMap<>();
+        Set<RateQuery> historicalQueries = new HashSet<>();
+        Set<CurrencyPair> currentPairs = new HashSet<>();
+        for (RateQuery query : queries) {
+            if (query.date() == null || query.from() == null || query.to() == null) {
+                throw new IllegalArgumentException("Date, base currency and target currency cannot be null");
+            }
+            if (query.from() == query.to()) {
+                rates.put(query, BigDecimal.ONE);
+            } else if (query.date().isBefore(today)) {
+                historicalQueries.add(query);
+            } else {
+                currentPairs.add(new CurrencyPair(query.from(), query.to()));
+            }
+        }
+
+        Map<RateQuery, BigDecimal> historicalRates = historicalExchangeRateService.getRates(historicalQueries);
+        for (RateQuery query : historicalQueries) {
+            BigDecimal rate = historicalRates.get(query);
+            if (rate == null) {
+                log.warn("No historical exchange rate from {} to {} on {}, using the current one",
+                        query.from(), query.to(), query.date());
+                currentPairs.add(new CurrencyPair(query.from(), query.to()));
+            } else {
+                rates.put(query, rate);
+            }
+        }
+
+        Map<CurrencyPair, BigDecimal> currentRates = getCurrentRates(currentPairs);
+        for (RateQuery query : queries) {
+            rates.computeIfAbsent(query, q -> currentRates.get(new CurrencyPair(q.from(), q.to())));
+        }
+        return rates;
+    }
+
+    private Map<CurrencyPair, BigDecimal> getCurrentRates(Set<CurrencyPair> pairs) {
+        Map<CurrencyPair, CompletableFuture<ExchangeResponse>> responses = pairs.stream()
+                .collect(Collectors.toMap(Function.identity(), exchangeRateCache::get));
+        join(CompletableFuture.allOf(responses.values().toArray(CompletableFuture[]::new)));
+
+        return responses.entrySet().stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        entry -> new BigDecimal(entry.getValue().join().conversionRate())));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    void shutdownRateFetchExecutor() {
+        rateFetchExecutor.shutdownNow();
     }
 
     private ExchangeResponse getFromExchangeRateApi(CurrencyCode baseCurrency, CurrencyCode targetCurrency) {
@@ -84,10 +211,8 @@ public class ExchangeServiceImpl implements ExchangeService {
     }
 
     private ExchangeResponse getFromNbpApi(CurrencyCode baseCurrency, CurrencyCode targetCurrency) {
-        BigDecimal baseRateInPln = nbpExchangeService.getRate(baseCurrency);
-        BigDecimal targetRateInPln = nbpExchangeService.getRate(targetCurrency);
-
-        BigDecimal conversionRate = baseRateInPln.divide(targetRateInPln, 4, RoundingMode.HALF_UP);
+        BigDecimal conversionRate = nbpExchangeService.getCrossRate(baseCurrency, targetCurrency)
+                .setScale(4, RoundingMode.HALF_UP);
 
         return ExchangeResponse.builder()
                 .result("success")
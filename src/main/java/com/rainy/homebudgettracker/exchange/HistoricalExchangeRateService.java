@@ -0,0 +1,17 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface HistoricalExchangeRateService {
+    Optional<BigDecimal> getRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency, LocalDate date);
+
+    Map<RateQuery, BigDecimal> getRates(Collection<RateQuery> queries);
+
+    int backfill();
+}
@@ -0,0 +1,138 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Answers historical rates from the local rate table. Cross rates are derived from the rates of both currencies
+ * against the provider's quote currency. The table is filled in bulk by {@link #backfill()}, which only runs from
+ * {@link ExchangeRateBackfillJob}; lookups never call the provider, so a rate that is not stored yet is reported as
+ * missing and the caller falls back to the current rate.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HistoricalExchangeRateServiceImpl implements HistoricalExchangeRateService {
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final HistoricalRateProvider historicalRateProvider;
+
+    // Covers weekends and the longest run of holidays without a published table
+    private static final int LOOKBACK_DAYS = 10;
+
+    @Value("${application.exchange.historical.backfill-from:2020-01-01}")
+    private LocalDate backfillFrom;
+
+    @Override
+    public Optional<BigDecimal> getRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency, LocalDate date) {
+        if (baseCurrency == null || targetCurrency == null || date == null) {
+            throw new IllegalArgumentException("Base currency, target currency and date cannot be null");
+        }
+        if (baseCurrency == targetCurrency) {
+            return Optional.of(BigDecimal.ONE);
+        }
+
+        Optional<BigDecimal> baseRate = getRateInQuoteCurrency(baseCurrency, date);
+        Optional<BigDecimal> targetRate = getRateInQuoteCurrency(targetCurrency, date);
+        if (baseRate.isEmpty() || targetRate.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(baseRate.get().divide(targetRate.get(), 6, RoundingMode.HALF_UP));
+    }
+
+    /*
+     * Loads every rate the queries may need with a single range query and resolves them in memory. Only a date whose
+     * latest published rate is older than the loaded range falls back to a lookup of its own.
+     */
+    @Override
+    public Map<RateQuery, BigDecimal> getRates(Collection<RateQuery> queries) {
+        if (queries.isEmpty()) {
+            return Map.of();
+        }
+
+        LocalDate startDate = queries.stream().map(RateQuery::date).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate endDate = queries.stream().map(RateQuery::date).max(Comparator.naturalOrder()).orElseThrow();
+
+        CurrencyCode quoteCurrency = historicalRateProvider.quoteCurrency();
+        Set<CurrencyCode> currencies = queries.stream()
+                .flatMap(query -> Stream.of(query.from(), query.to()))
+                .filter(currency -> currency != quoteCurrency)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(CurrencyCode.class)));
+        Map<CurrencyCode, NavigableMap<LocalDate, BigDecimal>> ratesByCurrency = new EnumMap<>(CurrencyCode.class);
+        if (!currencies.isEmpty()) {
+            exchangeRateRepository.findAllInRange(currencies, quoteCurrency, startDate.minusDays(LOOKBACK_DAYS), endDate)
+                    .forEach(rate -> ratesByCurrency
+                            .computeIfAbsent(rate.getId().getBaseCurrency(), currency -> new TreeMap<>())
+                            .put(rate.getId().getDate(), rate.getRate()));
+        }
+
+        Map<RateQuery, BigDecimal> rates = new HashMap<>();
+        for (RateQuery query : queries) {
+            if (query.from() == query.to()) {
+                rates.put(query, BigDecimal.ONE);
+                continue;
+            }
+            Optional<BigDecimal> baseRate = getRateInQuoteCurrency(query.from(), query.date(), ratesByCurrency);
+            Optional<BigDecimal> targetRate = getRateInQuoteCurrency(query.to(), query.date(), ratesByCurrency);
+            if (baseRate.isPresent() && targetRate.isPresent()) {
+                rates.put(query, baseRate.get().divide(targetRate.get(), 6, RoundingMode.HALF_UP));
+            }
+        }
+        return rates;
+    }
+
+    /*
+     * Each range is stored in a transaction of its own, so a failure part way keeps the ranges stored before it and
+     * the next run continues from there.
+     */
+    @Override
+    public synchronized int backfill() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Warsaw"));
+        LocalDate start = exchangeRateRepository.findLatestDate(historicalRateProvider.quoteCurrency())
+                .map(date -> date.plusDays(1))
+                .orElse(backfillFrom);
+
+        int saved = 0;
+        while (!start.isAfter(today)) {
+            LocalDate end = start.plusDays(historicalRateProvider.maxRangeDays() - 1L);
+            if (end.isAfter(today)) {
+                end = today;
+            }
+
+            saved += exchangeRateRepository.insertAllIfAbsent(historicalRateProvider.fetchRates(start, end));
+            start = end.plusDays(1);
+        }
+
+        if (saved > 0) {
+            log.info("Stored {} historical exchange rates", saved);
+        }
+        return saved;
+    }
+
+    private Optional<BigDecimal> getRateInQuoteCurrency(CurrencyCode currency, LocalDate date) {
+        if (currency == historicalRateProvider.quoteCurrency()) {
+            return Optional.of(BigDecimal.ONE);
+        }
+        return exchangeRateRepository.findLatestOnOrBefore(currency, historicalRateProvider.quoteCurrency(), date)
+                .map(ExchangeRate::getRate);
+    }
+
+    private Optional<BigDecimal> getRateInQuoteCurrency(
+            CurrencyCode currency, LocalDate date, Map<CurrencyCode, NavigableMap<LocalDate, BigDecimal>> loadedRates
+    ) {
+        Map.Entry<LocalDate, BigDecimal> loaded = Optional.ofNullable(loadedRates.get(currency))
+                .map(rates -> rates.floorEntry(date))
+                .orElse(null);
+        return loaded != null ? Optional.of(loaded.getValue()) : getRateInQuoteCurrency(currency, date);
+    }
+}
@@ -0,0 +1,20 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Source of published historical rates, all quoted against {@link #quoteCurrency()}.
+ */
+public interface HistoricalRateProvider {
+    CurrencyCode quoteCurrency();
+
+    /**
+     * Longest range, in days, that {@link #fetchRates(LocalDate, LocalDate)} accepts in one call.
+     */
+    int maxRangeDays();
+
+    List<ExchangeRate> fetchRates(LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,57 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic rates for working days without any network access, for tests and local development.
+ */
+@Component
+@ConditionalOnProperty(name = "application.exchange.historical.provider", havingValue = "offline")
+public class OfflineHistoricalRateProvider implements HistoricalRateProvider {
+    private static final Map<CurrencyCode, BigDecimal> BASE_RATES = Map.of(
+            CurrencyCode.EUR, new BigDecimal("4.3000"),
+            CurrencyCode.USD, new BigDecimal("4.0000"),
+            CurrencyCode.GBP, new BigDecimal("5.0000"),
+            CurrencyCode.CHF, new BigDecimal("4.5000")
+    );
+
+    @Override
+    public CurrencyCode quoteCurrency() {
+        return CurrencyCode.PLN;
+    }
+
+    @Override
+    public int maxRangeDays() {
+        return 93;
+    }
+
+    @Override
+    public List<ExchangeRate> fetchRates(LocalDate startDate, LocalDate endDate) {
+        List<ExchangeRate> rates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+
+            // Varies by day of month, so tests can tell which day's rate was used
+            BigDecimal dailyChange = new BigDecimal(date.getDayOfMonth()).movePointLeft(3);
+            for (Map.Entry<CurrencyCode, BigDecimal> baseRate : BASE_RATES.entrySet()) {
+                rates.add(ExchangeRate.builder()
+                        .id(new ExchangeRateId(date, baseRate.getKey(), quoteCurrency()))
+                        .rate(baseRate.getValue().add(dailyChange).setScale(4, RoundingMode.HALF_UP))
+                        .build());
+            }
+        }
+        return rates;
+    }
+}
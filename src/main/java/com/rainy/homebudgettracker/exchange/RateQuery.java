@@ -0,0 +1,11 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+
+import java.time.LocalDate;
+
+/**
+ * Rate of converting {@code from} into {@code to} on {@code date}. Dates before today are answered with historical
+ * rates, today and later with the current rate.
+ */
+public record RateQuery(LocalDate date, CurrencyCode from, CurrencyCode to) {}
@@ -6,4 +6,6 @@ import java.math.BigDecimal;
 
 public interface NbpExchangeService {
     BigDecimal getRate(CurrencyCode currency);
+
+    BigDecimal getCrossRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency);
 }
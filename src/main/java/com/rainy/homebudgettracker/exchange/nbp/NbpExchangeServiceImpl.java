@@ -2,16 +2,23 @@ package com.rainy.homebudgettracker.exchange.nbp;
 
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class NbpExchangeServiceImpl implements NbpExchangeService {
     private final RestClient nbpRestClient;
 
+    private volatile NbpRateMatrix rateMatrix;
+    private volatile LocalDate rateMatrixFetchDate;
+
     public NbpExchangeServiceImpl(@Qualifier("nbpApi") RestClient nbpRestClient) {
         this.nbpRestClient = nbpRestClient;
     }
@@ -21,18 +28,44 @@ public class NbpExchangeServiceImpl implements NbpExchangeService {
         if (currency == CurrencyCode.PLN) {
             return BigDecimal.ONE;
         }
+        return BigDecimal.valueOf(getRateMatrix().getRate(currency));
+    }
 
-        String url = String.format("/exchangerates/rates/A/%s/", currency.name());
+    @Override
+    public BigDecimal getCrossRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency) {
+        if (baseCurrency == targetCurrency) {
+            return BigDecimal.ONE;
+        }
+        return BigDecimal.valueOf(getRateMatrix().getCrossRate(baseCurrency, targetCurrency));
+    }
+
+    /*
+     * The whole table is fetched at most once per day, every currency pair is then answered from memory.
+     */
+    NbpRateMatrix getRateMatrix() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Warsaw"));
+        if (rateMatrix != null && today.equals(rateMatrixFetchDate)) {
+            return rateMatrix;
+        }
+
+        synchronized (this) {
+            if (rateMatrix == null || !today.equals(rateMatrixFetchDate)) {
+                rateMatrix = NbpRateMatrix.from(fetchCurrentTable());
+                rateMatrixFetchDate = today;
+            }
+            return rateMatrix;
+        }
+    }
 
-        NbpExchangeRateResponse response = nbpRestClient.get()
-                .uri(url)
+    private NbpExchangeRateResponse fetchCurrentTable() {
+        List<NbpExchangeRateResponse> tables = nbpRestClient.get()
+                .uri("/exchangerates/tables/A/")
                 .retrieve()
-                .body(NbpExchangeRateResponse.class);
+                .body(new ParameterizedTypeReference<>() {});
 
-        return Optional.ofNullable(response)
-                .map(NbpExchangeRateResponse::rates)
-                .filter(rates -> !rates.isEmpty())
-                .map(rates -> rates.get(0).mid())
-                .orElseThrow(() -> new IllegalStateException("Could not retrieve rate from NBP for currency: " + currency));
+        return Optional.ofNullable(tables)
+                .filter(t -> !t.isEmpty())
+                .map(t -> t.get(0))
+                .orElseThrow(() -> new IllegalStateException("Could not retrieve rate table from NBP"));
     }
 }
@@ -0,0 +1,85 @@
+package com.rainy.homebudgettracker.exchange.nbp;
+
+import com.rainy.homebudgettracker.exchange.ExchangeRate;
+import com.rainy.homebudgettracker.exchange.ExchangeRateId;
+import com.rainy.homebudgettracker.exchange.HistoricalRateProvider;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mid rates from NBP table A, fetched a whole date range of tables per call.
+ */
+@Component
+@ConditionalOnProperty(name = "application.exchange.historical.provider", havingValue = "nbp", matchIfMissing = true)
+@Slf4j
+public class NbpHistoricalRateProvider implements HistoricalRateProvider {
+    private final RestClient nbpRestClient;
+
+    public NbpHistoricalRateProvider(@Qualifier("nbpApi") RestClient nbpRestClient) {
+        this.nbpRestClient = nbpRestClient;
+    }
+
+    @Override
+    public CurrencyCode quoteCurrency() {
+        return CurrencyCode.PLN;
+    }
+
+    @Override
+    public int maxRangeDays() {
+        return 93;
+    }
+
+    @Override
+    public List<ExchangeRate> fetchRates(LocalDate startDate, LocalDate endDate) {
+        String url = String.format("/exchangerates/tables/A/%s/%s/", startDate, endDate);
+
+        List<NbpExchangeRateResponse> tables;
+        try {
+            tables = nbpRestClient.get()
+                    .uri(url)
+                    .retrieve()
+                    .body(new ParameterizedTypeReference<>() {});
+        } catch (HttpClientErrorException.NotFound ex) {
+            // NBP answers 404 when no table was published in the range, e.g. over a long weekend
+            log.debug("No NBP tables published between {} and {}", startDate, endDate);
+            return List.of();
+        }
+
+        List<ExchangeRate> rates = new ArrayList<>();
+        if (tables == null) {
+            return rates;
+        }
+        for (NbpExchangeRateResponse table : tables) {
+            LocalDate date = LocalDate.parse(table.effectiveDate());
+            for (NbpRate rate : table.rates()) {
+                CurrencyCode currency = toCurrencyCode(rate.code());
+                if (currency == null) {
+                    continue;
+                }
+                rates.add(ExchangeRate.builder()
+                        .id(new ExchangeRateId(date, currency, quoteCurrency()))
+                        .rate(rate.mid())
+                        .build());
+            }
+        }
+        return rates;
+    }
+
+    private CurrencyCode toCurrencyCode(String code) {
+        try {
+            return CurrencyCode.valueOf(code);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.rainy.homebudgettracker.exchange.nbp;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Mid rates of one NBP table in PLN, indexed by {@link CurrencyCode#ordinal()}. Any cross rate between two listed
+ * currencies is a single division, so one table fetch answers every currency pair.
+ */
+public final class NbpRateMatrix {
+    private final LocalDate effectiveDate;
+    private final double[] midRates;
+
+    private NbpRateMatrix(LocalDate effectiveDate, double[] midRates) {
+        this.effectiveDate = effectiveDate;
+        this.midRates = midRates;
+    }
+
+    public static NbpRateMatrix from(NbpExchangeRateResponse table) {
+        double[] midRates = new double[CurrencyCode.values().length];
+        Arrays.fill(midRates, Double.NaN);
+        midRates[CurrencyCode.PLN.ordinal()] = 1.0;
+
+        for (NbpRate rate : table.rates()) {
+            try {
+                midRates[CurrencyCode.valueOf(rate.code()).ordinal()] = rate.mid().doubleValue();
+            } catch (IllegalArgumentException ex) {
+                // Currency not supported by the application
+            }
+        }
+        return new NbpRateMatrix(LocalDate.parse(table.effectiveDate()), midRates);
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public boolean contains(CurrencyCode currency) {
+        return !Double.isNaN(midRates[currency.ordinal()]);
+    }
+
+    public double getRate(CurrencyCode currency) {
+        double rate = midRates[currency.ordinal()];
+        if (Double.isNaN(rate)) {
+            throw new IllegalStateException("Could not retrieve rate from NBP for currency: " + currency);
+        }
+        return rate;
+    }
+
+    public double getCrossRate(CurrencyCode baseCurrency, CurrencyCode targetCurrency) {
+        return getRate(baseCurrency) / getRate(targetCurrency);
+    }
+}
@@ -9,6 +9,7 @@ import static org.springframework.http.HttpStatus.*;
 @Getter
 public enum BusinessErrorCodes {
 
+    INVALID_CURSOR(400, BAD_REQUEST, "Invalid cursor"),
     MISSING_OR_INVALID_REQUEST_BODY_ELEMENT(401, BAD_REQUEST, "Missing or invalid request body element"),
     MISSING_REQUEST_PARAMETER(402, BAD_REQUEST, "Missing request parameter"),
     MISSING_REQUEST_BODY(403, BAD_REQUEST, "Missing request body"),
@@ -22,6 +23,7 @@ public enum BusinessErrorCodes {
     MAXIMUM_FILE_SIZE_EXCEEDED(411, PAYLOAD_TOO_LARGE, "Maximum file size exceeded. Maximum file size is 10MB"),
     EXCHANGE_RATE_API_QUOTA_REACHED(412, FAILED_DEPENDENCY, "Quota exceeded. Enter custom exchange rate or try later"),
     EXCHANGE_RATE_API_ERROR(413, FAILED_DEPENDENCY, "Exchange rate API error"),
+    TOO_MANY_IMPORT_JOBS(414, TOO_MANY_REQUESTS, "Too many imports in progress. Please try again later"),
     INTERNAL_SERVER_ERROR(500, HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error. Please contact support"),
     FILE_UPLOAD_ERROR(501, HttpStatus.INTERNAL_SERVER_ERROR, "File upload error. Please try again later or contact support"),
     ;
@@ -263,4 +263,31 @@ public class GlobalExceptionHandler {
                                 .build()
                 );
     }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ExceptionResponse> handleException(InvalidCursorException e) {
+        return ResponseEntity
+                .status(INVALID_CURSOR.getCode())
+                .body(
+                        ExceptionResponse.builder()
+                                .businessErrorCode(INVALID_CURSOR.getCode())
+                                .businessErrorDescription(INVALID_CURSOR.getDescription())
+                                .build()
+                );
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(TooManyImportJobsException.class)
+    public ResponseEntity<ExceptionResponse> handleException(TooManyImportJobsException e) {
+        return ResponseEntity
+                .status(TOO_MANY_IMPORT_JOBS.getHttpStatus())
+                .body(
+                        ExceptionResponse.builder()
+                                .businessErrorCode(TOO_MANY_IMPORT_JOBS.getCode())
+                                .businessErrorDescription(TOO_MANY_IMPORT_JOBS.getDescription())
+                                .error(e.getMessage())
+                                .build()
+                );
+    }
 }
@@ -0,0 +1,7 @@
+package com.rainy.homebudgettracker.handler.exception;
+
+public class TooManyImportJobsException extends RuntimeException {
+    public TooManyImportJobsException(String message) {
+        super(message);
+    }
+}
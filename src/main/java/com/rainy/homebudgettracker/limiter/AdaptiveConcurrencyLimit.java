@@ -0,0 +1,130 @@
+package com.rainy.homebudgettracker.limiter;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limit of requests in flight, adjusted to the latency they are served with (gradient algorithm). Latencies are
+ * averaged over a sample window and compared with a slowly moving long-term average. While requests are served as
+ * fast as usual the limit grows by about its square root per window; when they slow down it shrinks in proportion,
+ * so requests are rejected early instead of queueing up behind a slow database. The limit only grows while it is
+ * actually used, and it stays between the configured minimum and maximum.
+ */
+public final class AdaptiveConcurrencyLimit {
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    // Number of sample windows the long-term latency is averaged over
+    private static final int LONG_WINDOWS = 60;
+    // A long-term latency this many times the current one means it drifted up under sustained load
+    private static final double DRIFT_RATIO = 2.0;
+    private static final double DRIFT_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minSamples;
+    private final double tolerance;
+    private final Ticker ticker;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong windowEnd;
+    private volatile double limit;
+    // Only written by the thread that closes a window
+    private volatile double longLatency;
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties, Ticker ticker) {
+        if (properties.minLimit() <= 0 || properties.minLimit() > properties.initialLimit()
+                || properties.initialLimit() > properties.maxLimit()) {
+            throw new IllegalStateException("Concurrency limit needs 0 < min-limit <= initial-limit <= max-limit");
+        }
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.windowNanos = properties.sampleWindow().toNanos();
+        this.minSamples = properties.minSamples();
+        this.tolerance = properties.latencyTolerance();
+        this.ticker = ticker;
+        this.limit = properties.initialLimit();
+        this.windowEnd = new AtomicLong(ticker.read() + windowNanos);
+    }
+
+    /**
+     * Admits a request when fewer than {@code share} of the limit are in flight. An admitted request has to be
+     * released.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request. Only latencies that say something about the health of the application should be
+     * sampled, e.g. not those of long streamed downloads.
+     */
+    public void release(long latencyNanos, boolean sample) {
+        inFlight.decrementAndGet();
+        if (sample) {
+            latencySum.add(latencyNanos);
+            samples.increment();
+        }
+
+        long now = ticker.read();
+        long end = windowEnd.get();
+        if (now - end >= 0 && windowEnd.compareAndSet(end, now + windowNanos)) {
+            closeWindow();
+        }
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void closeWindow() {
+        long count = samples.sumThenReset();
+        long sum = latencySum.sumThenReset();
+        int used = maxInFlight.getAndSet(inFlight.get());
+        if (count < minSamples) {
+            return;
+        }
+
+        double shortLatency = Math.max(1, (double) sum / count);
+        if (longLatency == 0) {
+            longLatency = shortLatency;
+        } else {
+            longLatency += (shortLatency - longLatency) / LONG_WINDOWS;
+        }
+        if (longLatency / shortLatency > DRIFT_RATIO) {
+            longLatency *= DRIFT_DECAY;
+        }
+
+        double current = limit;
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longLatency / shortLatency));
+        if (gradient == 1.0 && used < current / 2) {
+            return;
+        }
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
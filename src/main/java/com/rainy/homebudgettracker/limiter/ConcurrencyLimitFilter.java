@@ -0,0 +1,147 @@
+package com.rainy.homebudgettracker.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Runs in the security filter chain right after the rate limit filter, so requests over their rate limit never take
+ * a place. Reports, exports and imports may only use part of the limit, so when the database slows down they are shed
+ * first and cheap requests keep being served. Their latency is not sampled, as it depends on the size of the data.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final List<PathPattern> lowPriorityRoutes;
+    private final double lowPriorityShare;
+    private final String retryAfterSeconds;
+    private final Counter rejectedRequests;
+    private final Counter rejectedLowPriorityRequests;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        concurrencyLimit = new AdaptiveConcurrencyLimit(properties);
+        lowPriorityRoutes = properties.lowPriorityRoutes().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        lowPriorityShare = properties.lowPriorityShare();
+        retryAfterSeconds = String.valueOf(Math.max(1, properties.retryAfter().toSeconds()));
+
+        Gauge.builder("concurrency.limiter.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Current limit of requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limiter.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests in flight")
+                .register(meterRegistry);
+        rejectedRequests = Counter.builder("concurrency.limiter.rejections")
+                .description("Requests rejected for exceeding the concurrency limit")
+                .tag("priority", "normal")
+                .register(meterRegistry);
+        rejectedLowPriorityRequests = Counter.builder("concurrency.limiter.rejections")
+                .description("Requests rejected for exceeding the concurrency limit")
+                .tag("priority", "low")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean lowPriority = isLowPriority(request);
+        if (!concurrencyLimit.tryAcquire(lowPriority ? lowPriorityShare : 1.0)) {
+            log.info("Rejected request to {}, concurrency limit: {}", request.getRequestURI(), concurrencyLimit.limit());
+            (lowPriority ? rejectedLowPriorityRequests : rejectedRequests).increment();
+
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.getWriter().write("The service is busy. Please try again later.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(start, !lowPriority));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                concurrencyLimit.release(System.nanoTime() - start, !lowPriority);
+            }
+        }
+    }
+
+    private boolean isLowPriority(HttpServletRequest request) {
+        if (lowPriorityRoutes.isEmpty()) {
+            return false;
+        }
+
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (PathPattern route : lowPriorityRoutes) {
+            if (route.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Streamed responses finish after the filter returns, so they keep their place until the async request ends.
+     */
+    private final class ReleasingListener implements AsyncListener {
+        private final long start;
+        private final boolean sample;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingListener(long start, boolean sample) {
+            this.start = start;
+            this.sample = sample;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimit.release(System.nanoTime() - start, sample);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rainy.homebudgettracker.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of {@link AdaptiveConcurrencyLimit}. Requests to {@code lowPriorityRoutes} (path patterns) may only take
+ * {@code lowPriorityShare} of the limit, the rest is kept for cheap requests.
+ */
+@ConfigurationProperties("application.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("250ms") Duration sampleWindow,
+        @DefaultValue("10") int minSamples,
+        @DefaultValue("1.5") double latencyTolerance,
+        @DefaultValue("0.5") double lowPriorityShare,
+        @DefaultValue List<String> lowPriorityRoutes,
+        @DefaultValue("1s") Duration retryAfter
+) {}
@@ -0,0 +1,28 @@
+package com.rainy.homebudgettracker.limiter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Store kept in the memory of a single instance, a stand-in for the shared store in tests. Buckets are never removed.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+    private final ConcurrentHashMap<String, long[]> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier microClock;
+
+    public InMemoryRateLimitStore(LongSupplier microClock) {
+        this.microClock = microClock;
+    }
+
+    @Override
+    public long take(String bucketKey, long tokens, long tokenMicros, long capacityMicros) {
+        long now = microClock.getAsLong();
+        long[] granted = new long[1];
+        buckets.compute(bucketKey, (key, fullAt) -> {
+            long base = fullAt == null ? now : Math.max(fullAt[0], now);
+            granted[0] = Math.max(0, Math.min(tokens, (capacityMicros - (base - now)) / tokenMicros));
+            return new long[] {base + granted[0] * tokenMicros};
+        });
+        return granted[0];
+    }
+}
@@ -0,0 +1,147 @@
+package com.rainy.homebudgettracker.limiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets shared by all instances through a {@link RateLimitStore}. An instance takes tokens from the shared
+ * bucket in leases of {@code leaseTokens} and hands them out locally, so the store is used once per lease rather than
+ * once per request. A lease is valid for one window; tokens left in it afterwards are dropped, which can only make the
+ * limit stricter. A key whose shared bucket is empty is blocked on the instance that found it empty.
+ * <p>
+ * When the store cannot be reached, every instance limits requests on its own until it is back. A failed store is
+ * left alone for one window before it is tried again, so a slow or unreachable database delays one request per window
+ * instead of every request.
+ */
+@Slf4j
+public final class LeasedRateLimiter implements RateLimiter {
+    private final String budget;
+    private final RateLimitStore store;
+    private final long leaseTokens;
+    private final long tokenMicros;
+    private final long capacityMicros;
+    private final long leaseNanos;
+    private final long blockNanos;
+    private final Ticker ticker;
+    private final Cache<String, Lease> leases;
+    private final TokenBucketRateLimiter fallback;
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private volatile boolean storeFailed;
+    private volatile long storeRetryAt;
+
+    public LeasedRateLimiter(String budget, RateLimitProperties.Budget settings, RateLimitStore store) {
+        this(budget, settings, store, Ticker.systemTicker());
+    }
+
+    LeasedRateLimiter(String budget, RateLimitProperties.Budget settings, RateLimitStore store, Ticker ticker) {
+        this.budget = budget;
+        this.store = store;
+        this.leaseTokens = Math.min(Math.max(1, settings.leaseTokens()), settings.limit());
+        this.tokenMicros = Math.max(1, settings.window().toNanos() / 1000 / settings.limit());
+        this.capacityMicros = tokenMicros * settings.limit();
+        this.leaseNanos = settings.window().toNanos();
+        this.blockNanos = settings.blockDuration().toNanos();
+        this.ticker = ticker;
+        this.leases = Caffeine.newBuilder()
+                .maximumWeight(settings.maxWeightBytes())
+                .weigher((String key, Lease lease) -> TokenBucketRateLimiter.weigh(key))
+                .expireAfterAccess(Duration.ofNanos(Math.max(leaseNanos, blockNanos)))
+                .evictionListener((String key, Lease lease, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        sizeEvictions.increment();
+                    } else if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    }
+                })
+                .ticker(ticker)
+                .build();
+        this.fallback = new TokenBucketRateLimiter(settings.limit(), settings.window(), settings.blockDuration(),
+                settings.maxWeightBytes(), ticker);
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int cost) {
+        long now = ticker.read();
+        if (storeFailed && storeRetryAt - now > 0) {
+            return fallback.tryAcquire(key, cost);
+        }
+
+        Lease lease = leases.getIfPresent(key);
+        if (lease == null) {
+            lease = leases.get(key, k -> new Lease());
+        }
+
+        // Requests of one key on this instance wait for a single lease instead of all going to the store
+        synchronized (lease) {
+            if (lease.blocked && lease.blockedUntil - now > 0) {
+                return false;
+            }
+            lease.blocked = false;
+            if (lease.expiresAt - now <= 0) {
+                lease.remaining = 0;
+            }
+            if (lease.remaining >= cost) {
+                lease.remaining -= cost;
+                return true;
+            }
+
+            long granted;
+            try {
+                granted = store.take(budget + ":" + key, Math.max(leaseTokens, cost), tokenMicros, capacityMicros);
+            } catch (RuntimeException e) {
+                log.warn("Rate limit store is unavailable, limiting '{}' on this instance only: {}",
+                        budget, e.getMessage());
+                storeRetryAt = ticker.read() + leaseNanos;
+                storeFailed = true;
+                return fallback.tryAcquire(key, cost);
+            }
+            storeFailed = false;
+
+            lease.remaining += granted;
+            lease.expiresAt = now + leaseNanos;
+            if (lease.remaining >= cost) {
+                lease.remaining -= cost;
+                return true;
+            }
+            if (granted == 0 && blockNanos > 0) {
+                lease.blocked = true;
+                lease.blockedUntil = now + blockNanos;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public long trackedKeys() {
+        return leases.estimatedSize();
+    }
+
+    @Override
+    public long trackedWeightBytes() {
+        return leases.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    @Override
+    public long sizeEvictions() {
+        return sizeEvictions.sum();
+    }
+
+    @Override
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    private static final class Lease {
+        private long remaining;
+        private long expiresAt;
+        private boolean blocked;
+        private long blockedUntil;
+    }
+}
@@ -0,0 +1,34 @@
+package com.rainy.homebudgettracker.limiter;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares the rate limits of all instances through the application database. Enabled with
+ * {@code application.rate-limit.store=postgres}; without it every instance limits requests on its own.
+ */
+@Component
+@ConditionalOnProperty(name = "application.rate-limit.store", havingValue = "postgres")
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresRateLimitStore implements RateLimitStore {
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+
+    @Override
+    public long take(String bucketKey, long tokens, long tokenMicros, long capacityMicros) {
+        return rateLimitBucketRepository.take(bucketKey, tokens, tokenMicros, capacityMicros).orElse(0L);
+    }
+
+    @Scheduled(fixedDelayString = "${application.rate-limit.cleanup-interval:PT5M}")
+    public void deleteFullBuckets() {
+        try {
+            int deleted = rateLimitBucketRepository.deleteFull();
+            log.debug("Deleted {} full rate limit buckets", deleted);
+        } catch (RuntimeException e) {
+            log.error("Failed to delete full rate limit buckets", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.rainy.homebudgettracker.limiter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+/**
+ * Token bucket shared by all instances, see {@link PostgresRateLimitStore}. Times are microseconds of the database
+ * clock.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Entity
+public class RateLimitBucket {
+    @Id
+    private String bucketKey;
+    @Column(nullable = false)
+    private long fullAt;
+    // Tokens taken by the last update, returned to the instance that made it
+    @Column(nullable = false)
+    private long granted;
+    @Column(nullable = false)
+    private long updatedAt;
+}
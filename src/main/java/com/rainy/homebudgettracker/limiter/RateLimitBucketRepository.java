@@ -0,0 +1,47 @@
+package com.rainy.homebudgettracker.limiter;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /*
+     * Takes the tokens in a single statement, so concurrent instances never hand out the same token. A new bucket is
+     * full; the current time of the database is passed to the update through EXCLUDED.updated_at. No row is returned
+     * when the bucket is empty. The statement is cancelled after a second (JDBC timeouts are whole seconds); a rate
+     * limiter that waits longer for the database than the request would take is better off limiting locally.
+     */
+    @Transactional
+    @QueryHints(@QueryHint(name = "jakarta.persistence.query.timeout", value = "1000"))
+    @Query(value = """
+        INSERT INTO rate_limit_bucket (bucket_key, full_at, granted, updated_at)
+        SELECT :bucketKey, clock.now + :tokens * :tokenMicros, :tokens, clock.now
+        FROM (SELECT CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000000 AS BIGINT) AS now) clock
+        ON CONFLICT (bucket_key) DO UPDATE SET
+            granted = LEAST(:tokens, (:capacityMicros
+                    - GREATEST(rate_limit_bucket.full_at - EXCLUDED.updated_at, 0)) / :tokenMicros),
+            full_at = GREATEST(rate_limit_bucket.full_at, EXCLUDED.updated_at) + :tokenMicros * LEAST(:tokens,
+                    (:capacityMicros - GREATEST(rate_limit_bucket.full_at - EXCLUDED.updated_at, 0)) / :tokenMicros),
+            updated_at = EXCLUDED.updated_at
+        WHERE :capacityMicros - GREATEST(rate_limit_bucket.full_at - EXCLUDED.updated_at, 0) >= :tokenMicros
+        RETURNING granted
+    """, nativeQuery = true)
+    Optional<Long> take(String bucketKey, long tokens, long tokenMicros, long capacityMicros);
+
+    /*
+     * A full bucket is the same as no bucket at all.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        DELETE FROM rate_limit_bucket
+        WHERE full_at < CAST(EXTRACT(EPOCH FROM clock_timestamp()) * 1000000 AS BIGINT)
+    """, nativeQuery = true)
+    int deleteFull();
+}
@@ -1,67 +1,93 @@
 package com.rainy.homebudgettracker.limiter;
 
-import jakarta.servlet.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.annotation.Order;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.HashMap;
+import java.util.Map;
 
+/*
+ * Runs in the security filter chain after the JWT filter, so authenticated requests are limited per user and only
+ * anonymous ones per client address. Many users behind one egress address then do not share a budget.
+ */
 @Component
-@Order(1)
 @Slf4j
-public class RateLimitFilter implements Filter {
-    private final ScheduledExecutorService executor;
-    private final ConcurrentHashMap<String, AtomicLong> requestCount;
-    private final Long limit;
-    private final Long blockDurationInMinutes;
-    private final Long limitDurationInSeconds;
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_KEY_PREFIX = "user:";
+    private static final String ADDRESS_KEY_PREFIX = "ip:";
 
-    public RateLimitFilter() {
-        executor = new ScheduledThreadPoolExecutor(8);
-        requestCount = new ConcurrentHashMap<>();
-        limit = 1000L;
-        blockDurationInMinutes = 5L;
-        limitDurationInSeconds = 2L;
+    private final RateLimitRoutes routes;
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    public RateLimitFilter(
+            RateLimitProperties properties,
+            ObjectProvider<RateLimitStore> rateLimitStore,
+            MeterRegistry meterRegistry
+    ) {
+        routes = new RateLimitRoutes(properties, rateLimitStore.getIfAvailable());
+
+        routes.limiters().forEach((budget, limiter) -> {
+            Gauge.builder("rate.limiter.keys", limiter, RateLimiter::trackedKeys)
+                    .description("Client keys with rate limit state")
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+            Gauge.builder("rate.limiter.keys.weight", limiter, RateLimiter::trackedWeightBytes)
+                    .description("Estimated heap size of the rate limit state")
+                    .tag("budget", budget)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            FunctionCounter.builder("rate.limiter.evictions", limiter, RateLimiter::sizeEvictions)
+                    .description("Client keys evicted to stay within the memory limit")
+                    .tags("budget", budget, "cause", "size")
+                    .register(meterRegistry);
+            FunctionCounter.builder("rate.limiter.evictions", limiter, RateLimiter::expirations)
+                    .description("Client keys forgotten after being idle")
+                    .tags("budget", budget, "cause", "expired")
+                    .register(meterRegistry);
+            rejections.put(budget, Counter.builder("rate.limiter.rejections")
+                    .description("Requests rejected for exceeding the rate limit")
+                    .tag("budget", budget)
+                    .register(meterRegistry));
+        });
     }
 
     @Override
-    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
-            throws IOException, ServletException {
-        String ipAddress = servletRequest.getRemoteAddr();
-        AtomicLong count = requestCount.computeIfAbsent(ipAddress, k -> new AtomicLong());
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimitRoutes.Route route = routes.match(request);
+        String clientKey = clientKey(request);
 
-        if (count.incrementAndGet() > limit) {
-            log.info("IP: {} count: {}", ipAddress, count.get());
+        if (!route.limiter().tryAcquire(clientKey, route.cost())) {
+            log.info("Client: {} exceeded the '{}' rate limit on {}", clientKey, route.budget(), request.getRequestURI());
+            rejections.get(route.budget()).increment();
 
-            HttpServletResponse response = (HttpServletResponse) servletResponse;
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-            response.getWriter().write("Too many requests from this IP. Please try again later.");
-
-            executor.schedule(() -> {
-                requestCount.remove(ipAddress);
-            }, blockDurationInMinutes, TimeUnit.MINUTES);
-
+            response.getWriter().write("Too many requests. Please try again later.");
             return;
         }
 
-        executor.schedule(() -> {
-            if (count.get() >=  limit) {
-                return;
-            }
-
-            if (count.decrementAndGet() == 0) {
-                requestCount.remove(ipAddress);
-            }
-        }, limitDurationInSeconds, TimeUnit.SECONDS);
+        filterChain.doFilter(request, response);
+    }
 
-        filterChain.doFilter(servletRequest, servletResponse);
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getPrincipal() != null) {
+            return USER_KEY_PREFIX + authentication.getPrincipal();
+        }
+        return ADDRESS_KEY_PREFIX + request.getRemoteAddr();
     }
 }
@@ -0,0 +1,41 @@
+package com.rainy.homebudgettracker.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rate limit budgets and the routes charged to them. A budget is a token bucket kept per client; a route takes
+ * {@code cost} tokens of its budget per request. Requests not matching any route take one token of the
+ * {@value RateLimitRoutes#DEFAULT_BUDGET} budget.
+ * <p>
+ * {@code leaseTokens} is only used when the buckets are shared by all instances, see {@link LeasedRateLimiter}.
+ */
+@ConfigurationProperties("application.rate-limit")
+public record RateLimitProperties(
+        Map<String, Budget> budgets,
+        @DefaultValue List<Route> routes
+) {
+    public record Budget(
+            long limit,
+            Duration window,
+            @DefaultValue("0s") Duration blockDuration,
+            @DefaultValue("16777216") long maxWeightBytes,
+            @DefaultValue("1") long leaseTokens
+    ) {}
+
+    /**
+     * {@code pattern} is a path pattern such as {@code /api/v1/reports/**}; an empty set of methods matches all of
+     * them. The first matching route is used.
+     */
+    public record Route(
+            String pattern,
+            @DefaultValue Set<String> methods,
+            @DefaultValue(RateLimitRoutes.DEFAULT_BUDGET) String budget,
+            @DefaultValue("1") int cost
+    ) {}
+}
@@ -0,0 +1,88 @@
+package com.rainy.homebudgettracker.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.*;
+
+/**
+ * Routes compiled from {@link RateLimitProperties}, each pointing at the limiter of its budget. Budgets are kept by
+ * this instance, or shared by all of them when a store is given. Invalid settings fail at startup.
+ */
+public final class RateLimitRoutes {
+    public static final String DEFAULT_BUDGET = "default";
+
+    private final Map<String, RateLimiter> limiters;
+    private final List<Route> routes;
+    private final Route defaultRoute;
+
+    public RateLimitRoutes(RateLimitProperties properties) {
+        this(properties, null);
+    }
+
+    public RateLimitRoutes(RateLimitProperties properties, RateLimitStore store) {
+        Map<String, RateLimitProperties.Budget> budgets =
+                properties.budgets() == null ? Map.of() : properties.budgets();
+        if (!budgets.containsKey(DEFAULT_BUDGET)) {
+            throw new IllegalStateException("Rate limit budget '" + DEFAULT_BUDGET + "' is not defined");
+        }
+
+        Map<String, RateLimiter> limiters = new LinkedHashMap<>();
+        budgets.forEach((name, budget) -> limiters.put(name, store == null
+                ? new TokenBucketRateLimiter(budget.limit(), budget.window(), budget.blockDuration(),
+                        budget.maxWeightBytes())
+                : new LeasedRateLimiter(name, budget, store)));
+
+        List<Route> routes = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.routes()) {
+            RateLimitProperties.Budget budget = budgets.get(route.budget());
+            if (budget == null) {
+                throw new IllegalStateException("Rate limit route " + route.pattern()
+                        + " uses an undefined budget '" + route.budget() + "'");
+            }
+            if (route.cost() <= 0 || route.cost() > budget.limit()) {
+                throw new IllegalStateException("Rate limit route " + route.pattern()
+                        + " needs a cost between 1 and the limit of its budget");
+            }
+
+            Set<String> methods = new HashSet<>();
+            route.methods().forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+            routes.add(new Route(route.budget(), limiters.get(route.budget()), route.cost(),
+                    PathPatternParser.defaultInstance.parse(route.pattern()), methods));
+        }
+
+        this.limiters = Collections.unmodifiableMap(limiters);
+        this.routes = List.copyOf(routes);
+        this.defaultRoute = new Route(DEFAULT_BUDGET, limiters.get(DEFAULT_BUDGET), 1, null, Set.of());
+    }
+
+    public Route match(HttpServletRequest request) {
+        if (routes.isEmpty()) {
+            return defaultRoute;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if ((route.methods.isEmpty() || route.methods.contains(request.getMethod()))
+                    && route.pattern.matches(pathContainer)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    public Map<String, RateLimiter> limiters() {
+        return limiters;
+    }
+
+    public record Route(
+            String budget,
+            RateLimiter limiter,
+            int cost,
+            PathPattern pattern,
+            Set<String> methods
+    ) {}
+}
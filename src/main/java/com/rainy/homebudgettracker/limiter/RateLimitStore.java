@@ -0,0 +1,13 @@
+package com.rainy.homebudgettracker.limiter;
+
+/**
+ * Token buckets shared by all instances of the application. A bucket is kept as the moment it will be full again, in
+ * microseconds of the store's own clock, so instances with skewed clocks still share one time line.
+ */
+public interface RateLimitStore {
+    /**
+     * Takes up to {@code tokens} tokens from the bucket and returns how many were taken, 0 when it is empty. One token
+     * refills in {@code tokenMicros} and a full bucket holds {@code capacityMicros}.
+     */
+    long take(String bucketKey, long tokens, long tokenMicros, long capacityMicros);
+}
@@ -0,0 +1,22 @@
+package com.rainy.homebudgettracker.limiter;
+
+public interface RateLimiter {
+    /**
+     * Takes {@code cost} tokens of the key's bucket, or none when the request is rejected.
+     */
+    boolean tryAcquire(String key, int cost);
+
+    long trackedKeys();
+
+    long trackedWeightBytes();
+
+    /**
+     * Keys evicted to stay within the memory limit, while their state was still in use.
+     */
+    long sizeEvictions();
+
+    /**
+     * Keys forgotten after being idle.
+     */
+    long expirations();
+}
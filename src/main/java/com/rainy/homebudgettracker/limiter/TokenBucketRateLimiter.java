@@ -0,0 +1,158 @@
+package com.rainy.homebudgettracker.limiter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket of {@code limit} tokens refilled evenly over {@code window}, kept per key as a single timestamp: the
+ * moment at which the bucket will be full again (generic cell rate algorithm). Taking a token moves it forward by the
+ * refill time of one token with a single CAS, so nothing is scheduled per request. A key that runs out of tokens is
+ * blocked for {@code blockDuration}, after which its bucket is full again. Timestamps are even, the lowest bit marks
+ * the end of a block instead.
+ */
+public final class TokenBucketRateLimiter implements RateLimiter {
+    private static final long BLOCKED = 1L;
+    // Estimated heap size of a tracked key besides its characters: cache node, bucket and string header
+    private static final int KEY_OVERHEAD_BYTES = 128;
+
+    private final long tokenNanos;
+    private final long capacityNanos;
+    private final long blockNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongAdder sizeEvictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public TokenBucketRateLimiter(long limit, Duration window, Duration blockDuration, long maxWeightBytes) {
+        this(limit, window, blockDuration, maxWeightBytes, Ticker.systemTicker());
+    }
+
+    /*
+     * Buckets are weighed by the estimated heap size of their keys, so a scan from many addresses cannot take more than
+     * the configured memory; the least valuable keys are evicted first. A key is forgotten once its bucket is full
+     * again, or once its block is over.
+     */
+    TokenBucketRateLimiter(long limit, Duration window, Duration blockDuration, long maxWeightBytes, Ticker ticker) {
+        if (limit <= 0 || window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("Rate limit needs a positive limit and window");
+        }
+        this.tokenNanos = Math.max(2, window.toNanos() / limit) & ~BLOCKED;
+        this.capacityNanos = tokenNanos * limit;
+        this.blockNanos = blockDuration.toNanos();
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String key, AtomicLong fullAt) -> weigh(key))
+                .expireAfter(new FullBucketExpiry(capacityNanos))
+                .evictionListener((String key, AtomicLong fullAt, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        sizeEvictions.increment();
+                    } else if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
+
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, 1);
+    }
+
+    /**
+     * A request that cannot afford its cost is rejected, but only a key without a single token left is blocked.
+     */
+    @Override
+    public boolean tryAcquire(String key, int cost) {
+        long now = ticker.read() & ~BLOCKED;
+        AtomicLong fullAt = buckets.getIfPresent(key);
+        if (fullAt == null) {
+            fullAt = buckets.get(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long base = current - now > 0 ? current : now;
+            if ((current & BLOCKED) != 0) {
+                // Requests rejected during a block do not extend it
+                if (current - now > 0) {
+                    return false;
+                }
+                base = now;
+            }
+
+            long next = base + tokenNanos * cost;
+            if (next - now <= capacityNanos) {
+                if (fullAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            } else if (blockNanos <= 0 || base + tokenNanos - now <= capacityNanos) {
+                return false;
+            } else if (fullAt.compareAndSet(current, (now + blockNanos - 1) | BLOCKED)) {
+                buckets.policy().expireVariably().ifPresent(expiry ->
+                        expiry.setExpiresAfter(key, Duration.ofNanos(blockNanos)));
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    @Override
+    public long trackedWeightBytes() {
+        return buckets.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    @Override
+    public long sizeEvictions() {
+        return sizeEvictions.sum();
+    }
+
+    /**
+     * Keys forgotten after being idle long enough for their buckets to fill up.
+     */
+    @Override
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    static int weigh(String key) {
+        return KEY_OVERHEAD_BYTES + 2 * key.length();
+    }
+
+    /*
+     * A key expires a window after its bucket is full again. The expiry is only moved when the bucket would outlive it,
+     * so most requests leave the cache entry untouched and do not contend on it.
+     */
+    private record FullBucketExpiry(long windowNanos) implements Expiry<String, AtomicLong> {
+        @Override
+        public long expireAfterCreate(String key, AtomicLong fullAt, long currentTime) {
+            return Math.max(fullAt.get() - currentTime, 0) + windowNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, AtomicLong fullAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, fullAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, AtomicLong fullAt, long currentTime, long currentDuration) {
+            long untilFull = fullAt.get() - currentTime;
+            return untilFull < currentDuration ? currentDuration : untilFull + windowNanos;
+        }
+    }
+}
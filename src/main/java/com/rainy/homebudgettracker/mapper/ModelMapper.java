@@ -4,12 +4,15 @@ import com.rainy.homebudgettracker.account.Account;
 import com.rainy.homebudgettracker.account.AccountRequest;
 import com.rainy.homebudgettracker.account.AccountResponse;
 import com.rainy.homebudgettracker.transaction.CategorizationRule;
+import com.rainy.homebudgettracker.transaction.CategorySum;
 import com.rainy.homebudgettracker.transaction.dto.*;
 import com.rainy.homebudgettracker.category.Category;
 import com.rainy.homebudgettracker.category.CategoryRequest;
 import com.rainy.homebudgettracker.category.CategoryResponse;
 import com.rainy.homebudgettracker.transaction.Transaction;
+import com.rainy.homebudgettracker.transaction.TransactionView;
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
 import com.rainy.homebudgettracker.user.DefaultCurrency;
 import com.rainy.homebudgettracker.user.DefaultCurrencyResponseRequest;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 
 @Component
 @RequiredArgsConstructor
@@ -43,12 +47,24 @@ public class ModelMapper {
                         && args.length == 1
                         && args[0] instanceof String imageUrl)
                     yield (T) mapTransactionToResponse(transaction, imageUrl);
+                else if (source instanceof TransactionView transactionView
+                        && args.length == 0)
+                    yield (T) mapTransactionViewToResponse(transactionView);
+                else
+                    throw new UnsupportedOperationException(message);
+            }
+            case "TransactionRequest": {
+                if (source instanceof TransactionResponse extractedTransaction
+                        && args.length == 0)
+                    yield (T) mapExtractedTransactionToRequest(extractedTransaction);
                 else
                     throw new UnsupportedOperationException(message);
             }
             case "CategoryResponse": {
                 if (source instanceof Category category && args.length == 0)
                     yield (T) mapCategoryToResponse(category);
+                else if (source instanceof CategorySum categorySum && args.length == 0)
+                    yield (T) mapCategorySumToCategoryResponse(categorySum);
                 else
                     throw new UnsupportedOperationException(message);
             }
@@ -86,6 +102,10 @@ public class ModelMapper {
                         && args.length == 1
                         && args[0] instanceof Category category) {
                     yield (T) mapBigDecimalToSumResponseWithCategory(sum, category);
+                } else if (source instanceof BigDecimal sum
+                        && args.length == 1
+                        && args[0] instanceof CategoryResponse categoryResponse) {
+                    yield (T) mapBigDecimalToSumResponseWithCategory(sum, categoryResponse);
                 } else
                     throw new UnsupportedOperationException(message);
             }
@@ -146,6 +166,26 @@ public class ModelMapper {
                 .build();
     }
 
+    private TransactionResponse mapTransactionViewToResponse(TransactionView transactionView) {
+        return TransactionResponse.builder()
+                .id(transactionView.id())
+                .amount(String.valueOf(transactionView.amount()))
+                .category(CategoryResponse.builder()
+                        .id(transactionView.categoryId())
+                        .name(transactionView.categoryName())
+                        .build())
+                .date(String.valueOf(transactionView.date()))
+                .account(AccountResponse.builder()
+                        .id(transactionView.accountId())
+                        .name(transactionView.accountName())
+                        .currencyCode(transactionView.accountCurrencyCode().name())
+                        .build())
+                .transactionMethod(transactionView.transactionMethod().name())
+                .hasImage(transactionView.imageFilePath() != null)
+                .details(transactionView.details())
+                .build();
+    }
+
     private CategoryResponse mapCategoryToResponse(Category category) {
         return CategoryResponse.builder()
                 .id(category.getId())
@@ -153,6 +193,13 @@ public class ModelMapper {
                 .build();
     }
 
+    private CategoryResponse mapCategorySumToCategoryResponse(CategorySum categorySum) {
+        return CategoryResponse.builder()
+                .id(categorySum.categoryId())
+                .name(categorySum.categoryName())
+                .build();
+    }
+
     private Category mapCategoryRequestToCategory(CategoryRequest categoryRequest, String userSub) {
         return Category.builder()
                 .name(categoryRequest.getName())
@@ -198,6 +245,13 @@ public class ModelMapper {
                 .build();
     }
 
+    private SumResponse mapBigDecimalToSumResponseWithCategory(BigDecimal sum, CategoryResponse categoryResponse) {
+        return SumResponse.builder()
+                .amount(sum.toString())
+                .category(categoryResponse)
+                .build();
+    }
+
     private DefaultCurrency mapDefaultCurrencyRequestToDefaultCurrency(
             DefaultCurrencyResponseRequest defaultCurrencyResponseRequest, String userSub) {
         return DefaultCurrency.builder()
@@ -212,6 +266,21 @@ public class ModelMapper {
                 .build();
     }
 
+    /*
+     * Rows extracted from a bank statement carry the amount, date and method as text, the category is set only when a
+     * categorization rule matched.
+     */
+    private TransactionRequest mapExtractedTransactionToRequest(TransactionResponse extractedTransaction) {
+        CategoryResponse category = extractedTransaction.category();
+        return TransactionRequest.builder()
+                .amount(new BigDecimal(extractedTransaction.amount()))
+                .categoryName(category == null ? null : CategoryRequest.builder().name(category.getName()).build())
+                .date(LocalDate.parse(extractedTransaction.date()))
+                .transactionMethod(TransactionMethod.valueOf(extractedTransaction.transactionMethod()))
+                .details(extractedTransaction.details())
+                .build();
+    }
+
     private RuleResponse mapRuleToResponse(CategorizationRule rule) {
         CategoryResponse categoryResponse = mapCategoryToResponse(rule.getCategory());
         return RuleResponse.builder()
@@ -0,0 +1,31 @@
+package com.rainy.homebudgettracker.transaction;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of an account at the end of the month starting on {@code monthStart}, i.e. the sum of all transactions
+ * dated before the next month. Rows exist only for months in which the account had transactions, the balance in a
+ * month without a row equals the closing balance of the nearest earlier row.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Entity
+@Table(indexes = {
+        @Index(columnList = "user_sub")
+})
+public class AccountMonthlyBalance {
+    @EmbeddedId
+    private AccountMonthlyBalanceId id;
+    @Column(nullable = false)
+    private String userSub;
+    @Column(nullable = false)
+    private BigDecimal closingBalance;
+}
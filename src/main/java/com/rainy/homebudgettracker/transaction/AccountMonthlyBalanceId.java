@@ -0,0 +1,24 @@
+package com.rainy.homebudgettracker.transaction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class AccountMonthlyBalanceId implements Serializable {
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+    @Column(nullable = false)
+    private LocalDate monthStart;
+}
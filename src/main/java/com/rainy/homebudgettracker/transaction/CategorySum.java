@@ -1,10 +1,21 @@
 package com.rainy.homebudgettracker.transaction;
 
-import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import lombok.Builder;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
 
+/**
+ * Sum of transaction amounts in a single category. {@code currencyCode} and {@code date} are only set when the sum
+ * was grouped by them as well, otherwise they are {@code null}.
+ */
+@Builder
 public record CategorySum(
-        Category category,
+        UUID categoryId,
+        String categoryName,
+        CurrencyCode currencyCode,
+        LocalDate date,
         BigDecimal sum
 ) {}
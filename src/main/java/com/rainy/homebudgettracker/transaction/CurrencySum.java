@@ -0,0 +1,18 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sum of transaction amounts in a single account currency. {@code date} is only set when the sum was grouped
+ * by transaction date as well (needed for historical conversion), otherwise it is {@code null}.
+ */
+@Builder
+public record CurrencySum(
+        CurrencyCode currencyCode,
+        LocalDate date,
+        BigDecimal sum
+) { }
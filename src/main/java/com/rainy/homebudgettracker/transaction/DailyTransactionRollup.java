@@ -0,0 +1,52 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.account.Account;
+import com.rainy.homebudgettracker.category.Category;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-day totals of a user's transactions in one account and category, maintained together with the transactions
+ * so reports read one row per day instead of every transaction. Incomes and expenses are kept apart to support
+ * filtering by {@link com.rainy.homebudgettracker.transaction.enums.AmountType}.
+ * <p>
+ * The account and category associations are read-only and have no foreign keys, the rollup is derived data and
+ * must never block deleting the rows it points to.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Entity
+@Table(indexes = {
+        @Index(columnList = "user_sub, date")
+})
+public class DailyTransactionRollup {
+    @EmbeddedId
+    private DailyTransactionRollupId id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Account account;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Category category;
+    @Column(nullable = false)
+    private BigDecimal incomeSum;
+    @Column(nullable = false)
+    private BigDecimal expenseSum;
+    @Column(nullable = false)
+    private long incomeCount;
+    @Column(nullable = false)
+    private long expenseCount;
+}
@@ -0,0 +1,28 @@
+package com.rainy.homebudgettracker.transaction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class DailyTransactionRollupId implements Serializable {
+    @Column(nullable = false)
+    private String userSub;
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+    @Column(name = "category_id", nullable = false)
+    private UUID categoryId;
+    @Column(nullable = false)
+    private LocalDate date;
+}
@@ -18,6 +18,10 @@ import java.util.UUID;
 @EqualsAndHashCode
 @Entity
 @ToString
+@Table(indexes = {
+        @Index(columnList = "account_id, date, id"),
+        @Index(columnList = "fingerprint", unique = true)
+})
 public class Transaction {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -39,4 +43,7 @@ public class Transaction {
     private TransactionMethod transactionMethod;
     private String imageFilePath;
     private String details;
+    // Set only for imported transactions, see TransactionFingerprints
+    @Column(length = 64)
+    private String fingerprint;
 }
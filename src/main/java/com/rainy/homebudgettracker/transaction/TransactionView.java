@@ -0,0 +1,28 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
+import lombok.Builder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a transaction together with the account and category columns that are shown next to it,
+ * so a listing needs no lazy loading of either association.
+ */
+@Builder
+public record TransactionView(
+        UUID id,
+        BigDecimal amount,
+        LocalDate date,
+        TransactionMethod transactionMethod,
+        String details,
+        String imageFilePath,
+        UUID accountId,
+        String accountName,
+        CurrencyCode accountCurrencyCode,
+        UUID categoryId,
+        String categoryName
+) {}
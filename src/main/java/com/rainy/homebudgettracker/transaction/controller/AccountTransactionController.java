@@ -2,6 +2,7 @@ package com.rainy.homebudgettracker.transaction.controller;
 
 import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.dto.TransactionSliceResponse;
 import com.rainy.homebudgettracker.transaction.service.TransactionService;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionFilter;
 import jakarta.validation.Valid;
@@ -36,6 +37,23 @@ public class AccountTransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    /*
+     * Cursor-paginated variant for infinite scrolling, newest transactions first. The first slice is requested without
+     * a cursor, every following one with the nextCursor of the previous slice.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<TransactionSliceResponse> scrollCurrentUserTransactions(
+            @PathVariable UUID accountId,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        TransactionFilter filter = new TransactionFilter(accountId, categoryId, startDate, endDate);
+        return ResponseEntity.ok(transactionService.findCurrentUserTransactions(filter, cursor, size));
+    }
+
     @PostMapping
     public ResponseEntity<TransactionResponse> createTransactionForCurrentUser(
             @PathVariable UUID accountId,
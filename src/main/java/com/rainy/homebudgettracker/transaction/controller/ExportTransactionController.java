@@ -7,7 +7,11 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/transactions/export")
@@ -16,11 +20,23 @@ public class ExportTransactionController {
     private final TransactionService transactionService;
 
     @GetMapping()
-    public ResponseEntity<byte[]> getCurrentUserTransactionsAsCSV() {
-        byte[] content = transactionService.generateCSVWithCurrentUserTransactions();
+    public ResponseEntity<StreamingResponseBody> getCurrentUserTransactionsAsCSV(
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
         HttpHeaders headers = new HttpHeaders();
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDispositionFormData("filename", "transactions.csv.gz");
+            return ResponseEntity.ok().headers(headers).body(outputStream -> {
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+                transactionService.writeCSVWithCurrentUserTransactions(gzipOutputStream);
+                gzipOutputStream.finish();
+            });
+        }
+
         headers.setContentType(MediaType.parseMediaType("text/csv"));
         headers.setContentDispositionFormData("filename", "transactions.csv");
-        return ResponseEntity.ok().headers(headers).body(content);
+        return ResponseEntity.ok().headers(headers)
+                .body(transactionService::writeCSVWithCurrentUserTransactions);
     }
 }
@@ -1,10 +1,18 @@
 package com.rainy.homebudgettracker.transaction.controller;
 
 import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.service.ImportJobService;
 import com.rainy.homebudgettracker.transaction.service.ImportTransactionServiceImpl;
-import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportCommitRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportJobResponse;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
+import com.rainy.homebudgettracker.transaction.dto.ImportSessionResponse;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -17,22 +25,52 @@ import java.util.UUID;
 @AllArgsConstructor
 public class ImportTransactionController {
     private final ImportTransactionServiceImpl importTransactionService;
+    private final ImportJobService importJobService;
 
     @PostMapping("/csv/upload")
-    public ResponseEntity<List<TransactionResponse>> uploadTransactionsFromCSV(
+    public ResponseEntity<ImportSessionResponse> uploadTransactionsFromCSV(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("bank-name")BankName bankName
+            @RequestParam("bank-name")BankName bankName,
+            @PageableDefault(size = 50) Pageable pageable
             ) {
-        System.out.println(importTransactionService.extractTransactions(file, bankName));
-        return ResponseEntity.ok(importTransactionService.extractTransactions(file, bankName));
+        return ResponseEntity.ok(importTransactionService.createImportSession(file, bankName, pageable));
+    }
+
+    @GetMapping("/sessions/{sessionId}")
+    public ResponseEntity<Page<TransactionResponse>> getImportSessionRows(
+            @PathVariable UUID sessionId,
+            @PageableDefault(size = 50) Pageable pageable
+    ) {
+        return ResponseEntity.ok(importTransactionService.findImportSessionRows(sessionId, pageable));
     }
 
     @PostMapping("/save")
-    public ResponseEntity<Boolean> saveTransactions(
+    public ResponseEntity<List<ImportRowResult>> saveTransactions(
+            @RequestParam(name = "session-id") UUID sessionId,
             @RequestParam(name = "account-id") UUID accountId,
-            @RequestBody List<TransactionRequest> transactions
+            @RequestBody(required = false) ImportCommitRequest commitRequest
     ) {
-        importTransactionService.importTransactions(accountId, transactions);
-        return ResponseEntity.accepted().build();
+        return ResponseEntity.ok(importTransactionService.importTransactions(sessionId, accountId, commitRequest));
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ImportJobResponse> submitImportJob(
+            @RequestParam(name = "session-id") UUID sessionId,
+            @RequestParam(name = "account-id") UUID accountId,
+            @RequestBody(required = false) ImportCommitRequest commitRequest
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(importJobService.submitImportJob(sessionId, accountId, commitRequest));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(importJobService.findImportJob(jobId));
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<ImportJobResponse> cancelImportJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(importJobService.cancelImportJob(jobId));
     }
 }
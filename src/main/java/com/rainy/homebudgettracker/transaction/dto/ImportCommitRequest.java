@@ -0,0 +1,13 @@
+package com.rainy.homebudgettracker.transaction.dto;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes to the rows of an import session made before saving it. Rows are identified by their index in the session;
+ * an overridden row is saved as given instead of the extracted one.
+ */
+public record ImportCommitRequest(
+        Map<Integer, TransactionRequest> overrides,
+        Set<Integer> skippedRows
+) {}
@@ -0,0 +1,29 @@
+package com.rainy.homebudgettracker.transaction.dto;
+
+import com.rainy.homebudgettracker.transaction.enums.ImportJobStatus;
+import lombok.Builder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State of an import job. {@code failures} holds only the rows that were not imported, indexes refer to the rows of
+ * the import session.
+ */
+@Builder
+public record ImportJobResponse(
+        UUID jobId,
+        ImportJobStatus status,
+        int totalRows,
+        int parsedRows,
+        int insertedRows,
+        int duplicateRows,
+        int failedRows,
+        double rowsPerSecond,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        String error,
+        List<ImportRowResult> failures
+) {}
@@ -0,0 +1,19 @@
+package com.rainy.homebudgettracker.transaction.dto;
+
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Outcome of importing the row at {@code index} of the request or of the import session. {@code transactionId} is set
+ * for an imported row, {@code error} for a rejected one. A row that was already imported before is skipped and marked
+ * as {@code duplicate}.
+ */
+@Builder
+public record ImportRowResult(
+        int index,
+        boolean imported,
+        UUID transactionId,
+        boolean duplicate,
+        String error
+) {}
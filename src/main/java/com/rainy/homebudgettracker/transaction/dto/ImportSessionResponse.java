@@ -0,0 +1,13 @@
+package com.rainy.homebudgettracker.transaction.dto;
+
+import lombok.Builder;
+import org.springframework.data.domain.Page;
+
+import java.util.UUID;
+
+@Builder
+public record ImportSessionResponse(
+        UUID sessionId,
+        int rowCount,
+        Page<TransactionResponse> preview
+) {}
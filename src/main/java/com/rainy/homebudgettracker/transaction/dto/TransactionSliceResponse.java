@@ -0,0 +1,15 @@
+package com.rainy.homebudgettracker.transaction.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * One slice of a cursor-paginated listing. {@code nextCursor} is {@code null} when there is nothing more to fetch.
+ */
+@Builder
+public record TransactionSliceResponse(
+        List<TransactionResponse> content,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -1,6 +1,28 @@
 package com.rainy.homebudgettracker.transaction.enums;
 
-public enum BankName {
-    ING,
-    REVOLUT
+import java.util.Locale;
+
+/**
+ * Name of a bank statement format, e.g. {@code ING}. Names are case-insensitive. The supported names are those of the
+ * bank format definitions and of the extractors implemented in code, so a new format does not need a new constant.
+ */
+public record BankName(String name) {
+    public static final BankName ING = new BankName("ING");
+    public static final BankName REVOLUT = new BankName("REVOLUT");
+
+    public BankName {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Bank name cannot be blank");
+        }
+        name = name.strip().toUpperCase(Locale.ROOT);
+    }
+
+    public static BankName valueOf(String name) {
+        return new BankName(name);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
 }
@@ -0,0 +1,9 @@
+package com.rainy.homebudgettracker.transaction.enums;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
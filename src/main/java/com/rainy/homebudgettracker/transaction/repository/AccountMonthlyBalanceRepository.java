@@ -0,0 +1,106 @@
+package com.rainy.homebudgettracker.transaction.repository;
+
+import com.rainy.homebudgettracker.transaction.AccountBalance;
+import com.rainy.homebudgettracker.transaction.AccountMonthlyBalance;
+import com.rainy.homebudgettracker.transaction.AccountMonthlyBalanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountMonthlyBalanceRepository extends JpaRepository<AccountMonthlyBalance, AccountMonthlyBalanceId> {
+
+    /*
+     * Balance of every account of the user at the end of the month before the given one.
+     */
+    @Query("""
+        SELECT new com.rainy.homebudgettracker.transaction.AccountBalance(
+            b.id.accountId,
+            b.closingBalance
+        )
+        FROM AccountMonthlyBalance b
+        WHERE b.userSub = :userSub
+            AND b.id.monthStart = (
+                SELECT MAX(l.id.monthStart)
+                FROM AccountMonthlyBalance l
+                WHERE l.id.accountId = b.id.accountId AND l.id.monthStart < :monthStart
+            )
+    """)
+    List<AccountBalance> findClosingBalancesBefore(String userSub, LocalDate monthStart);
+
+    /*
+     * Creates the row for the month, starting from the closing balance of the nearest earlier month. Does nothing
+     * when the row already exists.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO account_monthly_balance (account_id, month_start, user_sub, closing_balance)
+        VALUES (:accountId, :monthStart, :userSub, COALESCE((
+            SELECT b.closing_balance
+            FROM account_monthly_balance b
+            WHERE b.account_id = :accountId AND b.month_start < :monthStart
+            ORDER BY b.month_start DESC
+            LIMIT 1
+        ), 0))
+        ON CONFLICT (account_id, month_start) DO NOTHING
+    """, nativeQuery = true)
+    void openMonth(UUID accountId, LocalDate monthStart, String userSub);
+
+    @Modifying
+    @Query(value = """
+        UPDATE account_monthly_balance
+        SET closing_balance = closing_balance + :delta
+        WHERE account_id = :accountId AND month_start >= :monthStart
+    """, nativeQuery = true)
+    void addToClosingBalances(UUID accountId, LocalDate monthStart, BigDecimal delta);
+
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyBalance b WHERE b.userSub = :userSub")
+    void deleteAllByUserSub(String userSub);
+
+    @Modifying
+    @Query("DELETE FROM AccountMonthlyBalance b WHERE b.id.accountId = :accountId")
+    void deleteAllByAccountId(UUID accountId);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO account_monthly_balance (account_id, month_start, user_sub, closing_balance)
+        SELECT m.account_id, m.month_start, m.user_sub,
+            SUM(m.total) OVER (PARTITION BY m.account_id ORDER BY m.month_start)
+        FROM (
+            SELECT t.account_id, CAST(date_trunc('month', t.date) AS date) AS month_start, t.user_sub,
+                SUM(t.amount) AS total
+            FROM transaction t
+            WHERE t.user_sub = :userSub
+            GROUP BY t.account_id, CAST(date_trunc('month', t.date) AS date), t.user_sub
+        ) m
+    """, nativeQuery = true)
+    void insertRecomputedForUser(String userSub);
+
+    /*
+     * Users with a stored closing balance that differs from the sum of the transactions, or with non-zero
+     * transactions in a month that has no row.
+     */
+    @Query(value = """
+        SELECT b.user_sub
+        FROM account_monthly_balance b
+        WHERE b.closing_balance <> (
+            SELECT COALESCE(SUM(t.amount), 0)
+            FROM transaction t
+            WHERE t.account_id = b.account_id AND t.date < CAST(b.month_start + INTERVAL '1 month' AS date)
+        )
+        UNION
+        SELECT t.user_sub
+        FROM transaction t
+        WHERE t.amount <> 0 AND NOT EXISTS (
+            SELECT 1
+            FROM account_monthly_balance b
+            WHERE b.account_id = t.account_id AND b.month_start = CAST(date_trunc('month', t.date) AS date)
+        )
+    """, nativeQuery = true)
+    List<String> findUserSubsWithDrift();
+}
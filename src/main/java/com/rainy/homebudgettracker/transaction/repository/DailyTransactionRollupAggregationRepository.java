@@ -0,0 +1,29 @@
+package com.rainy.homebudgettracker.transaction.repository;
+
+import com.rainy.homebudgettracker.transaction.CategorySum;
+import com.rainy.homebudgettracker.transaction.CurrencySum;
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollup;
+import com.rainy.homebudgettracker.transaction.enums.AmountType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Aggregate queries over {@link DailyTransactionRollup} rows. The {@link AmountType} selects which of the stored
+ * sums is added up ({@code null} means incomes and expenses together), the {@link Specification} filters the rows.
+ */
+public interface DailyTransactionRollupAggregationRepository {
+    List<CurrencySum> sumByCurrency(Specification<DailyTransactionRollup> spec, AmountType amountType);
+
+    List<CurrencySum> sumByCurrencyAndDate(Specification<DailyTransactionRollup> spec, AmountType amountType);
+
+    List<CategorySum> sumByCategory(
+            Specification<DailyTransactionRollup> spec, AmountType amountType, Sort.Direction direction, int limit);
+
+    List<CategorySum> sumByCategoryAndCurrency(
+            Specification<DailyTransactionRollup> spec, AmountType amountType, Sort.Direction direction);
+
+    List<CategorySum> sumByCategoryCurrencyAndDate(
+            Specification<DailyTransactionRollup> spec, AmountType amountType);
+}
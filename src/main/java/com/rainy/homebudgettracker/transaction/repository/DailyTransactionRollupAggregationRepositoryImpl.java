@@ -0,0 +1,169 @@
+package com.rainy.homebudgettracker.transaction.repository;
+
+import com.rainy.homebudgettracker.account.Account;
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.CategorySum;
+import com.rainy.homebudgettracker.transaction.CurrencySum;
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollup;
+import com.rainy.homebudgettracker.transaction.enums.AmountType;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class DailyTransactionRollupAggregationRepositoryImpl implements DailyTransactionRollupAggregationRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CurrencySum> sumByCurrency(Specification<DailyTransactionRollup> spec, AmountType amountType) {
+        return sum(spec, amountType, false);
+    }
+
+    @Override
+    public List<CurrencySum> sumByCurrencyAndDate(Specification<DailyTransactionRollup> spec, AmountType amountType) {
+        return sum(spec, amountType, true);
+    }
+
+    private List<CurrencySum> sum(
+            Specification<DailyTransactionRollup> spec, AmountType amountType, boolean groupByDate
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DailyTransactionRollup> root = query.from(DailyTransactionRollup.class);
+        Join<DailyTransactionRollup, Account> account = root.join("account");
+
+        Path<CurrencyCode> currencyCode = account.get("currencyCode");
+        Path<LocalDate> date = root.get("id").get("date");
+        Expression<BigDecimal> sum = cb.sum(amount(root, amountType, cb));
+
+        if (groupByDate) {
+            query.multiselect(currencyCode, date, sum).groupBy(currencyCode, date);
+        } else {
+            query.multiselect(currencyCode, sum).groupBy(currencyCode);
+        }
+        applySpecification(spec, root, query, cb);
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> CurrencySum.builder()
+                        .currencyCode(tuple.get(currencyCode))
+                        .date(groupByDate ? tuple.get(date) : null)
+                        .sum(tuple.get(sum))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public List<CategorySum> sumByCategory(
+            Specification<DailyTransactionRollup> spec, AmountType amountType, Sort.Direction direction, int limit
+    ) {
+        return sumByCategory(spec, amountType, false, false, direction, limit);
+    }
+
+    @Override
+    public List<CategorySum> sumByCategoryAndCurrency(
+            Specification<DailyTransactionRollup> spec, AmountType amountType, Sort.Direction direction
+    ) {
+        return sumByCategory(spec, amountType, true, false, direction, null);
+    }
+
+    @Override
+    public List<CategorySum> sumByCategoryCurrencyAndDate(
+            Specification<DailyTransactionRollup> spec, AmountType amountType
+    ) {
+        return sumByCategory(spec, amountType, true, true, null, null);
+    }
+
+    private List<CategorySum> sumByCategory(
+            Specification<DailyTransactionRollup> spec,
+            AmountType amountType,
+            boolean groupByCurrency,
+            boolean groupByDate,
+            Sort.Direction direction,
+            Integer limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<DailyTransactionRollup> root = query.from(DailyTransactionRollup.class);
+        Join<DailyTransactionRollup, Category> category = root.join("category");
+
+        Path<UUID> categoryId = category.get("id");
+        Path<String> categoryName = category.get("name");
+        Path<CurrencyCode> currencyCode = groupByCurrency ? root.join("account").get("currencyCode") : null;
+        Path<LocalDate> date = groupByDate ? root.get("id").get("date") : null;
+        Expression<BigDecimal> sum = cb.sum(amount(root, amountType, cb));
+
+        List<Selection<?>> selections = new ArrayList<>(List.of(categoryId, categoryName));
+        List<Expression<?>> grouping = new ArrayList<>(List.of(categoryId, categoryName));
+        if (groupByCurrency) {
+            selections.add(currencyCode);
+            grouping.add(currencyCode);
+        }
+        if (groupByDate) {
+            selections.add(date);
+            grouping.add(date);
+        }
+        selections.add(sum);
+
+        query.multiselect(selections).groupBy(grouping);
+        applySpecification(spec, root, query, cb);
+        if (direction != null) {
+            query.orderBy(direction.isAscending() ? cb.asc(sum) : cb.desc(sum), cb.asc(categoryName));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        return typedQuery.getResultList().stream()
+                .map(tuple -> CategorySum.builder()
+                        .categoryId(tuple.get(categoryId))
+                        .categoryName(tuple.get(categoryName))
+                        .currencyCode(groupByCurrency ? tuple.get(currencyCode) : null)
+                        .date(groupByDate ? tuple.get(date) : null)
+                        .sum(tuple.get(sum))
+                        .build())
+                .toList();
+    }
+
+    private Expression<BigDecimal> amount(
+            Root<DailyTransactionRollup> root, AmountType amountType, CriteriaBuilder cb
+    ) {
+        Path<BigDecimal> incomeSum = root.get("incomeSum");
+        Path<BigDecimal> expenseSum = root.get("expenseSum");
+        if (amountType == null) {
+            return cb.sum(incomeSum, expenseSum);
+        }
+        return switch (amountType) {
+            case POSITIVE -> incomeSum;
+            case NEGATIVE -> expenseSum;
+            case ALL -> cb.sum(incomeSum, expenseSum);
+        };
+    }
+
+    private void applySpecification(
+            Specification<DailyTransactionRollup> spec,
+            Root<DailyTransactionRollup> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder cb
+    ) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.rainy.homebudgettracker.transaction.repository;
+
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollup;
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface DailyTransactionRollupRepository extends
+        JpaRepository<DailyTransactionRollup, DailyTransactionRollupId>,
+        JpaSpecificationExecutor<DailyTransactionRollup>,
+        DailyTransactionRollupAggregationRepository {
+
+    /*
+     * Adds the deltas to the row in a single statement, so concurrent writers to the same day never lose an update.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_transaction_rollup
+            (user_sub, account_id, category_id, date, income_sum, expense_sum, income_count, expense_count)
+        VALUES (:userSub, :accountId, :categoryId, :date, :incomeSum, :expenseSum, :incomeCount, :expenseCount)
+        ON CONFLICT (user_sub, account_id, category_id, date) DO UPDATE SET
+            income_sum = daily_transaction_rollup.income_sum + EXCLUDED.income_sum,
+            expense_sum = daily_transaction_rollup.expense_sum + EXCLUDED.expense_sum,
+            income_count = daily_transaction_rollup.income_count + EXCLUDED.income_count,
+            expense_count = daily_transaction_rollup.expense_count + EXCLUDED.expense_count
+    """, nativeQuery = true)
+    void applyDelta(
+            String userSub,
+            UUID accountId,
+            UUID categoryId,
+            LocalDate date,
+            BigDecimal incomeSum,
+            BigDecimal expenseSum,
+            long incomeCount,
+            long expenseCount
+    );
+
+    @Modifying
+    @Query("""
+        DELETE FROM DailyTransactionRollup r
+        WHERE r.id = :id AND r.incomeCount = 0 AND r.expenseCount = 0
+    """)
+    void deleteIfEmpty(DailyTransactionRollupId id);
+
+    @Modifying
+    @Query("DELETE FROM DailyTransactionRollup r WHERE r.id.userSub = :userSub")
+    void deleteAllByUserSub(String userSub);
+
+    @Modifying
+    @Query("DELETE FROM DailyTransactionRollup r WHERE r.id.accountId = :accountId")
+    void deleteAllByAccountId(UUID accountId);
+
+    @Modifying
+    @Query(value = """
+        INSERT INTO daily_transaction_rollup
+            (user_sub, account_id, category_id, date, income_sum, expense_sum, income_count, expense_count)
+        SELECT t.user_sub, t.account_id, t.category_id, t.date,
+            COALESCE(SUM(t.amount) FILTER (WHERE t.amount > 0), 0),
+            COALESCE(SUM(t.amount) FILTER (WHERE t.amount < 0), 0),
+            COUNT(*) FILTER (WHERE t.amount > 0),
+            COUNT(*) FILTER (WHERE t.amount < 0)
+        FROM transaction t
+        WHERE t.user_sub = :userSub
+        GROUP BY t.user_sub, t.account_id, t.category_id, t.date
+        HAVING COUNT(*) FILTER (WHERE t.amount <> 0) > 0
+    """, nativeQuery = true)
+    void insertRecomputedForUser(String userSub);
+
+    /*
+     * Recomputes every rollup from the transactions in one pass and returns the users whose stored rows differ.
+     * Rows that are missing on either side count as zero.
+     */
+    @Query(value = """
+        SELECT DISTINCT COALESCE(r.user_sub, c.user_sub)
+        FROM daily_transaction_rollup r
+        FULL OUTER JOIN (
+            SELECT t.user_sub, t.account_id, t.category_id, t.date,
+                COALESCE(SUM(t.amount) FILTER (WHERE t.amount > 0), 0) AS income_sum,
+                COALESCE(SUM(t.amount) FILTER (WHERE t.amount < 0), 0) AS expense_sum,
+                COUNT(*) FILTER (WHERE t.amount > 0) AS income_count,
+                COUNT(*) FILTER (WHERE t.amount < 0) AS expense_count
+            FROM transaction t
+            GROUP BY t.user_sub, t.account_id, t.category_id, t.date
+        ) c ON c.user_sub = r.user_sub
+            AND c.account_id = r.account_id
+            AND c.category_id = r.category_id
+            AND c.date = r.date
+        WHERE COALESCE(r.income_sum, 0) <> COALESCE(c.income_sum, 0)
+            OR COALESCE(r.expense_sum, 0) <> COALESCE(c.expense_sum, 0)
+            OR COALESCE(r.income_count, 0) <> COALESCE(c.income_count, 0)
+            OR COALESCE(r.expense_count, 0) <> COALESCE(c.expense_count, 0)
+    """, nativeQuery = true)
+    List<String> findUserSubsWithDrift();
+}
@@ -8,23 +8,33 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
-public interface TransactionRepository extends JpaRepository<Transaction, UUID>, JpaSpecificationExecutor<Transaction> {
+public interface TransactionRepository extends JpaRepository<Transaction, UUID>, JpaSpecificationExecutor<Transaction>,
+        TransactionViewRepository {
     boolean existsByCategory(Category category);
 
+    @Query("SELECT t.fingerprint FROM Transaction t WHERE t.fingerprint IN :fingerprints")
+    Set<String> findExistingFingerprints(Collection<String> fingerprints);
+
     @Modifying
     void deleteAllByUserSub(String userSub);
 
     @Query("""
         SELECT new com.rainy.homebudgettracker.transaction.AccountBalance(
-            t.account.id,
-            SUM(t.amount)
+            b.id.accountId,
+            b.closingBalance
         )
-        FROM Transaction t
-        WHERE t.account.userSub = :userSub
-        GROUP BY t.account.id
+        FROM AccountMonthlyBalance b
+        WHERE b.userSub = :userSub
+            AND b.id.monthStart = (
+                SELECT MAX(l.id.monthStart)
+                FROM AccountMonthlyBalance l
+                WHERE l.id.accountId = b.id.accountId
+            )
     """)
     List<AccountBalance> getBalancesForUserAccounts(String userSub);
 }
@@ -0,0 +1,19 @@
+package com.rainy.homebudgettracker.transaction.repository;
+
+import com.rainy.homebudgettracker.transaction.Transaction;
+import com.rainy.homebudgettracker.transaction.TransactionView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionViewRepository {
+    Page<TransactionView> findViews(Specification<Transaction> spec, Pageable pageable);
+
+    List<TransactionView> findViews(Specification<Transaction> spec, Sort sort, int limit);
+
+    Stream<TransactionView> streamViews(Specification<Transaction> spec, int fetchSize);
+}
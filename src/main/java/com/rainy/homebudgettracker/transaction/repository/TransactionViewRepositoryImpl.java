@@ -0,0 +1,106 @@
+package com.rainy.homebudgettracker.transaction.repository;
+
+import com.rainy.homebudgettracker.account.Account;
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.Transaction;
+import com.rainy.homebudgettracker.transaction.TransactionView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/*
+ * Selects the transaction columns together with the account and category columns in one statement, instead of
+ * loading entities whose lazy associations are then fetched row by row.
+ */
+class TransactionViewRepositoryImpl implements TransactionViewRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TransactionView> findViews(Specification<Transaction> spec, Pageable pageable) {
+        TypedQuery<TransactionView> query = createQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<TransactionView> findViews(Specification<Transaction> spec, Sort sort, int limit) {
+        return createQuery(spec, sort).setMaxResults(limit).getResultList();
+    }
+
+    /*
+     * Rows are fetched from a database cursor in batches of fetchSize. The PostgreSQL driver only uses a cursor
+     * outside auto-commit, so the stream has to be consumed inside a transaction.
+     */
+    @Override
+    public Stream<TransactionView> streamViews(Specification<Transaction> spec, int fetchSize) {
+        return createQuery(spec, Sort.unsorted())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private TypedQuery<TransactionView> createQuery(Specification<Transaction> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionView> query = cb.createQuery(TransactionView.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        Join<Transaction, Account> account = root.join("account");
+        Join<Transaction, Category> category = root.join("category");
+
+        query.select(cb.construct(
+                TransactionView.class,
+                root.get("id"),
+                root.get("amount"),
+                root.get("date"),
+                root.get("transactionMethod"),
+                root.get("details"),
+                root.get("imageFilePath"),
+                account.get("id"),
+                account.get("name"),
+                account.get("currencyCode"),
+                category.get("id"),
+                category.get("name")
+        ));
+        applySpecification(spec, root, query, cb);
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Transaction> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        query.select(cb.count(root));
+        applySpecification(spec, root, query, cb);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(
+            Specification<Transaction> spec, Root<Transaction> root, CriteriaQuery<?> query, CriteriaBuilder cb
+    ) {
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.rainy.homebudgettracker.transaction.service;
 
 import com.rainy.homebudgettracker.transaction.dto.RuleRequest;
 import com.rainy.homebudgettracker.transaction.dto.RuleResponse;
+import com.rainy.homebudgettracker.transaction.service.helper.KeywordMatcher;
 
 import java.util.List;
 import java.util.UUID;
@@ -10,4 +11,5 @@ public interface CategorizationRuleService {
     List<RuleResponse> getUserRules();
     RuleResponse createRule(RuleRequest request);
     void deleteRule(UUID ruleId);
+    KeywordMatcher<RuleResponse> getCurrentUserRuleMatcher();
 }
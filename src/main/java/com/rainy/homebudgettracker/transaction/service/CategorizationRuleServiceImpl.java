@@ -1,5 +1,7 @@
 package com.rainy.homebudgettracker.transaction.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.rainy.homebudgettracker.category.Category;
 import com.rainy.homebudgettracker.category.CategoryRepository;
 import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException;
@@ -10,11 +12,16 @@ import com.rainy.homebudgettracker.transaction.Transaction;
 import com.rainy.homebudgettracker.transaction.dto.RuleRequest;
 import com.rainy.homebudgettracker.transaction.dto.RuleResponse;
 import com.rainy.homebudgettracker.transaction.repository.CategorizationRuleRepository;
+import com.rainy.homebudgettracker.transaction.service.helper.KeywordMatcher;
 import com.rainy.homebudgettracker.user.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -27,6 +34,16 @@ public class CategorizationRuleServiceImpl implements CategorizationRuleService
     private final CategoryRepository categoryRepository;
     private final UserService userService;
     private final ModelMapper modelMapper;
+    /*
+     * Compiled rules per user. The instance that commits a change of the user's rules drops the entry at once, so a
+     * matcher built from the rules read before the commit cannot outlive it there. Other instances only learn of the
+     * change when their entry expires, so entries are rebuilt a short while after they were built, however often they
+     * are read.
+     */
+    private final Cache<String, KeywordMatcher<RuleResponse>> ruleMatchers = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
 
     @Override
     @Transactional(readOnly = true)
@@ -47,6 +64,7 @@ public class CategorizationRuleServiceImpl implements CategorizationRuleService
 
         CategorizationRule newRule = modelMapper.map(request, CategorizationRule.class, userSub, category);
         CategorizationRule savedRule = ruleRepository.save(newRule);
+        invalidateRuleMatcherAfterCommit(userSub);
 
         return modelMapper.map(savedRule, RuleResponse.class);
     }
@@ -56,6 +74,39 @@ public class CategorizationRuleServiceImpl implements CategorizationRuleService
     public void deleteRule(UUID ruleId) {
         CategorizationRule ruleToDelete = findAndVerifyRuleOwner(ruleId);
         ruleRepository.delete(ruleToDelete);
+        invalidateRuleMatcherAfterCommit(ruleToDelete.getUserSub());
+    }
+
+    /*
+     * Longer keywords are more specific, so they take precedence; ties are broken by keyword and then by id to keep
+     * the result independent of the order the rules are read in.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeywordMatcher<RuleResponse> getCurrentUserRuleMatcher() {
+        return ruleMatchers.get(userService.getUserSub(), userSub -> {
+            List<RuleResponse> rules = ruleRepository.findByUserSub(userSub).stream()
+                    .map(rule -> modelMapper.map(rule, RuleResponse.class))
+                    .sorted(Comparator.comparingInt((RuleResponse rule) -> rule.keyword().length()).reversed()
+                            .thenComparing(RuleResponse::keyword)
+                            .thenComparing(RuleResponse::id))
+                    .toList();
+            return KeywordMatcher.compile(rules, RuleResponse::keyword);
+        });
+    }
+
+    private void invalidateRuleMatcherAfterCommit(String userSub) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ruleMatchers.invalidate(userSub);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ruleMatchers.invalidate(userSub);
+            }
+        });
     }
 
     private CategorizationRule findAndVerifyRuleOwner(UUID ruleId) {
@@ -0,0 +1,93 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
+import com.rainy.homebudgettracker.transaction.enums.ImportJobStatus;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Updated by the worker running the import and read by status requests, so every field is either final, volatile or
+ * atomic.
+ */
+@Getter
+public class ImportJob implements ImportProgress {
+    private final UUID id;
+    private final String userSub;
+    private final int totalRows;
+    private final Instant submittedAt = Instant.now();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile String error;
+    private volatile boolean cancelled;
+    private final AtomicInteger parsedRows = new AtomicInteger();
+    private final AtomicInteger insertedRows = new AtomicInteger();
+    private final AtomicInteger duplicateRows = new AtomicInteger();
+    private final AtomicInteger failedRows = new AtomicInteger();
+    private final Queue<ImportRowResult> failures = new ConcurrentLinkedQueue<>();
+
+    public ImportJob(UUID id, String userSub, int totalRows) {
+        this.id = id;
+        this.userSub = userSub;
+        this.totalRows = totalRows;
+    }
+
+    @Override
+    public void rowsRead(int count) {
+        parsedRows.addAndGet(count);
+    }
+
+    @Override
+    public void rowsProcessed(List<ImportRowResult> results) {
+        for (ImportRowResult result : results) {
+            if (result.imported()) {
+                insertedRows.incrementAndGet();
+            } else if (result.duplicate()) {
+                duplicateRows.incrementAndGet();
+            } else {
+                failedRows.incrementAndGet();
+                failures.add(result);
+            }
+        }
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    /*
+     * A job cancelled after its last chunk was already saved is reported as completed.
+     */
+    void complete() {
+        finish(cancelled && processedRows() < totalRows ? ImportJobStatus.CANCELLED : ImportJobStatus.COMPLETED, null);
+    }
+
+    void fail(String error) {
+        finish(ImportJobStatus.FAILED, error);
+    }
+
+    int processedRows() {
+        return insertedRows.get() + duplicateRows.get() + failedRows.get();
+    }
+
+    private void finish(ImportJobStatus status, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+}
@@ -0,0 +1,12 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.transaction.dto.ImportCommitRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportJobResponse;
+
+import java.util.UUID;
+
+public interface ImportJobService {
+    ImportJobResponse submitImportJob(UUID sessionId, UUID accountId, ImportCommitRequest commitRequest);
+    ImportJobResponse findImportJob(UUID jobId);
+    ImportJobResponse cancelImportJob(UUID jobId);
+}
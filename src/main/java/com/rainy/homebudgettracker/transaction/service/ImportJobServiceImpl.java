@@ -0,0 +1,213 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException;
+import com.rainy.homebudgettracker.handler.exception.TooManyImportJobsException;
+import com.rainy.homebudgettracker.transaction.dto.ImportCommitRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportJobResponse;
+import com.rainy.homebudgettracker.user.UserService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Imports run on a small pool of their own, so a large statement does not hold a request thread and the number of
+ * imports writing to the database at the same time is bounded. Jobs wait in a bounded queue when all workers are busy;
+ * when the queue is full or the user already has the maximum number of unfinished jobs the submission is refused
+ * instead of queued. Unfinished jobs are kept until they finish, however long nobody asks for them, so they can
+ * always be followed and cancelled; that set is bounded by the pool and its queue. Finished jobs are then kept for the
+ * configured time so that their result can still be read.
+ */
+@Service
+@Log4j2
+public class ImportJobServiceImpl implements ImportJobService {
+    private final ImportTransactionService importTransactionService;
+    private final ImportSessionStore importSessionStore;
+    private final UserService userService;
+    private final int maxJobsPerUser;
+    private final int chunkSize;
+    private final ThreadPoolExecutor importExecutor;
+    private final ConcurrentMap<UUID, ImportJob> unfinishedJobs = new ConcurrentHashMap<>();
+    private final Cache<UUID, ImportJob> finishedJobs;
+    private final ConcurrentMap<String, Integer> unfinishedJobsPerUser = new ConcurrentHashMap<>();
+
+    public ImportJobServiceImpl(
+            ImportTransactionService importTransactionService,
+            ImportSessionStore importSessionStore,
+            UserService userService,
+            @Value("${application.import.job.workers:2}") int workers,
+            @Value("${application.import.job.queue-capacity:20}") int queueCapacity,
+            @Value("${application.import.job.max-per-user:2}") int maxJobsPerUser,
+            @Value("${application.import.job.chunk-size:500}") int chunkSize,
+            @Value("${application.import.job.ttl:1h}") Duration ttl
+    ) {
+        this.importTransactionService = importTransactionService;
+        this.importSessionStore = importSessionStore;
+        this.userService = userService;
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.importExecutor = new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "import-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.finishedJobs = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /*
+     * The session is taken on the request thread, so a missing session is reported right away and the session cannot
+     * be saved by another request while the job waits in the queue. The worker runs with the security context of the
+     * submitting request.
+     */
+    @Override
+    public ImportJobResponse submitImportJob(UUID sessionId, UUID accountId, ImportCommitRequest commitRequest) {
+        String userSub = userService.getUserSub();
+        acquireSlot(userSub);
+
+        ImportSession session;
+        try {
+            session = importSessionStore.take(sessionId, userSub)
+                    .orElseThrow(() -> new RecordDoesNotExistException("Import session with id " + sessionId
+                            + " does not exist or has expired."));
+        } catch (RuntimeException e) {
+            releaseSlot(userSub);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID(), userSub, countRowsToImport(session, commitRequest));
+        unfinishedJobs.put(job.getId(), job);
+        try {
+            importExecutor.execute(new DelegatingSecurityContextRunnable(
+                    () -> run(job, session, accountId, commitRequest)));
+        } catch (RejectedExecutionException e) {
+            unfinishedJobs.remove(job.getId());
+            importSessionStore.restore(session);
+            releaseSlot(userSub);
+            throw new TooManyImportJobsException("The import queue is full.");
+        }
+
+        return toResponse(job);
+    }
+
+    @Override
+    public ImportJobResponse findImportJob(UUID jobId) {
+        return toResponse(findCurrentUserJob(jobId));
+    }
+
+    /*
+     * A running job stops after the chunk it is saving, rows saved until then stay imported. A queued job does not
+     * start at all.
+     */
+    @Override
+    public ImportJobResponse cancelImportJob(UUID jobId) {
+        ImportJob job = findCurrentUserJob(jobId);
+        if (!job.isFinished()) {
+            job.cancel();
+        }
+        return toResponse(job);
+    }
+
+    @PreDestroy
+    void shutdownImportExecutor() {
+        importExecutor.shutdownNow();
+    }
+
+    private void run(ImportJob job, ImportSession session, UUID accountId, ImportCommitRequest commitRequest) {
+        try {
+            if (job.isCancelled()) {
+                importSessionStore.restore(session);
+                job.complete();
+                return;
+            }
+
+            job.start();
+            importTransactionService.importTransactions(session, accountId, commitRequest, chunkSize, job);
+            job.complete();
+        } catch (RuntimeException e) {
+            log.error("Import job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            finishedJobs.put(job.getId(), job);
+            unfinishedJobs.remove(job.getId());
+            releaseSlot(job.getUserSub());
+        }
+    }
+
+    private void acquireSlot(String userSub) {
+        unfinishedJobsPerUser.compute(userSub, (sub, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxJobsPerUser) {
+                throw new TooManyImportJobsException("At most " + maxJobsPerUser
+                        + " imports can be in progress at the same time.");
+            }
+            return current + 1;
+        });
+    }
+
+    private void releaseSlot(String userSub) {
+        unfinishedJobsPerUser.computeIfPresent(userSub, (sub, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private ImportJob findCurrentUserJob(UUID jobId) {
+        String userSub = userService.getUserSub();
+        return Optional.ofNullable(unfinishedJobs.get(jobId))
+                .or(() -> Optional.ofNullable(finishedJobs.getIfPresent(jobId)))
+                .filter(job -> job.getUserSub().equals(userSub))
+                .orElseThrow(() -> new RecordDoesNotExistException("Import job with id " + jobId
+                        + " does not exist or has expired."));
+    }
+
+    private static int countRowsToImport(ImportSession session, ImportCommitRequest commitRequest) {
+        Set<Integer> skippedRows = commitRequest == null || commitRequest.skippedRows() == null
+                ? Set.of()
+                : commitRequest.skippedRows();
+        int skipped = (int) skippedRows.stream()
+                .filter(index -> index != null && index >= 0 && index < session.rows().size())
+                .count();
+        return session.rows().size() - skipped;
+    }
+
+    private static ImportJobResponse toResponse(ImportJob job) {
+        Instant startedAt = job.getStartedAt();
+        Instant finishedAt = job.getFinishedAt();
+        double rowsPerSecond = 0;
+        if (startedAt != null) {
+            Instant end = finishedAt == null ? Instant.now() : finishedAt;
+            long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            rowsPerSecond = job.processedRows() * 1000.0 / millis;
+        }
+
+        return ImportJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .totalRows(job.getTotalRows())
+                .parsedRows(job.getParsedRows().get())
+                .insertedRows(job.getInsertedRows().get())
+                .duplicateRows(job.getDuplicateRows().get())
+                .failedRows(job.getFailedRows().get())
+                .rowsPerSecond(rowsPerSecond)
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(job.getError())
+                .failures(List.copyOf(job.getFailures()))
+                .build();
+    }
+}
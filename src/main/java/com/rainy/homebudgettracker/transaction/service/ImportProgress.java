@@ -0,0 +1,21 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
+
+import java.util.List;
+
+/**
+ * Receives the progress of an import as its rows are saved chunk by chunk. The import stops before the next chunk
+ * once {@link #isCancelled()} returns {@code true}.
+ */
+public interface ImportProgress {
+    ImportProgress NONE = new ImportProgress() {};
+
+    default void rowsRead(int count) {}
+
+    default void rowsProcessed(List<ImportRowResult> results) {}
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,15 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Categorized rows of an uploaded statement, kept on the server until they are saved.
+ */
+public record ImportSession(
+        UUID id,
+        String userSub,
+        List<TransactionResponse> rows
+) {}
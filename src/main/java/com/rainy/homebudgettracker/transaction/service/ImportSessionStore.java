@@ -0,0 +1,79 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rainy.homebudgettracker.handler.exception.FileProcessingException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * Sessions are weighed by the estimated heap size of their rows, so the store is bounded by memory rather than by the
+ * number of sessions; one large statement can push out several small ones. A session expires when it has not been
+ * read for the configured time.
+ */
+@Component
+public class ImportSessionStore {
+    private static final int SESSION_OVERHEAD_BYTES = 128;
+    private static final int ROW_OVERHEAD_BYTES = 160;
+
+    private final long maxWeightBytes;
+    private final Cache<UUID, ImportSession> sessions;
+
+    public ImportSessionStore(
+            @Value("${application.import.session.max-weight-bytes:67108864}") long maxWeightBytes,
+            @Value("${application.import.session.ttl:30m}") Duration ttl
+    ) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.sessions = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((UUID id, ImportSession session) -> weigh(session))
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    public ImportSession create(String userSub, List<TransactionResponse> rows) {
+        ImportSession session = new ImportSession(UUID.randomUUID(), userSub, List.copyOf(rows));
+        if (weigh(session) > maxWeightBytes) {
+            throw new FileProcessingException("The file has too many transactions to be imported at once.");
+        }
+
+        sessions.put(session.id(), session);
+        return session;
+    }
+
+    public Optional<ImportSession> find(UUID sessionId, String userSub) {
+        return Optional.ofNullable(sessions.getIfPresent(sessionId))
+                .filter(session -> session.userSub().equals(userSub));
+    }
+
+    /*
+     * Removing is atomic, so a session can be taken for saving only once.
+     */
+    public Optional<ImportSession> take(UUID sessionId, String userSub) {
+        return find(sessionId, userSub)
+                .filter(session -> sessions.asMap().remove(sessionId, session));
+    }
+
+    public void restore(ImportSession session) {
+        sessions.put(session.id(), session);
+    }
+
+    static int weigh(ImportSession session) {
+        long bytes = SESSION_OVERHEAD_BYTES;
+        for (TransactionResponse row : session.rows()) {
+            bytes += ROW_OVERHEAD_BYTES + 2L * (length(row.amount()) + length(row.date())
+                    + length(row.transactionMethod()) + length(row.details()));
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -1,14 +1,28 @@
 package com.rainy.homebudgettracker.transaction.service;
 
-import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportCommitRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
+import com.rainy.homebudgettracker.transaction.dto.ImportSessionResponse;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
 import com.rainy.homebudgettracker.transaction.enums.BankName;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ImportTransactionService {
-    List<TransactionResponse> extractTransactions(MultipartFile file, BankName bankName);
-    boolean importTransactions(UUID accountId, List<TransactionRequest> transactions);
+    Stream<TransactionResponse> streamTransactions(MultipartFile file, BankName bankName);
+    ImportSessionResponse createImportSession(MultipartFile file, BankName bankName, Pageable pageable);
+    Page<TransactionResponse> findImportSessionRows(UUID sessionId, Pageable pageable);
+    List<ImportRowResult> importTransactions(UUID sessionId, UUID accountId, ImportCommitRequest commitRequest);
+    List<ImportRowResult> importTransactions(
+            ImportSession session,
+            UUID accountId,
+            ImportCommitRequest commitRequest,
+            int chunkSize,
+            ImportProgress progress
+    );
 }
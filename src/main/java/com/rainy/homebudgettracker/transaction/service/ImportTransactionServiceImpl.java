@@ -1,51 +1,55 @@
 package com.rainy.homebudgettracker.transaction.service;
 
-import com.rainy.homebudgettracker.category.CategoryRepository;
-import com.rainy.homebudgettracker.category.CategoryResponse;
 import com.rainy.homebudgettracker.handler.exception.FileProcessingException;
+import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
-import com.rainy.homebudgettracker.transaction.CategorizationRule;
+import com.rainy.homebudgettracker.transaction.dto.ImportCommitRequest;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
+import com.rainy.homebudgettracker.transaction.dto.ImportSessionResponse;
+import com.rainy.homebudgettracker.transaction.dto.RuleResponse;
 import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
 import com.rainy.homebudgettracker.transaction.enums.BankName;
-import com.rainy.homebudgettracker.transaction.repository.CategorizationRuleRepository;
 import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractors;
+import com.rainy.homebudgettracker.transaction.service.helper.KeywordMatcher;
+import com.rainy.homebudgettracker.transaction.service.helper.TransactionFingerprints;
 import com.rainy.homebudgettracker.user.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class ImportTransactionServiceImpl implements ImportTransactionService {
     private final TransactionService transactionService;
-    private final List<TransactionExtractor> extractors;
-    private final CategorizationRuleRepository ruleRepository;
+    private final TransactionExtractors transactionExtractors;
+    private final CategorizationRuleService categorizationRuleService;
+    private final ImportSessionStore importSessionStore;
     private final UserService userService;
-    private final CategoryRepository categoryRepository;
     private final ModelMapper modelMapper;
 
+    /*
+     * The rules are compiled before the file is opened, the rows are parsed and categorized lazily as the stream is
+     * consumed.
+     */
     @Override
-    public List<TransactionResponse> extractTransactions(MultipartFile file, BankName bankName) {
-        TransactionExtractor extractor = extractors.stream()
-                .filter(e -> e.supports(bankName))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Unsupported bank name: " + bankName));
+    public Stream<TransactionResponse> streamTransactions(MultipartFile file, BankName bankName) {
+        TransactionExtractor extractor = transactionExtractors.find(bankName);
+        KeywordMatcher<RuleResponse> ruleMatcher = categorizationRuleService.getCurrentUserRuleMatcher();
 
         try {
-            List<TransactionResponse> extractedTransactions = extractor.extract(file.getInputStream());
-            List<CategorizationRule> rules = ruleRepository.findByUserSub(userService.getUserSub());
-
-            return extractedTransactions.stream()
-                    .map(transaction -> applyRules(transaction, rules))
-                    .collect(Collectors.toList());
+            return extractor.stream(file.getInputStream())
+                    .map(transaction -> applyRules(transaction, ruleMatcher));
         } catch (IOException e) {
             log.error("Error while extracting transactions from file: {}", file.getOriginalFilename(), e);
             throw new FileProcessingException("Error while extracting data from file: " + file.getOriginalFilename());
@@ -53,30 +57,145 @@ public class ImportTransactionServiceImpl implements ImportTransactionService {
     }
 
     @Override
-    public boolean importTransactions(UUID accountId, List<TransactionRequest> transactions) {
-        for (TransactionRequest transaction : transactions) {
-            transactionService.createTransactionForCurrentUser(accountId, transaction);
+    public ImportSessionResponse createImportSession(MultipartFile file, BankName bankName, Pageable pageable) {
+        List<TransactionResponse> rows;
+        try (Stream<TransactionResponse> transactions = streamTransactions(file, bankName)) {
+            rows = transactions.toList();
         }
+        ImportSession session = importSessionStore.create(userService.getUserSub(), rows);
+
+        return ImportSessionResponse.builder()
+                .sessionId(session.id())
+                .rowCount(rows.size())
+                .preview(toPage(rows, pageable))
+                .build();
+    }
+
+    @Override
+    public Page<TransactionResponse> findImportSessionRows(UUID sessionId, Pageable pageable) {
+        ImportSession session = importSessionStore.find(sessionId, userService.getUserSub())
+                .orElseThrow(() -> sessionDoesNotExist(sessionId));
+        return toPage(session.rows(), pageable);
+    }
 
-        return true;
+    /*
+     * The session is taken out of the store first, so it cannot be saved twice. It is put back when saving fails as a
+     * whole, e.g. because the account does not exist.
+     */
+    @Override
+    public List<ImportRowResult> importTransactions(UUID sessionId, UUID accountId, ImportCommitRequest commitRequest) {
+        ImportSession session = importSessionStore.take(sessionId, userService.getUserSub())
+                .orElseThrow(() -> sessionDoesNotExist(sessionId));
+        return importTransactions(session, accountId, commitRequest, Integer.MAX_VALUE, ImportProgress.NONE);
     }
 
-    private TransactionResponse applyRules(TransactionResponse transaction, List<CategorizationRule> rules) {
-        for (CategorizationRule rule : rules) {
-            if (transaction.details().toLowerCase().contains(rule.getKeyword().toLowerCase())) {
-                return new TransactionResponse(
+    /*
+     * Every chunk is saved in its own transaction and reported when it is done. The session is put back only while
+     * nothing has been saved from it, i.e. when the first chunk fails as a whole or the import is cancelled before it.
+     */
+    @Override
+    public List<ImportRowResult> importTransactions(
+            ImportSession session,
+            UUID accountId,
+            ImportCommitRequest commitRequest,
+            int chunkSize,
+            ImportProgress progress
+    ) {
+        Map<Integer, TransactionRequest> overrides = commitRequest == null || commitRequest.overrides() == null
+                ? Map.of()
+                : commitRequest.overrides();
+        Set<Integer> skippedRows = commitRequest == null || commitRequest.skippedRows() == null
+                ? Set.of()
+                : commitRequest.skippedRows();
+
+        List<ImportRowResult> results = new ArrayList<>();
+        List<TransactionRequest> requests = new ArrayList<>();
+        List<Integer> requestRowIndexes = new ArrayList<>();
+        for (int i = 0; i < session.rows().size(); i++) {
+            if (skippedRows.contains(i)) {
+                continue;
+            }
+
+            TransactionRequest request = overrides.get(i);
+            if (request == null) {
+                try {
+                    request = modelMapper.map(session.rows().get(i), TransactionRequest.class);
+                } catch (RuntimeException e) {
+                    results.add(ImportRowResult.builder()
+                            .index(i)
+                            .imported(false)
+                            .error("Row could not be read: " + e.getMessage())
+                            .build());
+                    continue;
+                }
+            }
+            requests.add(request);
+            requestRowIndexes.add(i);
+        }
+        progress.rowsRead(requests.size());
+        progress.rowsProcessed(List.copyOf(results));
+
+        // Even with no rows to save the first chunk is sent, so that the account is checked
+        TransactionFingerprints fingerprints = new TransactionFingerprints();
+        boolean saved = false;
+        for (int from = 0; (from < requests.size() || !saved) && !progress.isCancelled(); from += chunkSize) {
+            int to = (int) Math.min((long) from + chunkSize, requests.size());
+            List<ImportRowResult> createdResults;
+            try {
+                createdResults = transactionService.createTransactionsForCurrentUser(
+                        accountId, requests.subList(from, to), fingerprints);
+            } catch (RuntimeException e) {
+                if (!saved) {
+                    importSessionStore.restore(session);
+                }
+                throw e;
+            }
+            saved = true;
+
+            List<ImportRowResult> chunkResults = new ArrayList<>(createdResults.size());
+            for (ImportRowResult result : createdResults) {
+                chunkResults.add(ImportRowResult.builder()
+                        .index(requestRowIndexes.get(from + result.index()))
+                        .imported(result.imported())
+                        .transactionId(result.transactionId())
+                        .duplicate(result.duplicate())
+                        .error(result.error())
+                        .build());
+            }
+            progress.rowsProcessed(chunkResults);
+            results.addAll(chunkResults);
+        }
+        if (!saved && progress.isCancelled()) {
+            importSessionStore.restore(session);
+        }
+
+        results.sort(Comparator.comparingInt(ImportRowResult::index));
+        return results;
+    }
+
+    private Page<TransactionResponse> toPage(List<TransactionResponse> rows, Pageable pageable) {
+        int start = (int) Math.min(pageable.getOffset(), rows.size());
+        int end = Math.min(start + pageable.getPageSize(), rows.size());
+        return new PageImpl<>(rows.subList(start, end), pageable, rows.size());
+    }
+
+    private RecordDoesNotExistException sessionDoesNotExist(UUID sessionId) {
+        return new RecordDoesNotExistException("Import session with id " + sessionId
+                + " does not exist or has expired.");
+    }
+
+    private TransactionResponse applyRules(TransactionResponse transaction, KeywordMatcher<RuleResponse> ruleMatcher) {
+        return ruleMatcher.match(transaction.details())
+                .map(rule -> new TransactionResponse(
                         transaction.id(),
                         transaction.amount(),
-                        modelMapper.map(rule.getCategory(), CategoryResponse.class),
+                        rule.category(),
                         transaction.date(),
                         null,
                         transaction.transactionMethod(),
                         false,
                         transaction.details()
-                );
-            }
-        }
-
-        return transaction;
+                ))
+                .orElse(transaction);
     }
 }
\ No newline at end of file
@@ -1,9 +1,9 @@
 package com.rainy.homebudgettracker.transaction.service;
 
-import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.category.CategoryResponse;
 import com.rainy.homebudgettracker.exchange.CurrencyConverter;
-import com.rainy.homebudgettracker.exchange.ExchangeResponse;
 import com.rainy.homebudgettracker.exchange.ExchangeService;
+import com.rainy.homebudgettracker.exchange.RateQuery;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
 import com.rainy.homebudgettracker.transaction.*;
 import com.rainy.homebudgettracker.transaction.dto.BalanceHistoryResponse;
@@ -13,10 +13,12 @@ import com.rainy.homebudgettracker.transaction.enums.PeriodType;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.AggregationFilter;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.PeriodicAggregationFilter;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecificationBuilder;
-import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
 import com.rainy.homebudgettracker.user.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,156 +36,138 @@ import static com.rainy.homebudgettracker.transaction.service.helper.BigDecimalN
 @Slf4j
 public class TransactionAggregationServiceImpl implements TransactionAggregationService {
 
-    private final TransactionRepository transactionRepository;
+    private final DailyTransactionRollupRepository rollupRepository;
+    private final AccountMonthlyBalanceRepository monthlyBalanceRepository;
     private final UserService userService;
     private final ExchangeService exchangeService;
     private final ModelMapper modelMapper;
     private final TransactionSpecificationBuilder transactionSpecificationBuilder;
 
-    private record RateQuery(LocalDate date, CurrencyCode from, CurrencyCode to) {}
-
+    /*
+     * The sums are read in their own short transactions, so no pooled connection is held while exchange rates are
+     * being fetched from the remote APIs.
+     */
     @Override
-    @Transactional(readOnly = true)
     public SumResponse getSum(AggregationFilter filter) {
         String userSub = userService.getUserSub();
-        Specification<Transaction> spec = transactionSpecificationBuilder.build(filter, userSub);
-        List<Transaction> transactions = transactionRepository.findAll(spec);
+        Specification<DailyTransactionRollup> spec = transactionSpecificationBuilder.buildForRollups(filter, userSub);
 
         BigDecimal totalSum;
         if (filter.convertToDefaultCurrency()) {
             CurrencyCode defaultCurrency = CurrencyCode.valueOf(userService.getDefaultCurrency().getCurrencyCode());
             // ZMIANA: Wybieramy metodę konwersji na podstawie flagi `historical`
-            totalSum = filter.historicalConversion()
-                    ? sumWithHistoricalConversion(transactions, defaultCurrency)
-                    : sumWithCurrentRateConversion(transactions, defaultCurrency);
+            List<CurrencySum> sums = filter.historicalConversion()
+                    ? rollupRepository.sumByCurrencyAndDate(spec, filter.amountType())
+                    : rollupRepository.sumByCurrency(spec, filter.amountType());
+            totalSum = totalWithConversion(sums, defaultCurrency);
         } else {
-            totalSum = sumWithoutConversion(transactions);
+            totalSum = totalWithoutConversion(rollupRepository.sumByCurrency(spec, filter.amountType()));
         }
 
         return modelMapper.map(normalize(totalSum, 2), SumResponse.class);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<SumResponse> getTopFiveIncomes(AggregationFilter filter) {
-        return getTopFive(filter, Map.Entry.comparingByValue(Comparator.reverseOrder()));
+        return getTopFive(filter, Sort.Direction.DESC);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<SumResponse> getTopFiveExpenses(AggregationFilter filter) {
-        return getTopFive(filter, Map.Entry.comparingByValue());
+        return getTopFive(filter, Sort.Direction.ASC);
     }
 
-    private List<SumResponse> getTopFive(AggregationFilter filter, Comparator<Map.Entry<Category, BigDecimal>> comparator) {
+    private List<SumResponse> getTopFive(AggregationFilter filter, Sort.Direction direction) {
         String userSub = userService.getUserSub();
-        CurrencyCode defaultCurrency = CurrencyCode.valueOf(userService.getDefaultCurrency().getCurrencyCode());
-
-        Specification<Transaction> spec = transactionSpecificationBuilder.build(filter, userSub);
-        List<Transaction> transactions = transactionRepository.findAll(spec);
-
-        Map<Category, List<Transaction>> groupedByCategory = transactions.stream()
-                .filter(t -> t.getCategory() != null)
-                .collect(Collectors.groupingBy(Transaction::getCategory));
-
-        Map<Category, BigDecimal> categorySums = groupedByCategory.entrySet().stream()
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        entry -> {
-                            if (filter.convertToDefaultCurrency()) {
-                                return filter.historicalConversion()
-                                        ? sumWithHistoricalConversion(entry.getValue(), defaultCurrency)
-                                        : sumWithCurrentRateConversion(entry.getValue(), defaultCurrency);
-                            } else {
-                                return sumWithoutConversion(entry.getValue());
-                            }
-                        }
-                ));
+        Specification<DailyTransactionRollup> spec = transactionSpecificationBuilder.buildForRollups(filter, userSub);
 
-        return categorySums.entrySet().stream()
-                .sorted(comparator)
-                .limit(5)
-                .map(entry -> modelMapper.map(entry.getValue(), SumResponse.class, entry.getKey()))
+        List<CategorySum> topFive;
+        if (filter.convertToDefaultCurrency()) {
+            CurrencyCode defaultCurrency = CurrencyCode.valueOf(userService.getDefaultCurrency().getCurrencyCode());
+            List<CategorySum> sums = filter.historicalConversion()
+                    ? rollupRepository.sumByCategoryCurrencyAndDate(spec, filter.amountType())
+                    : rollupRepository.sumByCategoryAndCurrency(spec, filter.amountType(), direction);
+            topFive = topFiveWithConversion(sums, defaultCurrency, direction);
+        } else {
+            topFive = rollupRepository.sumByCategory(spec, filter.amountType(), direction, 5);
+        }
+
+        return topFive.stream()
+                .map(categorySum -> modelMapper.map(
+                        normalize(categorySum.sum(), 2),
+                        SumResponse.class,
+                        modelMapper.map(categorySum, CategoryResponse.class)))
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal sumWithoutConversion(List<Transaction> transactions) {
-        if (transactions == null || transactions.isEmpty()) {
-            return BigDecimal.ZERO;
+    /*
+     * Amounts in different currencies cannot be ranked before conversion, so the database returns one row per
+     * category and currency (and date for historical conversion) and the ranking happens on the converted totals.
+     */
+    private List<CategorySum> topFiveWithConversion(
+            List<CategorySum> sums, CurrencyCode defaultCurrency, Sort.Direction direction
+    ) {
+        Map<RateQuery, BigDecimal> rates = exchangeService.getExchangeRates(sums.stream()
+                .map(categorySum -> toRateQuery(categorySum.currencyCode(), categorySum.date(), defaultCurrency))
+                .collect(Collectors.toSet()));
+        Map<UUID, CategorySum> totals = new LinkedHashMap<>();
+        for (CategorySum categorySum : sums) {
+            BigDecimal converted = toDefaultCurrency(
+                    categorySum.sum(), categorySum.currencyCode(), categorySum.date(), defaultCurrency, rates);
+            totals.merge(
+                    categorySum.categoryId(),
+                    new CategorySum(categorySum.categoryId(), categorySum.categoryName(), defaultCurrency, null,
+                            converted),
+                    (current, next) -> new CategorySum(current.categoryId(), current.categoryName(), defaultCurrency,
+                            null, current.sum().add(next.sum()))
+            );
         }
-        return transactions.stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-    }
 
-    private BigDecimal sumWithCurrentRateConversion(List<Transaction> transactions, CurrencyCode defaultCurrency) {
-        if (transactions == null || transactions.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
+        Comparator<CategorySum> comparator = Comparator.comparing(CategorySum::sum);
+        return totals.values().stream()
+                .sorted(direction.isAscending() ? comparator : comparator.reversed())
+                .limit(5)
+                .toList();
+    }
 
-        Map<CurrencyCode, BigDecimal> sumsByCurrency = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        t -> t.getAccount().getCurrencyCode(),
-                        Collectors.mapping(Transaction::getAmount, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                ));
+    private BigDecimal totalWithoutConversion(List<CurrencySum> sums) {
+        return sums.stream()
+                .map(CurrencySum::sum)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 
+    /*
+     * Sums grouped by date are converted with the rate from that date, sums without a date with the current rate.
+     */
+    private BigDecimal totalWithConversion(List<CurrencySum> sums, CurrencyCode defaultCurrency) {
+        Map<RateQuery, BigDecimal> rates = exchangeService.getExchangeRates(sums.stream()
+                .map(currencySum -> toRateQuery(currencySum.currencyCode(), currencySum.date(), defaultCurrency))
+                .collect(Collectors.toSet()));
         BigDecimal total = BigDecimal.ZERO;
-
-        for (Map.Entry<CurrencyCode, BigDecimal> entry : sumsByCurrency.entrySet()) {
-            CurrencyCode sourceCurrency = entry.getKey();
-            BigDecimal amountInSourceCurrency = entry.getValue();
-
-            if (sourceCurrency == defaultCurrency) {
-                total = total.add(amountInSourceCurrency);
-            } else {
-                BigDecimal currentRate = getCurrencyRate(sourceCurrency, defaultCurrency, LocalDate.now());
-                BigDecimal convertedAmount = CurrencyConverter.convert(amountInSourceCurrency, currentRate, 4);
-                total = total.add(convertedAmount);
-            }
+        for (CurrencySum currencySum : sums) {
+            total = total.add(toDefaultCurrency(
+                    currencySum.sum(), currencySum.currencyCode(), currencySum.date(), defaultCurrency, rates));
         }
         return normalize(total, 2);
     }
 
-    private BigDecimal sumWithHistoricalConversion(List<Transaction> transactions, CurrencyCode defaultCurrency) {
-        if (transactions == null || transactions.isEmpty()) {
-            return BigDecimal.ZERO;
+    private BigDecimal toDefaultCurrency(
+            BigDecimal amount,
+            CurrencyCode sourceCurrency,
+            LocalDate date,
+            CurrencyCode defaultCurrency,
+            Map<RateQuery, BigDecimal> rates
+    ) {
+        if (sourceCurrency == defaultCurrency) {
+            return amount;
         }
 
-        Map<RateQuery, BigDecimal> ratesCache = prefetchExchangeRates(transactions, defaultCurrency);
-        BigDecimal total = BigDecimal.ZERO;
-        for (Transaction t : transactions) {
-            BigDecimal amount = t.getAmount();
-            CurrencyCode sourceCurrency = t.getAccount().getCurrencyCode();
-            if (sourceCurrency != defaultCurrency) {
-                RateQuery query = new RateQuery(t.getDate(), sourceCurrency, defaultCurrency);
-                BigDecimal rate = ratesCache.get(query);
-                if (rate != null) {
-                    amount = CurrencyConverter.convert(amount, rate, 4);
-                } else {
-                    log.warn("Could not find exchange rate for query: {}", query);
-                }
-            }
-            total = total.add(amount);
-        }
-        return normalize(total, 2);
+        BigDecimal rate = rates.get(toRateQuery(sourceCurrency, date, defaultCurrency));
+        return CurrencyConverter.convert(amount, rate, 4);
     }
 
-    private Map<RateQuery, BigDecimal> prefetchExchangeRates(List<Transaction> transactions, CurrencyCode defaultCurrency) {
-        return transactions.stream()
-                .filter(t -> t.getAccount().getCurrencyCode() != defaultCurrency)
-                .map(t -> new RateQuery(t.getDate(), t.getAccount().getCurrencyCode(), defaultCurrency))
-                .distinct()
-                .collect(Collectors.toMap(
-                        query -> query,
-                        query -> getCurrencyRate(query.from, query.to, query.date)
-                ));
-    }
-
-    private BigDecimal getCurrencyRate(CurrencyCode from, CurrencyCode to, LocalDate date) {
-        ExchangeResponse response = date.isBefore(LocalDate.now())
-                ? exchangeService.getHistoricalExchangeRate(from, to, date)
-                : exchangeService.getExchangeRate(from, to);
-        return new BigDecimal(response.conversionRate());
+    private RateQuery toRateQuery(CurrencyCode sourceCurrency, LocalDate date, CurrencyCode defaultCurrency) {
+        return new RateQuery(date == null ? LocalDate.now() : date, sourceCurrency, defaultCurrency);
     }
 
     @Override
@@ -195,11 +179,7 @@ public class TransactionAggregationServiceImpl implements TransactionAggregation
                 ? filter.date().withDayOfYear(1).minusDays(1)
                 : filter.date().withDayOfMonth(1).minusDays(1);
 
-        AggregationFilter initialBalanceFilter = new AggregationFilter(
-                filter.accountId(), null, null, initialBalanceEndDate, null,
-                false, false);
-        Specification<Transaction> initialSpec = transactionSpecificationBuilder.build(initialBalanceFilter, userSub);
-        BigDecimal initialBalance = sumWithoutConversion(transactionRepository.findAll(initialSpec));
+        BigDecimal initialBalance = getBalanceAsOf(userSub, filter.accountId(), initialBalanceEndDate);
 
         LocalDate periodStartDate = filter.periodType() == PeriodType.YEAR
                 ? filter.date().withDayOfYear(1)
@@ -211,10 +191,11 @@ public class TransactionAggregationServiceImpl implements TransactionAggregation
         AggregationFilter periodFilter = new AggregationFilter(
                 filter.accountId(), null, periodStartDate, periodEndDate, null,
                 false, false);
-        Specification<Transaction> periodSpec = transactionSpecificationBuilder.build(periodFilter, userSub);
-        List<Transaction> transactionsInPeriod = transactionRepository.findAll(periodSpec);
+        Specification<DailyTransactionRollup> periodSpec =
+                transactionSpecificationBuilder.buildForRollups(periodFilter, userSub);
+        List<CurrencySum> dailySums = rollupRepository.sumByCurrencyAndDate(periodSpec, null);
 
-        Map<Integer, BigDecimal> deltas = groupAndSumTransactions(transactionsInPeriod, filter.periodType());
+        Map<Integer, BigDecimal> deltas = groupAndSumDailySums(dailySums, filter.periodType());
 
         int numberOfPeriods = filter.periodType() == PeriodType.YEAR ? 12 : periodEndDate.getDayOfMonth();
         List<BigDecimal> periodicDeltas = new ArrayList<>();
@@ -225,15 +206,39 @@ public class TransactionAggregationServiceImpl implements TransactionAggregation
         return new BalanceHistoryResponse(normalize(initialBalance, 2), periodicDeltas);
     }
 
-    private Map<Integer, BigDecimal> groupAndSumTransactions(List<Transaction> transactions, PeriodType periodType) {
-        Function<Transaction, Integer> grouper = periodType == PeriodType.YEAR
-                ? t -> t.getDate().getMonthValue()
-                : t -> t.getDate().getDayOfMonth();
+    /*
+     * Starts from the nearest monthly closing balance and adds the daily rollups of the remaining days, so at most
+     * one month of rows is summed no matter how old the account is. A null accountId means all accounts.
+     */
+    private BigDecimal getBalanceAsOf(String userSub, UUID accountId, LocalDate date) {
+        LocalDate nextDay = date.plusDays(1);
+        LocalDate snapshotMonthStart = nextDay.getDayOfMonth() == 1 ? nextDay : date.withDayOfMonth(1);
+
+        BigDecimal balance = monthlyBalanceRepository.findClosingBalancesBefore(userSub, snapshotMonthStart).stream()
+                .filter(accountBalance -> accountId == null || accountId.equals(accountBalance.accountId()))
+                .map(AccountBalance::balance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (snapshotMonthStart.isAfter(date)) {
+            return balance;
+        }
+
+        AggregationFilter deltaFilter = new AggregationFilter(
+                accountId, null, snapshotMonthStart, date, null,
+                false, false);
+        Specification<DailyTransactionRollup> deltaSpec =
+                transactionSpecificationBuilder.buildForRollups(deltaFilter, userSub);
+        return balance.add(totalWithoutConversion(rollupRepository.sumByCurrency(deltaSpec, null)));
+    }
+
+    private Map<Integer, BigDecimal> groupAndSumDailySums(List<CurrencySum> dailySums, PeriodType periodType) {
+        Function<CurrencySum, Integer> grouper = periodType == PeriodType.YEAR
+                ? s -> s.date().getMonthValue()
+                : s -> s.date().getDayOfMonth();
 
-        return transactions.stream()
+        return dailySums.stream()
                 .collect(Collectors.groupingBy(
                         grouper,
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)
+                        Collectors.reducing(BigDecimal.ZERO, CurrencySum::sum, BigDecimal::add)
                 ));
     }
 }
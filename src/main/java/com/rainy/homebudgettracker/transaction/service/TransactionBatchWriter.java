@@ -0,0 +1,27 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.transaction.Transaction;
+import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Inserts prepared transactions in one database transaction. Ids are generated on the client, so the inserts go
+ * out as JDBC batches (see {@code hibernate.jdbc.batch_size}) without a round trip per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionBatchWriter {
+    private final TransactionRepository transactionRepository;
+    private final TransactionRollupService transactionRollupService;
+
+    @Transactional
+    public List<Transaction> insertAll(List<Transaction> transactions) {
+        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        transactionRollupService.recordCreated(savedTransactions);
+        return savedTransactions;
+    }
+}
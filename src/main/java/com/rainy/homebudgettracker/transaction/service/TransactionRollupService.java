@@ -0,0 +1,20 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.Transaction;
+
+import java.util.List;
+
+public interface TransactionRollupService {
+    void recordCreated(Transaction transaction);
+
+    void recordCreated(List<Transaction> transactions);
+
+    void recordDeleted(Transaction transaction);
+
+    void recordCategoryChanged(Transaction transaction, Category previousCategory);
+
+    List<String> findUserSubsWithDrift();
+
+    void rebuildForUser(String userSub);
+}
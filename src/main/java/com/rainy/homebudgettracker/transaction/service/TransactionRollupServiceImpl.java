@@ -0,0 +1,202 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import com.rainy.homebudgettracker.account.Account;
+import com.rainy.homebudgettracker.account.AccountRepository;
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollupId;
+import com.rainy.homebudgettracker.transaction.Transaction;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Keeps {@link com.rainy.homebudgettracker.transaction.DailyTransactionRollup} and
+ * {@link com.rainy.homebudgettracker.transaction.AccountMonthlyBalance} rows in step with the transactions.
+ * The record methods must run in the transaction that changes the transaction itself, so both commit or roll back
+ * together.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionRollupServiceImpl implements TransactionRollupService {
+    private static final Comparator<DailyTransactionRollupId> ROLLUP_LOCK_ORDER =
+            Comparator.comparing(DailyTransactionRollupId::getAccountId)
+                    .thenComparing(DailyTransactionRollupId::getCategoryId)
+                    .thenComparing(DailyTransactionRollupId::getDate);
+
+    private final DailyTransactionRollupRepository rollupRepository;
+    private final AccountMonthlyBalanceRepository monthlyBalanceRepository;
+    private final AccountRepository accountRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Transaction transaction) {
+        accountRepository.lockById(transaction.getAccount().getId());
+        apply(transaction, transaction.getCategory().getId(), 1);
+        applyToBalance(transaction, transaction.getAmount());
+    }
+
+    /*
+     * Deltas of transactions that fall into the same rollup row or the same month are summed first, so a bulk
+     * import touches every row once instead of once per transaction. All accounts are locked in id order before
+     * any rollup row is written, and the rollup rows are written in key order, so two imports into the same
+     * accounts cannot lock rows in opposite orders, whatever order their files list the days in.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(List<Transaction> transactions) {
+        Map<DailyTransactionRollupId, RollupDelta> rollupDeltas = new TreeMap<>(ROLLUP_LOCK_ORDER);
+        Map<UUID, NavigableMap<LocalDate, BigDecimal>> balanceDeltas = new TreeMap<>();
+        Map<UUID, String> accountOwners = new HashMap<>();
+        for (Transaction transaction : transactions) {
+            BigDecimal amount = transaction.getAmount();
+            if (amount.signum() == 0) {
+                continue;
+            }
+
+            DailyTransactionRollupId id = DailyTransactionRollupId.builder()
+                    .userSub(transaction.getUserSub())
+                    .accountId(transaction.getAccount().getId())
+                    .categoryId(transaction.getCategory().getId())
+                    .date(transaction.getDate())
+                    .build();
+            rollupDeltas.merge(id, RollupDelta.of(amount), RollupDelta::add);
+            balanceDeltas.computeIfAbsent(id.getAccountId(), accountId -> new TreeMap<>())
+                    .merge(transaction.getDate().withDayOfMonth(1), amount, BigDecimal::add);
+            accountOwners.put(id.getAccountId(), id.getUserSub());
+        }
+
+        balanceDeltas.keySet().forEach(accountRepository::lockById);
+        rollupDeltas.forEach((id, delta) -> rollupRepository.applyDelta(
+                id.getUserSub(),
+                id.getAccountId(),
+                id.getCategoryId(),
+                id.getDate(),
+                delta.incomeSum(),
+                delta.expenseSum(),
+                delta.incomeCount(),
+                delta.expenseCount()
+        ));
+
+        balanceDeltas.forEach((accountId, monthlyDeltas) -> monthlyDeltas.forEach((monthStart, delta) -> {
+            if (delta.signum() != 0) {
+                monthlyBalanceRepository.openMonth(accountId, monthStart, accountOwners.get(accountId));
+                monthlyBalanceRepository.addToClosingBalances(accountId, monthStart, delta);
+            }
+        }));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Transaction transaction) {
+        accountRepository.lockById(transaction.getAccount().getId());
+        apply(transaction, transaction.getCategory().getId(), -1);
+        applyToBalance(transaction, transaction.getAmount().negate());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCategoryChanged(Transaction transaction, Category previousCategory) {
+        if (previousCategory.getId().equals(transaction.getCategory().getId())) {
+            return;
+        }
+        accountRepository.lockById(transaction.getAccount().getId());
+        apply(transaction, previousCategory.getId(), -1);
+        apply(transaction, transaction.getCategory().getId(), 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> findUserSubsWithDrift() {
+        TreeSet<String> userSubs = new TreeSet<>(rollupRepository.findUserSubsWithDrift());
+        userSubs.addAll(monthlyBalanceRepository.findUserSubsWithDrift());
+        return List.copyOf(userSubs);
+    }
+
+    /*
+     * The user's accounts are locked first, like on every write of their rows, so a transaction saved meanwhile waits
+     * for the rebuild instead of conflicting with its inserts or being left out of them. They are locked in the order
+     * of UUID.compareTo, as in a bulk import; the database orders UUIDs differently.
+     */
+    @Override
+    @Transactional
+    public void rebuildForUser(String userSub) {
+        accountRepository.findAllByUserSub(userSub).stream()
+                .map(Account::getId)
+                .sorted()
+                .forEach(accountRepository::lockById);
+        rollupRepository.deleteAllByUserSub(userSub);
+        rollupRepository.insertRecomputedForUser(userSub);
+        monthlyBalanceRepository.deleteAllByUserSub(userSub);
+        monthlyBalanceRepository.insertRecomputedForUser(userSub);
+    }
+
+    private void apply(Transaction transaction, UUID categoryId, int direction) {
+        int signum = transaction.getAmount().signum();
+        if (signum == 0) {
+            return;
+        }
+
+        BigDecimal delta = direction > 0 ? transaction.getAmount() : transaction.getAmount().negate();
+        DailyTransactionRollupId id = DailyTransactionRollupId.builder()
+                .userSub(transaction.getUserSub())
+                .accountId(transaction.getAccount().getId())
+                .categoryId(categoryId)
+                .date(transaction.getDate())
+                .build();
+
+        rollupRepository.applyDelta(
+                id.getUserSub(),
+                id.getAccountId(),
+                id.getCategoryId(),
+                id.getDate(),
+                signum > 0 ? delta : BigDecimal.ZERO,
+                signum < 0 ? delta : BigDecimal.ZERO,
+                signum > 0 ? direction : 0,
+                signum < 0 ? direction : 0
+        );
+        if (direction < 0) {
+            rollupRepository.deleteIfEmpty(id);
+        }
+    }
+
+    /*
+     * Opening a month seeds it from the previous closing balance, so writers to the same account are serialized
+     * on the account row; otherwise a concurrently opened month could miss a delta that is not committed yet.
+     * Callers take that lock before writing any rollup row of the account, so rollup rows are never waited on while
+     * holding one.
+     */
+    private void applyToBalance(Transaction transaction, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+
+        UUID accountId = transaction.getAccount().getId();
+        LocalDate monthStart = transaction.getDate().withDayOfMonth(1);
+        monthlyBalanceRepository.openMonth(accountId, monthStart, transaction.getUserSub());
+        monthlyBalanceRepository.addToClosingBalances(accountId, monthStart, delta);
+    }
+
+    private record RollupDelta(BigDecimal incomeSum, BigDecimal expenseSum, long incomeCount, long expenseCount) {
+        static RollupDelta of(BigDecimal amount) {
+            return amount.signum() > 0
+                    ? new RollupDelta(amount, BigDecimal.ZERO, 1, 0)
+                    : new RollupDelta(BigDecimal.ZERO, amount, 0, 1);
+        }
+
+        RollupDelta add(RollupDelta other) {
+            return new RollupDelta(
+                    incomeSum.add(other.incomeSum),
+                    expenseSum.add(other.expenseSum),
+                    incomeCount + other.incomeCount,
+                    expenseCount + other.expenseCount
+            );
+        }
+    }
+}
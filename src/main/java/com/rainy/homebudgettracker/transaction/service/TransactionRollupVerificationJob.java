@@ -0,0 +1,47 @@
+package com.rainy.homebudgettracker.transaction.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Recomputes the daily rollups and monthly account balances from the transactions and rebuilds the ones that
+ * drifted. Runs nightly and once after startup, which also fills them for transactions created before the tables
+ * existed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupVerificationJob {
+    private final TransactionRollupService transactionRollupService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        verify();
+    }
+
+    @Scheduled(cron = "${application.rollup.verification-cron:0 30 3 * * *}", zone = "Europe/Warsaw")
+    public void verify() {
+        List<String> userSubs = transactionRollupService.findUserSubsWithDrift();
+        if (userSubs.isEmpty()) {
+            log.info("Transaction rollups are consistent");
+            return;
+        }
+
+        log.warn("Transaction rollups drifted for {} user(s), rebuilding", userSubs.size());
+        for (String userSub : userSubs) {
+            try {
+                transactionRollupService.rebuildForUser(userSub);
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild transaction rollups for user {}", userSub, e);
+            }
+        }
+    }
+}
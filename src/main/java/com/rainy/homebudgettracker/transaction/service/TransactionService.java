@@ -1,25 +1,35 @@
 package com.rainy.homebudgettracker.transaction.service;
 
+import com.rainy.homebudgettracker.transaction.service.helper.TransactionFingerprints;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionFilter;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
 import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.dto.TransactionSliceResponse;
 import com.rainy.homebudgettracker.transaction.dto.TransactionUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.OutputStream;
+import java.util.List;
 import java.util.UUID;
 
 public interface TransactionService {
     Page<TransactionResponse> findCurrentUserTransactions(TransactionFilter filter, Pageable pageable);
 
+    TransactionSliceResponse findCurrentUserTransactions(TransactionFilter filter, String cursor, int size);
+
     TransactionResponse createTransactionForCurrentUser(UUID accountId, TransactionRequest transactionRequest);
 
+    List<ImportRowResult> createTransactionsForCurrentUser(
+            UUID accountId, List<TransactionRequest> transactionRequests, TransactionFingerprints fingerprints);
+
     TransactionResponse updateTransactionForCurrentUser(UUID transactionId, TransactionUpdateRequest request);
 
     void deleteCurrentUserTransaction(UUID transactionId);
 
-    byte[] generateCSVWithCurrentUserTransactions();
+    void writeCSVWithCurrentUserTransactions(OutputStream outputStream);
 
     TransactionResponse addImageToCurrentUserTransaction(UUID transactionId, MultipartFile file);
 
@@ -4,45 +4,61 @@ import com.rainy.homebudgettracker.account.Account;
 import com.rainy.homebudgettracker.account.AccountService;
 import com.rainy.homebudgettracker.category.Category;
 import com.rainy.homebudgettracker.category.CategoryRepository;
+import com.rainy.homebudgettracker.category.CategoryRequest;
 import com.rainy.homebudgettracker.exchange.CurrencyConverter;
 import com.rainy.homebudgettracker.exchange.ExchangeResponse;
 import com.rainy.homebudgettracker.exchange.ExchangeService;
+import com.rainy.homebudgettracker.exchange.RateQuery;
 import com.rainy.homebudgettracker.handler.exception.*;
 import com.rainy.homebudgettracker.images.S3Service;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
 import com.rainy.homebudgettracker.transaction.*;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
 import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.dto.TransactionSliceResponse;
 import com.rainy.homebudgettracker.transaction.dto.TransactionUpdateRequest;
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import com.rainy.homebudgettracker.transaction.service.helper.TransactionFingerprints;
+import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionCursor;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionFilter;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecificationBuilder;
 import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
 import com.rainy.homebudgettracker.user.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.rainy.homebudgettracker.transaction.service.helper.BigDecimalNormalization.normalize;
+import static com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecifications.after;
 import static com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecifications.byUserSub;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TransactionServiceImpl implements TransactionService {
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int CSV_EXPORT_FETCH_SIZE = 500;
+    // Keeps the IN list of a fingerprint lookup well below the bind parameter limits of the drivers
+    private static final int FINGERPRINT_QUERY_SIZE = 1000;
+    private static final int MAX_IMPORT_INSERT_ATTEMPTS = 2;
+
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
     private final ModelMapper modelMapper;
@@ -51,6 +67,8 @@ public class TransactionServiceImpl implements TransactionService {
     private final CategoryRepository categoryRepository;
     private final ExchangeService exchangeService;
     private final TransactionSpecificationBuilder transactionSpecificationBuilder;
+    private final TransactionRollupService transactionRollupService;
+    private final TransactionBatchWriter transactionBatchWriter;
 
     @Override
     @Transactional(readOnly = true)
@@ -58,29 +76,146 @@ public class TransactionServiceImpl implements TransactionService {
         String userSub = userService.getUserSub();
         Specification<Transaction> spec = transactionSpecificationBuilder.build(filter, userSub);
 
-        return transactionRepository.findAll(spec, pageable).map(this::mapToTransactionResponse);
+        return transactionRepository.findViews(spec, pageable)
+                .map(view -> modelMapper.map(view, TransactionResponse.class));
+    }
+
+    /*
+     * Seeks past the cursor instead of skipping rows and fetches one extra row to tell whether there is a next slice,
+     * so neither an offset nor a count query is needed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionSliceResponse findCurrentUserTransactions(TransactionFilter filter, String cursor, int size) {
+        String userSub = userService.getUserSub();
+        Specification<Transaction> spec = transactionSpecificationBuilder.build(filter, userSub);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(after(TransactionCursor.decode(cursor)));
+        }
+
+        int sliceSize = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        List<TransactionView> transactions = transactionRepository.findViews(
+                spec, Sort.by(Sort.Direction.DESC, "date", "id"), sliceSize + 1);
+        Slice<TransactionView> slice = new SliceImpl<>(
+                transactions.subList(0, Math.min(sliceSize, transactions.size())),
+                PageRequest.ofSize(sliceSize),
+                transactions.size() > sliceSize);
+
+        TransactionView last = slice.hasNext() ? slice.getContent().get(slice.getNumberOfElements() - 1) : null;
+        return TransactionSliceResponse.builder()
+                .content(slice.map(view -> modelMapper.map(view, TransactionResponse.class)).getContent())
+                .hasNext(slice.hasNext())
+                .nextCursor(last == null ? null : new TransactionCursor(last.date(), last.id()).encode())
+                .build();
     }
 
     @Override
     @Transactional
     public TransactionResponse createTransactionForCurrentUser(UUID accountId, TransactionRequest transactionRequest) {
         Account account = accountService.findCurrentUserAccount(accountId);
-        boolean needsConversion = transactionRequest.getCurrencyCode() != null
-                && !transactionRequest.getCurrencyCode().equals(account.getCurrencyCode());
 
-        if (needsConversion) {
+        if (needsConversion(transactionRequest, account)) {
             return createCurrencyConversionTransaction(account, transactionRequest);
         } else {
             return createStandardTransaction(account, transactionRequest);
         }
     }
 
+    /*
+     * Bulk variant for imports. The account, the categories and the exchange rates are resolved once for all rows and
+     * the rows are inserted in one batch. A row that cannot be imported is reported and does not stop the others.
+     * Rows whose fingerprint is already stored are skipped; the stored fingerprints are looked up for the whole batch
+     * at once, and looked up again when a concurrent import inserted some of the rows in the meantime.
+     */
+    @Override
+    public List<ImportRowResult> createTransactionsForCurrentUser(
+            UUID accountId, List<TransactionRequest> transactionRequests, TransactionFingerprints fingerprints) {
+        Account account = accountService.findCurrentUserAccount(accountId);
+        String userSub = userService.getUserSub();
+
+        Set<String> categoryNames = transactionRequests.stream()
+                .map(TransactionRequest::getCategoryName)
+                .filter(categoryName -> categoryName != null && categoryName.getName() != null)
+                .map(CategoryRequest::getName)
+                .collect(Collectors.toSet());
+        Map<String, Category> categories = categoryRepository.findAllByUserSubAndNameIn(userSub, categoryNames).stream()
+                .collect(Collectors.toMap(Category::getName, Function.identity()));
+        Map<CurrencyCode, BigDecimal> currentRates = getCurrentRates(transactionRequests, account.getCurrencyCode());
+
+        ImportRowResult[] results = new ImportRowResult[transactionRequests.size()];
+        List<Transaction> transactions = new ArrayList<>();
+        List<Integer> transactionIndexes = new ArrayList<>();
+        for (int i = 0; i < transactionRequests.size(); i++) {
+            TransactionRequest request = transactionRequests.get(i);
+            // Every row counts towards the occurrences, so they do not depend on which rows are valid
+            String fingerprint = fingerprints.next(account.getId(), account.getCurrencyCode(), request);
+            String error = validateImportedRequest(request, account, categories, currentRates);
+            if (error != null) {
+                results[i] = ImportRowResult.builder().index(i).imported(false).error(error).build();
+                continue;
+            }
+
+            TransactionRequest standardRequest = request;
+            if (needsConversion(request, account)) {
+                boolean isRateProvided = isRateProvided(request);
+                BigDecimal exchangeRate = isRateProvided
+                        ? request.getExchangeRate()
+                        : currentRates.get(request.getCurrencyCode());
+                standardRequest = convertRequest(request, account, exchangeRate, !isRateProvided);
+            }
+            Category category = categories.get(request.getCategoryName().getName());
+            Transaction transaction = modelMapper.map(standardRequest, Transaction.class, userSub, category, account);
+            transaction.setFingerprint(fingerprint);
+            transactions.add(transaction);
+            transactionIndexes.add(i);
+        }
+
+        List<Transaction> savedTransactions;
+        for (int attempt = 1; ; attempt++) {
+            Set<String> existingFingerprints = findExistingFingerprints(transactions);
+            List<Transaction> newTransactions = new ArrayList<>(transactions.size());
+            List<Integer> newTransactionIndexes = new ArrayList<>(transactions.size());
+            for (int i = 0; i < transactions.size(); i++) {
+                int index = transactionIndexes.get(i);
+                if (existingFingerprints.contains(transactions.get(i).getFingerprint())) {
+                    results[index] = ImportRowResult.builder().index(index).imported(false).duplicate(true).build();
+                } else {
+                    newTransactions.add(transactions.get(i));
+                    newTransactionIndexes.add(index);
+                }
+            }
+            transactions = newTransactions;
+            transactionIndexes = newTransactionIndexes;
+
+            try {
+                savedTransactions = transactionBatchWriter.insertAll(transactions);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_IMPORT_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Imported transactions collided with a concurrent import, checking for duplicates again");
+                transactions.forEach(transaction -> transaction.setId(null));
+            }
+        }
+        for (int i = 0; i < savedTransactions.size(); i++) {
+            int index = transactionIndexes.get(i);
+            results[index] = ImportRowResult.builder()
+                    .index(index)
+                    .imported(true)
+                    .transactionId(savedTransactions.get(i).getId())
+                    .build();
+        }
+        return List.of(results);
+    }
+
     @Override
     @Transactional
     public TransactionResponse updateTransactionForCurrentUser(UUID transactionId, TransactionUpdateRequest request) {
         Transaction transaction = findAndVerifyTransactionOwner(transactionId);
 
         String userSub = userService.getUserSub();
+        Category previousCategory = transaction.getCategory();
         if (request.getCategoryName() != null) {
             Optional<Category> category = categoryRepository.findByUserSubAndName(userSub, request.getCategoryName());
             transaction.setCategory(category.orElseThrow(() -> new RecordDoesNotExistException("Category with name "
@@ -94,6 +229,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionRollupService.recordCategoryChanged(savedTransaction, previousCategory);
         return mapToTransactionResponse(savedTransaction);
     }
 
@@ -105,21 +241,27 @@ public class TransactionServiceImpl implements TransactionService {
             s3Service.deleteFile(transaction.getImageFilePath());
         }
         transactionRepository.delete(transaction);
+        transactionRollupService.recordDeleted(transaction);
     }
 
+    /*
+     * Rows are written as they are read from the database cursor, so memory use does not grow with the number of
+     * transactions.
+     */
     @Override
-    public byte[] generateCSVWithCurrentUserTransactions() {
+    @Transactional(readOnly = true)
+    public void writeCSVWithCurrentUserTransactions(OutputStream outputStream) {
         String userSub = userService.getUserSub();
-        List<Transaction> transactions = transactionRepository.findAll(byUserSub(userSub));
-
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-             OutputStreamWriter writer = new OutputStreamWriter(baos, StandardCharsets.UTF_8)) {
 
+        try (Stream<TransactionView> transactions = transactionRepository.streamViews(
+                byUserSub(userSub), CSV_EXPORT_FETCH_SIZE)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
             writer.append("sep=,\n");
             writer.append("Account name,Currency code,Amount,Category,Date,Transaction method,Description\n");
 
-            for (Transaction transaction : transactions) {
-                TransactionResponse dto = mapToTransactionResponse(transaction);
+            Iterator<TransactionView> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                TransactionResponse dto = modelMapper.map(iterator.next(), TransactionResponse.class);
                 String details = dto.details() == null ? "" : dto.details();
                 writer.append(dto.account().getName())
                         .append(",").append(dto.account().getCurrencyCode())
@@ -130,7 +272,6 @@ public class TransactionServiceImpl implements TransactionService {
                         .append(",\"").append(details).append("\"\n");
             }
             writer.flush();
-            return baos.toByteArray();
         } catch (IOException e) {
             throw new FileProcessingException("Error generating CSV file content", e);
         }
@@ -175,44 +316,38 @@ public class TransactionServiceImpl implements TransactionService {
 
         Transaction transaction = modelMapper.map(request, Transaction.class, userSub, category, account);
         Transaction savedTransaction = transactionRepository.save(transaction);
+        transactionRollupService.recordCreated(savedTransaction);
         return mapToTransactionResponse(savedTransaction);
     }
 
     private TransactionResponse createCurrencyConversionTransaction(
             Account account, TransactionRequest originalRequest) {
-        BigDecimal exchangeRate;
-        String newDetails;
-        CurrencyCode targetCurrency = account.getCurrencyCode();
+        boolean isRateProvided = isRateProvided(originalRequest);
+        BigDecimal exchangeRate = isRateProvided
+                ? originalRequest.getExchangeRate()
+                : getCurrencyRate(originalRequest.getCurrencyCode(), account.getCurrencyCode());
 
-        boolean isRateProvided = originalRequest.getExchangeRate() != null
-                && originalRequest.getExchangeRate().compareTo(BigDecimal.ZERO) > 0;
-
-        if (isRateProvided) {
-            exchangeRate = normalize(originalRequest.getExchangeRate(), 4);
-            newDetails = buildExchangeDetails(
-                    originalRequest.getCurrencyCode().name(),
-                    targetCurrency.name(),
-                    exchangeRate.toString(),
-                    false,
-                    originalRequest.getDetails()
-            );
-        } else {
-            exchangeRate = getCurrencyRate(originalRequest.getCurrencyCode(), targetCurrency);
-            newDetails = buildExchangeDetails(
-                    originalRequest.getCurrencyCode().name(),
-                    targetCurrency.name(),
-                    exchangeRate.toString(),
-                    true,
-                    originalRequest.getDetails()
-            );
-        }
+        return createStandardTransaction(account, convertRequest(originalRequest, account, exchangeRate, !isRateProvided));
+    }
+
+    private TransactionRequest convertRequest(
+            TransactionRequest originalRequest, Account account, BigDecimal exchangeRate, boolean isCurrentRate) {
+        CurrencyCode targetCurrency = account.getCurrencyCode();
+        BigDecimal normalizedRate = normalize(exchangeRate, 4);
+        String newDetails = buildExchangeDetails(
+                originalRequest.getCurrencyCode().name(),
+                targetCurrency.name(),
+                normalizedRate.toString(),
+                isCurrentRate,
+                originalRequest.getDetails()
+        );
 
         BigDecimal convertedAmount = CurrencyConverter.convert(
                 originalRequest.getAmount(),
-                exchangeRate,
+                normalizedRate,
                 2);
 
-        TransactionRequest convertedRequest = TransactionRequest.builder()
+        return TransactionRequest.builder()
                 .amount(convertedAmount)
                 .date(originalRequest.getDate())
                 .transactionMethod(originalRequest.getTransactionMethod())
@@ -220,8 +355,76 @@ public class TransactionServiceImpl implements TransactionService {
                 .categoryName(originalRequest.getCategoryName())
                 .currencyCode(targetCurrency)
                 .build();
+    }
+
+    private boolean needsConversion(TransactionRequest request, Account account) {
+        return request.getCurrencyCode() != null && !request.getCurrencyCode().equals(account.getCurrencyCode());
+    }
+
+    private boolean isRateProvided(TransactionRequest request) {
+        return request.getExchangeRate() != null && request.getExchangeRate().compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    /*
+     * Current rates of every currency that has to be converted without a provided rate, fetched in one batch. When
+     * the rates cannot be fetched the affected rows are rejected instead of failing the whole import.
+     */
+    private Map<CurrencyCode, BigDecimal> getCurrentRates(
+            List<TransactionRequest> transactionRequests, CurrencyCode targetCurrency) {
+        LocalDate today = LocalDate.now();
+        Set<RateQuery> queries = transactionRequests.stream()
+                .filter(request -> request.getCurrencyCode() != null
+                        && request.getCurrencyCode() != targetCurrency
+                        && !isRateProvided(request))
+                .map(request -> new RateQuery(today, request.getCurrencyCode(), targetCurrency))
+                .collect(Collectors.toSet());
+        if (queries.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            Map<CurrencyCode, BigDecimal> rates = new EnumMap<>(CurrencyCode.class);
+            exchangeService.getExchangeRates(queries)
+                    .forEach((query, rate) -> rates.put(query.from(), rate.setScale(4, RoundingMode.HALF_UP)));
+            return rates;
+        } catch (RuntimeException e) {
+            log.warn("Could not fetch exchange rates to {} for import", targetCurrency, e);
+            return Map.of();
+        }
+    }
 
-        return createStandardTransaction(account, convertedRequest);
+    private Set<String> findExistingFingerprints(List<Transaction> transactions) {
+        List<String> fingerprints = transactions.stream()
+                .map(Transaction::getFingerprint)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<String> existingFingerprints = new HashSet<>();
+        for (int from = 0; from < fingerprints.size(); from += FINGERPRINT_QUERY_SIZE) {
+            List<String> slice = fingerprints.subList(from, Math.min(from + FINGERPRINT_QUERY_SIZE, fingerprints.size()));
+            existingFingerprints.addAll(transactionRepository.findExistingFingerprints(slice));
+        }
+        return existingFingerprints;
+    }
+
+    private String validateImportedRequest(
+            TransactionRequest request,
+            Account account,
+            Map<String, Category> categories,
+            Map<CurrencyCode, BigDecimal> currentRates
+    ) {
+        if (request.getAmount() == null || request.getDate() == null || request.getTransactionMethod() == null
+                || request.getCategoryName() == null || request.getCategoryName().getName() == null) {
+            return "Amount, category name, date and transaction method are required.";
+        }
+        if (!categories.containsKey(request.getCategoryName().getName())) {
+            return "Category with name " + request.getCategoryName().getName() + " does not exist.";
+        }
+        if (needsConversion(request, account) && !isRateProvided(request)
+                && !currentRates.containsKey(request.getCurrencyCode())) {
+            return "Exchange rate from " + request.getCurrencyCode() + " to " + account.getCurrencyCode()
+                    + " is not available.";
+        }
+        return null;
     }
 
     private String buildExchangeDetails(String from, String to, String rate, boolean withDate, String originalDetails) {
@@ -0,0 +1,49 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Definition of a CSV bank statement format, read from a YAML file (see {@code resources/bank-formats}). Columns are
+ * counted from zero, the header row from one. A row is imported when it has all the mapped columns and none of the
+ * {@code requiredColumns} is empty.
+ */
+public record BankFormat(
+        String bankName,
+        String displayName,
+        String charset,
+        char separator,
+        Header header,
+        List<Integer> requiredColumns,
+        DateColumn date,
+        AmountColumn amount,
+        DetailsColumns details,
+        TransactionMethodColumn transactionMethod
+) {
+    /**
+     * The line {@code row} has to be one of the {@code accepted} lines, the statement rows start after it.
+     */
+    public record Header(int row, List<String> accepted) {}
+
+    /**
+     * {@code format} is a {@link java.time.format.DateTimeFormatter} pattern, ISO dates are expected when it is
+     * missing.
+     */
+    public record DateColumn(int column, String format) {}
+
+    /**
+     * Amounts use a dot as the decimal separator and no grouping separator unless specified otherwise.
+     */
+    public record AmountColumn(int column, Character decimalSeparator, Character groupingSeparator) {}
+
+    /**
+     * The non-empty columns are joined with a space.
+     */
+    public record DetailsColumns(List<Integer> columns) {}
+
+    /**
+     * Maps the bank's codes, compared without whitespace, to transaction methods. Unmapped codes become
+     * {@code OTHER}.
+     */
+    public record TransactionMethodColumn(int column, Map<String, String> mapping) {}
+}
@@ -0,0 +1,273 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.rainy.homebudgettracker.handler.exception.FileProcessingException;
+import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Extractor of a statement format described by a {@link BankFormat}. The definition is checked and turned into column
+ * indexes and lookup tables once, so reading a row costs the same as in an extractor written by hand.
+ */
+@Log4j2
+public final class BankFormatExtractor implements TransactionExtractor {
+    private static final String ISO_DATE_PATTERN = "yyyy-MM-dd";
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String OTHER_METHOD = TransactionMethod.OTHER.name();
+
+    private final BankName bankName;
+    private final String displayName;
+    private final Charset charset;
+    private final char separator;
+    private final int headerRow;
+    private final Set<String> acceptedHeaders;
+    private final int minFieldCount;
+    private final int[] requiredColumns;
+    private final int dateColumn;
+    // null when the dates are ISO dates, possibly followed by a time, which are cut instead of parsed
+    private final DateTimeFormatter dateFormatter;
+    private final int amountColumn;
+    private final char decimalSeparator;
+    private final Character groupingSeparator;
+    private final int[] detailsColumns;
+    private final int methodColumn;
+    private final char[][] methodCodes;
+    private final String[] methods;
+
+    private BankFormatExtractor(BankFormat format) {
+        this.bankName = new BankName(format.bankName());
+        this.displayName = format.displayName() == null ? bankName.name() : format.displayName();
+        this.charset = Charset.forName(format.charset() == null ? "UTF-8" : format.charset());
+        this.separator = format.separator() == 0 ? ',' : format.separator();
+
+        BankFormat.Header header = require(format.header(), "header");
+        this.headerRow = header.row();
+        this.acceptedHeaders = Set.copyOf(require(header.accepted(), "header.accepted").stream()
+                .map(String::strip)
+                .toList());
+        if (headerRow < 1 || acceptedHeaders.isEmpty()) {
+            throw new IllegalArgumentException("the header needs a row number from 1 and at least one accepted line");
+        }
+
+        BankFormat.DateColumn date = require(format.date(), "date");
+        this.dateColumn = date.column();
+        this.dateFormatter = date.format() == null || date.format().startsWith(ISO_DATE_PATTERN)
+                ? null
+                : DateTimeFormatter.ofPattern(date.format());
+
+        BankFormat.AmountColumn amount = require(format.amount(), "amount");
+        this.amountColumn = amount.column();
+        this.decimalSeparator = amount.decimalSeparator() == null ? '.' : amount.decimalSeparator();
+        this.groupingSeparator = amount.groupingSeparator();
+
+        BankFormat.DetailsColumns details = require(format.details(), "details");
+        this.detailsColumns = require(details.columns(), "details.columns").stream().mapToInt(Integer::intValue).toArray();
+
+        BankFormat.TransactionMethodColumn method = require(format.transactionMethod(), "transaction-method");
+        this.methodColumn = method.column();
+        Map<String, String> mapping = method.mapping() == null ? Map.of() : method.mapping();
+        this.methodCodes = new char[mapping.size()][];
+        this.methods = new String[mapping.size()];
+        int i = 0;
+        for (Map.Entry<String, String> entry : mapping.entrySet()) {
+            methodCodes[i] = entry.getKey().replaceAll("\\s", "").toCharArray();
+            methods[i] = TransactionMethod.valueOf(entry.getValue()).name();
+            i++;
+        }
+
+        this.requiredColumns = format.requiredColumns() == null
+                ? new int[0]
+                : format.requiredColumns().stream().mapToInt(Integer::intValue).toArray();
+        int[] columns = IntStream.concat(
+                IntStream.of(dateColumn, amountColumn, methodColumn),
+                IntStream.concat(IntStream.of(detailsColumns), IntStream.of(requiredColumns))).toArray();
+        int maxColumn = 0;
+        for (int column : columns) {
+            if (column < 0) {
+                throw new IllegalArgumentException("column numbers cannot be negative");
+            }
+            maxColumn = Math.max(maxColumn, column);
+        }
+        this.minFieldCount = maxColumn + 1;
+    }
+
+    /**
+     * Checks the definition and compiles it, an invalid definition is reported with an {@link IllegalStateException}.
+     */
+    public static BankFormatExtractor compile(BankFormat format) {
+        try {
+            return new BankFormatExtractor(format);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid definition of the bank format " + format.bankName() + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    public BankName getBankName() {
+        return bankName;
+    }
+
+    @Override
+    public boolean supports(BankName bankName) {
+        return this.bankName.equals(bankName);
+    }
+
+    @Override
+    public Stream<TransactionResponse> stream(InputStream inputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        try {
+            validateHeaderAndSkip(reader);
+        } catch (IOException e) {
+            StatementRecords.close(reader, displayName);
+            log.error("I/O error while reading {} file stream", displayName, e);
+            throw new FileProcessingException("Could not read the " + displayName + " file due to a system error.", e);
+        } catch (RuntimeException e) {
+            StatementRecords.close(reader, displayName);
+            throw e;
+        }
+
+        return StatementRecords.of(
+                new CsvTokenizer(reader, separator), displayName, this::checkIfProperRow, this::toTransaction);
+    }
+
+    private TransactionResponse toTransaction(CsvTokenizer row) {
+        return TransactionResponse.builder()
+                .id(UUID.randomUUID())
+                .date(toDate(row.trimmedField(dateColumn)))
+                .details(toDetails(row))
+                .transactionMethod(toTransactionMethod(row.field(methodColumn)))
+                .amount(toAmount(row.trimmedField(amountColumn)))
+                .build();
+    }
+
+    private boolean checkIfProperRow(CsvTokenizer row) {
+        if (row.fieldCount() < minFieldCount) {
+            return false;
+        }
+        for (int column : requiredColumns) {
+            if (row.field(column).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * A date that cannot be parsed is passed on as it is and the row is rejected when it is saved.
+     */
+    private String toDate(CharSequence value) {
+        if (dateFormatter == null) {
+            return value.length() > ISO_DATE_PATTERN.length()
+                    ? value.subSequence(0, ISO_DATE_PATTERN.length()).toString()
+                    : value.toString();
+        }
+        try {
+            return LocalDate.parse(value, dateFormatter).toString();
+        } catch (DateTimeParseException e) {
+            return value.toString();
+        }
+    }
+
+    private String toAmount(CharSequence value) {
+        if (decimalSeparator == '.' && groupingSeparator == null) {
+            return value.toString();
+        }
+
+        StringBuilder amount = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == decimalSeparator) {
+                amount.append('.');
+            } else if (groupingSeparator == null || c != groupingSeparator) {
+                amount.append(c);
+            }
+        }
+        return amount.toString();
+    }
+
+    private String toDetails(CsvTokenizer row) {
+        if (detailsColumns.length == 1) {
+            return row.trimmedField(detailsColumns[0]).toString();
+        }
+
+        StringBuilder details = new StringBuilder();
+        for (int column : detailsColumns) {
+            CharSequence value = row.trimmedField(column);
+            if (!value.isEmpty()) {
+                if (!details.isEmpty()) {
+                    details.append(' ');
+                }
+                details.append(value);
+            }
+        }
+        return details.toString();
+    }
+
+    private String toTransactionMethod(CharSequence value) {
+        for (int i = 0; i < methodCodes.length; i++) {
+            if (equalsIgnoringWhitespace(value, methodCodes[i])) {
+                return methods[i];
+            }
+        }
+        return OTHER_METHOD;
+    }
+
+    private static boolean equalsIgnoringWhitespace(CharSequence value, char[] code) {
+        int matched = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (matched == code.length || code[matched] != c) {
+                return false;
+            }
+            matched++;
+        }
+        return matched == code.length;
+    }
+
+    private void validateHeaderAndSkip(BufferedReader reader) throws IOException {
+        for (int i = 0; i < headerRow - 1; i++) {
+            if (reader.readLine() == null) {
+                throw new WrongFileFormatException("The file is too short. The expected header was not found in the line "
+                        + headerRow);
+            }
+        }
+
+        String headerLine = reader.readLine();
+        if (headerLine == null && headerRow == 1) {
+            throw new WrongFileFormatException("The file is empty. Expected a header line.");
+        }
+        if (headerLine != null && !headerLine.isEmpty() && headerLine.charAt(0) == BYTE_ORDER_MARK) {
+            headerLine = headerLine.substring(1);
+        }
+        if (headerLine == null || !acceptedHeaders.contains(headerLine.strip())) {
+            throw new WrongFileFormatException(headerRow == 1
+                    ? "Incorrect file format. The header does not match the expected " + displayName + " format."
+                    : "Incorrect file format. The header in line " + headerRow
+                            + " does not match the expected export format from " + displayName);
+        }
+    }
+
+    private static <T> T require(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name + " is missing");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,47 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BankFormats {
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory())
+            .setPropertyNamingStrategy(PropertyNamingStrategies.KEBAB_CASE);
+
+    private BankFormats() {}
+
+    public static BankFormat read(InputStream inputStream) {
+        try (inputStream) {
+            return YAML_MAPPER.readValue(inputStream, BankFormat.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the bank format definition", e);
+        }
+    }
+
+    /**
+     * Reads the definitions of all the resources matching the pattern, e.g. {@code classpath*:bank-formats/*.yaml}.
+     */
+    public static List<BankFormat> readAll(String locationPattern) {
+        List<BankFormat> formats = new ArrayList<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(locationPattern)) {
+                try {
+                    formats.add(read(resource.getInputStream()));
+                } catch (UncheckedIOException e) {
+                    throw new IllegalStateException("Invalid bank format definition " + resource, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the bank format definitions in " + locationPattern, e);
+        }
+        return formats;
+    }
+}
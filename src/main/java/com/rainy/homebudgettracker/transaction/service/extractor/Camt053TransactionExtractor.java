@@ -0,0 +1,247 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * ISO 20022 bank to customer statement (camt.053) read with a StAX cursor, so only the entry being read is held in
+ * memory whatever the size of the file. Every booked entry (Ntry) becomes one row; entries that are pending or only
+ * informative are skipped. Elements are matched by their local names, so all versions of the schema are read.
+ */
+@Component
+@Log4j2
+public class Camt053TransactionExtractor implements TransactionExtractor {
+    public static final BankName CAMT_053 = BankName.valueOf("CAMT053");
+    private static final String DISPLAY_NAME = "CAMT.053";
+    private static final String NAMESPACE_MARKER = "camt.053";
+    private static final String BOOKED = "BOOK";
+    private static final String DEBIT = "DBIT";
+    private static final int ISO_DATE_LENGTH = 10;
+    // Longer texts are cut, so a single element cannot take an unbounded amount of memory
+    private static final int MAX_TEXT_LENGTH = 4096;
+
+    @Override
+    public boolean supports(BankName bankName) {
+        return CAMT_053.equals(bankName);
+    }
+
+    @Override
+    public Stream<TransactionResponse> stream(InputStream inputStream) {
+        XMLStreamReader xml = null;
+        try {
+            xml = createInputFactory().createXMLStreamReader(inputStream);
+            validateDocument(xml);
+        } catch (XMLStreamException e) {
+            close(xml, inputStream);
+            log.warn("Could not read a {} file", DISPLAY_NAME, e);
+            throw new WrongFileFormatException("Incorrect file format. The file is not a valid CAMT.053 statement.");
+        } catch (RuntimeException e) {
+            close(xml, inputStream);
+            throw e;
+        }
+
+        XMLStreamReader entries = xml;
+        Spliterator<TransactionResponse> rows = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super TransactionResponse> action) {
+                Entry entry;
+                while ((entry = nextEntry(entries)) != null) {
+                    if (entry.status == null || BOOKED.equals(entry.status)) {
+                        action.accept(toTransaction(entry));
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> close(entries, inputStream));
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private void validateDocument(XMLStreamReader xml) throws XMLStreamException {
+        if (!xml.hasNext()) {
+            throw new WrongFileFormatException("The file is empty. Expected a CAMT.053 statement.");
+        }
+        xml.nextTag();
+        String namespace = xml.getNamespaceURI();
+        if (!"Document".equals(xml.getLocalName()) || namespace == null || !namespace.contains(NAMESPACE_MARKER)) {
+            throw new WrongFileFormatException("Incorrect file format. The file is not a CAMT.053 statement.");
+        }
+    }
+
+    /*
+     * Moves the cursor past the next entry and returns what was read from it, or null at the end of the document.
+     */
+    private Entry nextEntry(XMLStreamReader xml) {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "Ntry".equals(xml.getLocalName())) {
+                    return readEntry(xml);
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            log.warn("Could not read a {} file", DISPLAY_NAME, e);
+            throw new WrongFileFormatException("Incorrect file format. The file is not a valid CAMT.053 statement.");
+        }
+    }
+
+    private Entry readEntry(XMLStreamReader xml) throws XMLStreamException {
+        Entry entry = new Entry();
+        // Names of the elements between the entry and the cursor
+        List<String> path = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        while (xml.hasNext()) {
+            switch (xml.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    path.add(xml.getLocalName());
+                    text.setLength(0);
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                    int length = Math.min(xml.getTextLength(), MAX_TEXT_LENGTH - text.length());
+                    if (length > 0) {
+                        text.append(xml.getTextCharacters(), xml.getTextStart(), length);
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    if (path.isEmpty()) {
+                        return entry;
+                    }
+                    entry.read(path, text.toString().strip());
+                    path.remove(path.size() - 1);
+                    text.setLength(0);
+                }
+                default -> {
+                }
+            }
+        }
+        return entry;
+    }
+
+    private TransactionResponse toTransaction(Entry entry) {
+        String date = entry.bookingDate != null ? entry.bookingDate : entry.valueDate;
+        String counterparty = DEBIT.equals(entry.creditDebit) ? entry.creditorName : entry.debtorName;
+        String details = join(counterparty, entry.remittance == null ? null : entry.remittance.toString());
+        if (details.isEmpty() && entry.additionalInfo != null) {
+            details = entry.additionalInfo;
+        }
+
+        return TransactionResponse.builder()
+                .id(UUID.randomUUID())
+                .date(date == null || date.length() <= ISO_DATE_LENGTH ? date : date.substring(0, ISO_DATE_LENGTH))
+                .details(details)
+                .transactionMethod(toTransactionMethod(entry.family).name())
+                .amount(entry.amount == null || !DEBIT.equals(entry.creditDebit) ? entry.amount : "-" + entry.amount)
+                .build();
+    }
+
+    /*
+     * Bank transaction family codes of the payments domain (PMNT) that have a counterpart among the methods.
+     */
+    private TransactionMethod toTransactionMethod(String family) {
+        if (family == null) {
+            return TransactionMethod.OTHER;
+        }
+        return switch (family) {
+            case "CCRD", "DCRD" -> TransactionMethod.DEBIT_CARD;
+            case "ICDT", "RCDT" -> TransactionMethod.BANK_TRANSFER;
+            case "CWDL" -> TransactionMethod.CASH;
+            default -> TransactionMethod.OTHER;
+        };
+    }
+
+    private static String join(String first, String second) {
+        if (first == null || first.isEmpty()) {
+            return second == null ? "" : second;
+        }
+        return second == null || second.isEmpty() ? first : first + " " + second;
+    }
+
+    private static void close(XMLStreamReader xml, InputStream inputStream) {
+        if (xml != null) {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                log.warn("Could not close {} parser", DISPLAY_NAME, e);
+            }
+        }
+        StatementRecords.close(inputStream, DISPLAY_NAME);
+    }
+
+    private static final class Entry {
+        private String amount;
+        private String creditDebit;
+        private String status;
+        private String bookingDate;
+        private String valueDate;
+        private String family;
+        private String additionalInfo;
+        private String creditorName;
+        private String debtorName;
+        private StringBuilder remittance;
+
+        private void read(List<String> path, String value) {
+            if (value.isEmpty()) {
+                return;
+            }
+
+            int depth = path.size();
+            String name = path.get(depth - 1);
+            String parent = depth > 1 ? path.get(depth - 2) : null;
+            if (depth == 1) {
+                switch (name) {
+                    case "Amt" -> amount = value;
+                    case "CdtDbtInd" -> creditDebit = value;
+                    case "Sts" -> status = value;
+                    case "AddtlNtryInf" -> additionalInfo = value;
+                    default -> {
+                    }
+                }
+            } else if (depth == 2 && "Sts".equals(parent) && "Cd".equals(name)) {
+                status = value;
+            } else if (depth == 2 && ("Dt".equals(name) || "DtTm".equals(name))) {
+                if ("BookgDt".equals(parent)) {
+                    bookingDate = value;
+                } else if ("ValDt".equals(parent)) {
+                    valueDate = value;
+                }
+            } else if (depth == 4 && "Fmly".equals(parent) && "Cd".equals(name) && "Domn".equals(path.get(1))) {
+                family = value;
+            } else if ("Ustrd".equals(name) && "RmtInf".equals(parent)) {
+                if (remittance == null) {
+                    remittance = new StringBuilder(value);
+                } else if (remittance.length() < MAX_TEXT_LENGTH) {
+                    remittance.append(' ').append(value);
+                }
+            } else if ("Nm".equals(name) && path.contains("RltdPties")) {
+                if (path.contains("Cdtr") && creditorName == null) {
+                    creditorName = value;
+                } else if (path.contains("Dbtr") && debtorName == null) {
+                    debtorName = value;
+                }
+            }
+        }
+    }
+}
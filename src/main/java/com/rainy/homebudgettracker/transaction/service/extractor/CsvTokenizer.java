@@ -0,0 +1,215 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Single-pass CSV tokenizer working on the decoded character buffer. Fields of the current record are exposed as
+ * views into the buffer, valid until the next call to {@link #next()}; a {@code String} is only created when a value
+ * is asked for. A field is quoted when it starts with a quote, inside it the separator and line breaks are literal and
+ * a doubled quote stands for a single one. A stray quote is kept as it is.
+ */
+public final class CsvTokenizer implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final int INITIAL_FIELD_CAPACITY = 32;
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+    private final char separator;
+    private char[] buffer = new char[INITIAL_BUFFER_SIZE];
+    // Start of the current record, everything before it may be discarded when the buffer is refilled
+    private int recordStart;
+    // Characters of the buffer in [position, limit) are not tokenized yet
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    // Field i spans [fieldStarts[i], fieldEnds[i]) relative to the start of the record
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+    private int fieldCount;
+
+    public CsvTokenizer(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /**
+     * Moves to the next record and returns {@code false} when there are no more records. An empty line is a record
+     * with a single empty field.
+     */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        recordStart = position;
+        if (!available(0)) {
+            return false;
+        }
+
+        int i = 0;
+        while (true) {
+            int start;
+            int end;
+            if (available(i) && buffer[recordStart + i] == QUOTE) {
+                start = ++i;
+                // Unescaped characters are written back over the field, which never gets longer
+                int write = start;
+                while (available(i)) {
+                    char c = buffer[recordStart + i];
+                    if (c == QUOTE) {
+                        if (available(i + 1) && buffer[recordStart + i + 1] == QUOTE) {
+                            buffer[recordStart + write++] = QUOTE;
+                            i += 2;
+                            continue;
+                        }
+                        if (!available(i + 1) || isDelimiter(buffer[recordStart + i + 1])) {
+                            i++;
+                            break;
+                        }
+                    }
+                    buffer[recordStart + write++] = c;
+                    i++;
+                }
+                end = write;
+            } else {
+                start = i;
+                while (available(i) && !isDelimiter(buffer[recordStart + i])) {
+                    i++;
+                }
+                end = i;
+            }
+            addField(start, end);
+
+            if (!available(i)) {
+                position = recordStart + i;
+                return true;
+            }
+            char delimiter = buffer[recordStart + i++];
+            if (delimiter == separator) {
+                continue;
+            }
+            if (delimiter == '\r' && available(i) && buffer[recordStart + i] == '\n') {
+                i++;
+            }
+            position = recordStart + i;
+            return true;
+        }
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * View of the field, valid until the next record is read.
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        return new Slice(recordStart + fieldStarts[index], recordStart + fieldEnds[index]);
+    }
+
+    public String value(int index) {
+        checkIndex(index);
+        return new String(buffer, recordStart + fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * View of the field without leading and trailing whitespace, valid until the next record is read.
+     */
+    public CharSequence trimmedField(int index) {
+        checkIndex(index);
+        int start = recordStart + fieldStarts[index];
+        int end = recordStart + fieldEnds[index];
+        while (start < end && buffer[start] <= ' ') {
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' ') {
+            end--;
+        }
+        return new Slice(start, end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean isDelimiter(char c) {
+        return c == separator || c == '\n' || c == '\r';
+    }
+
+    /*
+     * Makes sure the character at the given offset from the start of the record is in the buffer. Reading more input
+     * moves the current record to the start of the buffer, which is grown when a single record fills it.
+     */
+    private boolean available(int offset) throws IOException {
+        while (recordStart + offset >= limit) {
+            if (endOfInput) {
+                return false;
+            }
+
+            if (recordStart > 0) {
+                System.arraycopy(buffer, recordStart, buffer, 0, limit - recordStart);
+                limit -= recordStart;
+                position -= recordStart;
+                recordStart = 0;
+            } else if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        return true;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of " + fieldCount);
+        }
+    }
+
+    private final class Slice implements CharSequence {
+        private final int start;
+        private final int end;
+
+        private Slice(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return buffer[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new Slice(start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, start, end - start);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.rainy.homebudgettracker.handler.exception.FileProcessingException;
+import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+ * SWIFT MT940 statement read line by line, so only the transaction being read is held in memory. Every statement line
+ * (:61:) becomes one row, described by the information line (:86:) that follows it. The information is read as
+ * structured subfields when the bank uses them (Polish banks write them after '~' or '<', others after '?'), otherwise
+ * its lines are joined as they are.
+ */
+@Component
+@Log4j2
+public class Mt940TransactionExtractor implements TransactionExtractor {
+    public static final BankName MT940 = BankName.valueOf("MT940");
+    private static final String DISPLAY_NAME = "MT940";
+    private static final Pattern TAG = Pattern.compile("^:(\\d{2}[A-Z]?):");
+    private static final Pattern STATEMENT_LINE = Pattern.compile(
+            "(\\d{2})(\\d{2})(\\d{2})(\\d{4})?(R?[CD])[A-Z]?(\\d+(?:,\\d*)?)([NSF][A-Z0-9]{3})?.*");
+    private static final Pattern SUBFIELD = Pattern.compile("[?~<](\\d{2})");
+    private static final String TRANSFER_TYPE = "TRF";
+    // Longer information is cut, so a single transaction cannot take an unbounded amount of memory
+    private static final int MAX_INFORMATION_LENGTH = 4096;
+
+    private final Charset charset;
+
+    public Mt940TransactionExtractor(@Value("${application.import.mt940.charset:Windows-1250}") String charset) {
+        this.charset = Charset.forName(charset);
+    }
+
+    @Override
+    public boolean supports(BankName bankName) {
+        return MT940.equals(bankName);
+    }
+
+    @Override
+    public Stream<TransactionResponse> stream(InputStream inputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        Lines lines = new Lines(reader);
+        try {
+            String first = lines.next();
+            if (first == null) {
+                throw new WrongFileFormatException("The file is empty. Expected an MT940 statement.");
+            }
+            if (!first.startsWith(":20:")) {
+                throw new WrongFileFormatException("Incorrect file format. The file is not an MT940 statement.");
+            }
+        } catch (RuntimeException e) {
+            StatementRecords.close(reader, DISPLAY_NAME);
+            throw e;
+        }
+
+        Spliterator<TransactionResponse> rows = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super TransactionResponse> action) {
+                TransactionResponse transaction = nextTransaction(lines);
+                if (transaction == null) {
+                    return false;
+                }
+                action.accept(transaction);
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> StatementRecords.close(reader, DISPLAY_NAME));
+    }
+
+    /*
+     * Reads fields up to the statement line after the next one, or up to the end of the statement, and returns the
+     * transaction of the first one. Null when there are no more statement lines.
+     */
+    private TransactionResponse nextTransaction(Lines lines) {
+        String line;
+        while ((line = lines.next()) != null && !line.startsWith(":61:")) {
+            // Balances and fields of the statement header
+        }
+        if (line == null) {
+            return null;
+        }
+
+        String statementLine = line.substring(4);
+        String supplementary = null;
+        StringBuilder information = null;
+        String tag = "61";
+        while ((line = lines.peek()) != null) {
+            Matcher matcher = TAG.matcher(line);
+            if (matcher.find()) {
+                tag = matcher.group(1);
+                if (!"86".equals(tag)) {
+                    break;
+                }
+                information = new StringBuilder(line.substring(matcher.end()));
+            } else if ("61".equals(tag) && supplementary == null) {
+                supplementary = line.strip();
+            } else if ("86".equals(tag) && information.length() < MAX_INFORMATION_LENGTH) {
+                information.append('\n').append(line);
+            }
+            lines.next();
+        }
+
+        String details = information == null ? "" : toDetails(information);
+        return toTransaction(statementLine, details.isEmpty() && supplementary != null ? supplementary : details);
+    }
+
+    private TransactionResponse toTransaction(String statementLine, String details) {
+        Matcher matcher = STATEMENT_LINE.matcher(statementLine);
+        if (!matcher.matches()) {
+            throw new WrongFileFormatException("Incorrect file format. Unrecognized MT940 statement line: "
+                    + statementLine);
+        }
+
+        String mark = matcher.group(5);
+        boolean debit = "D".equals(mark) || "RC".equals(mark);
+        String amount = matcher.group(6).replace(',', '.');
+        if (amount.endsWith(".")) {
+            amount = amount.substring(0, amount.length() - 1);
+        }
+        String type = matcher.group(7);
+
+        return TransactionResponse.builder()
+                .id(UUID.randomUUID())
+                .date("20" + matcher.group(1) + "-" + matcher.group(2) + "-" + matcher.group(3))
+                .details(details)
+                .transactionMethod((type != null && type.endsWith(TRANSFER_TYPE)
+                        ? TransactionMethod.BANK_TRANSFER : TransactionMethod.OTHER).name())
+                .amount(debit ? "-" + amount : amount)
+                .build();
+    }
+
+    /*
+     * Remittance (20-29, 60-63) and counterparty name (32-33) subfields, or the lines joined with spaces when the
+     * information is not structured.
+     */
+    private String toDetails(StringBuilder information) {
+        String text = information.toString().replace("\r", "").replace("\n", "");
+        Matcher matcher = SUBFIELD.matcher(text);
+        if (!matcher.find() || matcher.start() > 3) {
+            return information.toString().replaceAll("\\s+", " ").strip();
+        }
+
+        StringBuilder name = new StringBuilder();
+        StringBuilder remittance = new StringBuilder();
+        int code = Integer.parseInt(matcher.group(1));
+        int start = matcher.end();
+        while (true) {
+            boolean more = matcher.find();
+            String value = text.substring(start, more ? matcher.start() : text.length()).strip();
+            if (code >= 20 && code <= 29 || code >= 60 && code <= 63) {
+                remittance.append(value);
+            } else if (code == 32 || code == 33) {
+                name.append(value);
+            }
+            if (!more) {
+                break;
+            }
+            code = Integer.parseInt(matcher.group(1));
+            start = matcher.end();
+        }
+
+        String remittanceText = remittance.toString().strip();
+        String nameText = name.toString().strip();
+        return nameText.isEmpty() ? remittanceText : (nameText + " " + remittanceText).strip();
+    }
+
+    /*
+     * Lines of the message text, without the SWIFT blocks around it, with one line of look-ahead.
+     */
+    private static final class Lines {
+        private final BufferedReader reader;
+        private String next;
+        private boolean peeked;
+
+        private Lines(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        private String peek() {
+            if (!peeked) {
+                next = read();
+                peeked = true;
+            }
+            return next;
+        }
+
+        private String next() {
+            String line = peek();
+            peeked = false;
+            return line;
+        }
+
+        private String read() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                        line = line.substring(1);
+                    }
+                    int text = line.indexOf("{4:");
+                    if (text >= 0) {
+                        line = line.substring(text + 3);
+                    }
+                    if (!line.isBlank() && !line.startsWith("-}") && !line.startsWith("{") && !line.equals("-")) {
+                        return line;
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                log.error("I/O error while reading {} file stream", DISPLAY_NAME, e);
+                throw new FileProcessingException("Could not read the MT940 file due to a system error.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.rainy.homebudgettracker.handler.exception.FileProcessingException;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Rows of a bank statement mapped lazily from the records of a tokenizer, which is closed together with the stream.
+ * Records are mapped while the tokenizer is positioned on them, so the mapper can read the fields without copying.
+ */
+@Log4j2
+final class StatementRecords {
+    private StatementRecords() {}
+
+    static <T> Stream<T> of(
+            CsvTokenizer tokenizer,
+            String bankName,
+            Predicate<CsvTokenizer> isProperRecord,
+            Function<CsvTokenizer, T> toRow
+    ) {
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (nextRecord(tokenizer, bankName)) {
+                    if (isProperRecord.test(tokenizer)) {
+                        action.accept(toRow.apply(tokenizer));
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> close(tokenizer, bankName));
+    }
+
+    static void close(Closeable source, String bankName) {
+        try {
+            source.close();
+        } catch (IOException e) {
+            log.warn("Could not close {} file stream", bankName, e);
+        }
+    }
+
+    private static boolean nextRecord(CsvTokenizer tokenizer, String bankName) {
+        try {
+            return tokenizer.next();
+        } catch (IOException e) {
+            log.error("I/O error while reading {} file stream", bankName, e);
+            throw new FileProcessingException("Could not read the " + bankName + " file due to a system error.", e);
+        }
+    }
+}
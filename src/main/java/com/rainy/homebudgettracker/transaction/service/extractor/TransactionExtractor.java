@@ -5,8 +5,20 @@ import com.rainy.homebudgettracker.transaction.enums.BankName;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionExtractor {
     boolean supports(BankName bankName);
-    List<TransactionResponse> extract(InputStream inputStream);
+
+    /**
+     * Validates the header and returns the rows of the statement, parsed one at a time as the stream is consumed. The
+     * stream takes ownership of the input stream and has to be closed.
+     */
+    Stream<TransactionResponse> stream(InputStream inputStream);
+
+    default List<TransactionResponse> extract(InputStream inputStream) {
+        try (Stream<TransactionResponse> transactions = stream(inputStream)) {
+            return transactions.toList();
+        }
+    }
 }
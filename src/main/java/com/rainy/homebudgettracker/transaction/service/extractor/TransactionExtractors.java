@@ -0,0 +1,24 @@
+package com.rainy.homebudgettracker.transaction.service.extractor;
+
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+
+import java.util.List;
+
+/**
+ * Extractors of all the supported statement formats, both the ones compiled from bank format definitions and the ones
+ * implemented in code.
+ */
+public class TransactionExtractors {
+    private final List<TransactionExtractor> extractors;
+
+    public TransactionExtractors(List<TransactionExtractor> extractors) {
+        this.extractors = List.copyOf(extractors);
+    }
+
+    public TransactionExtractor find(BankName bankName) {
+        return extractors.stream()
+                .filter(e -> e.supports(bankName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported bank name: " + bankName));
+    }
+}
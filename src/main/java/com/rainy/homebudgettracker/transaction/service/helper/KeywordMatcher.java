@@ -0,0 +1,120 @@
+package com.rainy.homebudgettracker.transaction.service.helper;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Case-insensitive multi-keyword matcher (Aho-Corasick automaton). A text is matched in a single pass regardless of
+ * the number of keywords. When several keywords occur in the text, the value that comes first in the list the
+ * matcher was compiled from wins.
+ */
+public final class KeywordMatcher<T> {
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+    private static final int ROOT = 0;
+
+    private final List<T> values;
+    // Outgoing edges of every state, labels are sorted for binary search
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    // Index of the highest priority value whose keyword ends in the state or in one of its suffix states
+    private final int[] bestMatch;
+
+    private KeywordMatcher(List<T> values, char[][] labels, int[][] targets, int[] fail, int[] bestMatch) {
+        this.values = values;
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.bestMatch = bestMatch;
+    }
+
+    public static <T> KeywordMatcher<T> compile(List<T> values, Function<T, String> keywordOf) {
+        List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> ownMatch = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        ownMatch.add(NO_MATCH);
+
+        for (int priority = 0; priority < values.size(); priority++) {
+            String keyword = keywordOf.apply(values.get(priority));
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.get(state).put(c, next);
+                    edges.add(new TreeMap<>());
+                    ownMatch.add(NO_MATCH);
+                }
+                state = next;
+            }
+            ownMatch.set(state, Math.min(ownMatch.get(state), priority));
+        }
+
+        int stateCount = edges.size();
+        char[][] labels = new char[stateCount][];
+        int[][] targets = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> stateEdges = edges.get(state);
+            labels[state] = new char[stateEdges.size()];
+            targets[state] = new int[stateEdges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : stateEdges.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        int[] fail = new int[stateCount];
+        int[] bestMatch = new int[stateCount];
+        bestMatch[ROOT] = ownMatch.get(ROOT);
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                if (state != ROOT) {
+                    int suffix = fail[state];
+                    int next;
+                    while ((next = transition(labels, targets, suffix, labels[state][i])) < 0 && suffix != ROOT) {
+                        suffix = fail[suffix];
+                    }
+                    fail[child] = next < 0 ? ROOT : next;
+                }
+                bestMatch[child] = Math.min(ownMatch.get(child), bestMatch[fail[child]]);
+                queue.add(child);
+            }
+        }
+
+        return new KeywordMatcher<>(List.copyOf(values), labels, targets, fail, bestMatch);
+    }
+
+    public Optional<T> match(CharSequence text) {
+        int best = bestMatch[ROOT];
+        if (text != null) {
+            int state = ROOT;
+            for (int i = 0; i < text.length() && best > 0; i++) {
+                char c = fold(text.charAt(i));
+                int next;
+                while ((next = transition(labels, targets, state, c)) < 0 && state != ROOT) {
+                    state = fail[state];
+                }
+                state = next < 0 ? ROOT : next;
+                best = Math.min(best, bestMatch[state]);
+            }
+        }
+
+        return best == NO_MATCH ? Optional.empty() : Optional.of(values.get(best));
+    }
+
+    private static int transition(char[][] labels, int[][] targets, int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i < 0 ? -1 : targets[state][i];
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
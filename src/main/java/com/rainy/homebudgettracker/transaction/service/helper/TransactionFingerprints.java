@@ -0,0 +1,56 @@
+package com.rainy.homebudgettracker.transaction.service.helper;
+
+import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Content fingerprints of the rows of one import: SHA-256 of the account, the date, the amount with its currency and
+ * the details with case and whitespace normalized. Rows with the same content are told apart by their occurrence in
+ * the import, so a statement that overlaps an earlier one yields the same fingerprints for the rows both contain,
+ * while two identical payments on the same day are still two transactions. The same instance has to be used for all
+ * the chunks of an import.
+ */
+public final class TransactionFingerprints {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char SEPARATOR = '\u001f';
+
+    private final Map<String, Integer> occurrences = new HashMap<>();
+
+    /**
+     * Returns the fingerprint of the next row of the import, or {@code null} when the row has no amount or date.
+     */
+    public String next(UUID accountId, CurrencyCode accountCurrency, TransactionRequest request) {
+        if (request.getAmount() == null || request.getDate() == null) {
+            return null;
+        }
+
+        CurrencyCode currency = request.getCurrencyCode() == null ? accountCurrency : request.getCurrencyCode();
+        String details = request.getDetails() == null
+                ? ""
+                : WHITESPACE.matcher(request.getDetails().strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        String content = accountId.toString() + SEPARATOR + request.getDate() + SEPARATOR
+                + request.getAmount().stripTrailingZeros().toPlainString() + SEPARATOR + currency + SEPARATOR
+                + details;
+        int occurrence = occurrences.merge(content, 1, Integer::sum) - 1;
+        return sha256(occurrence + String.valueOf(SEPARATOR) + content);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
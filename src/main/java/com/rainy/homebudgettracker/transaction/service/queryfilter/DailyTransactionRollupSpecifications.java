@@ -0,0 +1,62 @@
+package com.rainy.homebudgettracker.transaction.service.queryfilter;
+
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollup;
+import com.rainy.homebudgettracker.transaction.enums.AmountType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public final class DailyTransactionRollupSpecifications {
+    private DailyTransactionRollupSpecifications() {}
+
+    public static Specification<DailyTransactionRollup> byAccountId(UUID accountId) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Account ID must not be null");
+        }
+        return (root, query, cb) -> cb.equal(root.get("id").get("accountId"), accountId);
+    }
+
+    public static Specification<DailyTransactionRollup> byCategoryId(UUID categoryId) {
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Category ID must not be null");
+        }
+        return (root, query, cb) -> cb.equal(root.get("id").get("categoryId"), categoryId);
+    }
+
+    public static Specification<DailyTransactionRollup> betweenDates(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date must not be null");
+        }
+        return (root, query, cb) -> cb.between(root.get("id").get("date"), startDate, endDate);
+    }
+
+    public static Specification<DailyTransactionRollup> dateBeforeOrEqual(LocalDate endDate) {
+        if (endDate == null) {
+            throw new IllegalArgumentException("End date must not be null");
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("id").get("date"), endDate);
+    }
+
+    public static Specification<DailyTransactionRollup> byUserSub(String userSub) {
+        if (userSub == null || userSub.isEmpty()) {
+            throw new IllegalArgumentException("User sub must not be null or empty");
+        }
+        return (root, query, cb) -> cb.equal(root.get("id").get("userSub"), userSub);
+    }
+
+    /*
+     * Keeps only days that had at least one transaction of the given type, so e.g. a category without any incomes
+     * does not show up in the income ranking with a zero sum.
+     */
+    public static Specification<DailyTransactionRollup> byAmountType(AmountType amountType) {
+        if (amountType == null) {
+            throw new IllegalArgumentException("Amount type must not be null");
+        }
+        return (root, query, cb) -> switch (amountType) {
+            case POSITIVE -> cb.greaterThan(root.get("incomeCount"), 0L);
+            case NEGATIVE -> cb.greaterThan(root.get("expenseCount"), 0L);
+            case ALL -> cb.conjunction();
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.rainy.homebudgettracker.transaction.service.queryfilter;
+
+import com.rainy.homebudgettracker.handler.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing ordered by date and id, both descending. The listing continues with the transactions that
+ * come after the one with this date and id. Clients get it as an opaque token and should not rely on its format.
+ */
+public record TransactionCursor(LocalDate date, UUID id) {
+
+    public String encode() {
+        String position = date + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf('_');
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid cursor: " + token);
+            }
+            return new TransactionCursor(
+                    LocalDate.parse(position.substring(0, separator)),
+                    UUID.fromString(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + token, ex);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.rainy.homebudgettracker.transaction.service.queryfilter;
 
+import com.rainy.homebudgettracker.transaction.DailyTransactionRollup;
 import com.rainy.homebudgettracker.transaction.Transaction;
 import com.rainy.homebudgettracker.transaction.enums.AmountType;
 import lombok.RequiredArgsConstructor;
@@ -37,6 +38,29 @@ public class TransactionSpecificationBuilder {
         );
     }
 
+    public Specification<DailyTransactionRollup> buildForRollups(AggregationFilter filter, String userSub) {
+        Specification<DailyTransactionRollup> spec =
+                Specification.where(DailyTransactionRollupSpecifications.byUserSub(userSub));
+
+        if (filter.accountId() != null) {
+            spec = spec.and(DailyTransactionRollupSpecifications.byAccountId(filter.accountId()));
+        }
+        if (filter.categoryId() != null) {
+            spec = spec.and(DailyTransactionRollupSpecifications.byCategoryId(filter.categoryId()));
+        }
+        if (filter.startDate() != null && filter.endDate() != null) {
+            spec = spec.and(DailyTransactionRollupSpecifications.betweenDates(filter.startDate(), filter.endDate()));
+        }
+        if (filter.startDate() == null && filter.endDate() != null) {
+            spec = spec.and(DailyTransactionRollupSpecifications.dateBeforeOrEqual(filter.endDate()));
+        }
+        if (filter.amountType() != null) {
+            spec = spec.and(DailyTransactionRollupSpecifications.byAmountType(filter.amountType()));
+        }
+
+        return spec;
+    }
+
     private Specification<Transaction> buildInternal(
             UUID accountId,
             UUID categoryId,
@@ -51,4 +51,25 @@ public final class TransactionSpecifications {
             case ALL -> cb.conjunction();
         };
     }
+
+    /*
+     * The date bound is implied by the disjunction, but Postgres cannot derive an index condition from an OR. Stated on
+     * its own it starts the (account_id, date, id) index scan at the cursor instead of at the newest row.
+     */
+    public static Specification<Transaction> after(TransactionCursor cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Cursor must not be null");
+        }
+
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("date"), cursor.date()),
+                cb.or(
+                        cb.lessThan(root.get("date"), cursor.date()),
+                        cb.and(
+                                cb.equal(root.get("date"), cursor.date()),
+                                cb.lessThan(root.get("id"), cursor.id())
+                        )
+                )
+        );
+    }
 }
@@ -3,6 +3,8 @@ package com.rainy.homebudgettracker.user;
 import com.rainy.homebudgettracker.account.AccountRepository;
 import com.rainy.homebudgettracker.category.CategoryRepository;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
 import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
 import jakarta.transaction.Transactional;
@@ -19,6 +21,8 @@ public class UserService {
     private final AccountRepository accountRepository;
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
+    private final DailyTransactionRollupRepository dailyTransactionRollupRepository;
+    private final AccountMonthlyBalanceRepository accountMonthlyBalanceRepository;
     private final CognitoIdentityProviderClient cognitoClient;
     private final UserDefaultCurrencyRepository userDefaultCurrencyRepository;
     private final ModelMapper modelMapper;
@@ -51,6 +55,8 @@ public class UserService {
     @Transactional
     public void deleteUserData() {
         String sub = getUserSub();
+        dailyTransactionRollupRepository.deleteAllByUserSub(sub);
+        accountMonthlyBalanceRepository.deleteAllByUserSub(sub);
         accountRepository.deleteAllByUserSub(sub);
         categoryRepository.deleteAllByUserSub(sub);
         transactionRepository.deleteAllByUserSub(sub);
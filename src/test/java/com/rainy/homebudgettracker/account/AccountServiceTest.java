@@ -4,6 +4,8 @@ import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException
 import com.rainy.homebudgettracker.handler.exception.UserIsNotOwnerException;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
 import com.rainy.homebudgettracker.transaction.AccountBalance;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
 import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
 import com.rainy.homebudgettracker.user.UserService;
 import org.junit.jupiter.api.DisplayName;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,6 +26,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +44,10 @@ class AccountServiceTest {
     private ModelMapper modelMapper;
     @Mock
     private TransactionRepository transactionRepository;
+    @Mock
+    private AccountMonthlyBalanceRepository accountMonthlyBalanceRepository;
+    @Mock
+    private DailyTransactionRollupRepository dailyTransactionRollupRepository;
 
 
     @Nested
@@ -118,4 +126,27 @@ class AccountServiceTest {
             assertThat(accountCaptor.getValue().getName()).isEqualTo("New Name");
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Tests for deleting an account")
+    class DeletingAccountTests {
+
+        @Test
+        @DisplayName("should delete the rollups and balances of the account with it")
+        void deleteCurrentUserAccount_shouldDeleteDerivedRows() {
+            Account account = TestData.ACCOUNT_1;
+
+            when(userService.getUserSub()).thenReturn(TestData.USER_SUB_1);
+            when(accountRepository.findById(account.getId())).thenReturn(Optional.of(account));
+
+            accountService.deleteCurrentUserAccount(account.getId());
+
+            InOrder inOrder = inOrder(accountRepository, dailyTransactionRollupRepository,
+                    accountMonthlyBalanceRepository);
+            inOrder.verify(accountRepository).lockById(account.getId());
+            inOrder.verify(dailyTransactionRollupRepository).deleteAllByAccountId(account.getId());
+            inOrder.verify(accountMonthlyBalanceRepository).deleteAllByAccountId(account.getId());
+            inOrder.verify(accountRepository).delete(account);
+        }
+    }
+}
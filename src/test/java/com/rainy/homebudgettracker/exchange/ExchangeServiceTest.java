@@ -17,6 +17,13 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +46,8 @@ class ExchangeServiceTest {
 
     @Mock
     private NbpExchangeService nbpExchangeService;
+    @Mock
+    private HistoricalExchangeRateService historicalExchangeRateService;
 
     private void mockRestClientChain() {
         when(exchangeRateApiRestClient.get()).thenReturn(requestHeadersUriSpec);
@@ -61,7 +70,7 @@ class ExchangeServiceTest {
                 () -> assertEquals("success", result.result()),
                 () -> assertEquals("0.8412", result.conversionRate())
         );
-        verify(nbpExchangeService, never()).getRate(any());
+        verify(nbpExchangeService, never()).getCrossRate(any(), any());
     }
 
     @Test
@@ -72,8 +81,7 @@ class ExchangeServiceTest {
         );
         when(responseSpec.toEntity(ExchangeResponse.class)).thenThrow(quotaException);
 
-        when(nbpExchangeService.getRate(CurrencyCode.EUR)).thenReturn(new BigDecimal("4.30"));
-        when(nbpExchangeService.getRate(CurrencyCode.USD)).thenReturn(new BigDecimal("4.00"));
+        when(nbpExchangeService.getCrossRate(CurrencyCode.EUR, CurrencyCode.USD)).thenReturn(new BigDecimal("1.075"));
 
         ExchangeResponse result = exchangeService.getExchangeRate(CurrencyCode.EUR, CurrencyCode.USD);
 
@@ -84,8 +92,7 @@ class ExchangeServiceTest {
                 () -> assertEquals("USD", result.targetCode()),
                 () -> assertEquals("1.0750", result.conversionRate())
         );
-        verify(nbpExchangeService, times(1)).getRate(CurrencyCode.EUR);
-        verify(nbpExchangeService, times(1)).getRate(CurrencyCode.USD);
+        verify(nbpExchangeService, times(1)).getCrossRate(CurrencyCode.EUR, CurrencyCode.USD);
     }
 
     @Test
@@ -100,7 +107,7 @@ class ExchangeServiceTest {
                 () -> assertEquals("1.0", result.conversionRate())
         );
         verify(exchangeRateApiRestClient, never()).get();
-        verify(nbpExchangeService, never()).getRate(any());
+        verify(nbpExchangeService, never()).getCrossRate(any(), any());
     }
 
     @Test
@@ -114,7 +121,133 @@ class ExchangeServiceTest {
         assertThrows(HttpClientErrorException.NotFound.class, () -> {
             exchangeService.getExchangeRate(CurrencyCode.EUR, CurrencyCode.USD);
         });
-        verify(nbpExchangeService, never()).getRate(any());
+        verify(nbpExchangeService, never()).getCrossRate(any(), any());
+    }
+
+    @Test
+    void shouldCallPrimaryApiOnceForConcurrentMissesOfSamePair() throws Exception {
+        mockRestClientChain();
+        CountDownLatch upstreamCalled = new CountDownLatch(1);
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        ExchangeResponse successResponse = ExchangeResponse.builder()
+                .result("success").baseCode("EUR").targetCode("PLN").conversionRate("4.2500").build();
+        when(responseSpec.toEntity(ExchangeResponse.class)).thenAnswer(inv -> {
+            upstreamCalled.countDown();
+            releaseUpstream.await(5, TimeUnit.SECONDS);
+            return ResponseEntity.ok(successResponse);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ExchangeResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> exchangeService.getExchangeRate(CurrencyCode.EUR, CurrencyCode.PLN)));
+            }
+            assertTrue(upstreamCalled.await(5, TimeUnit.SECONDS));
+            releaseUpstream.countDown();
+
+            for (Future<ExchangeResponse> result : results) {
+                assertEquals("4.2500", result.get(5, TimeUnit.SECONDS).conversionRate());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(exchangeRateApiRestClient, times(1)).get();
+    }
+
+    @Test
+    void shouldRefreshCachedPairsInBackground() {
+        mockRestClientChain();
+        ExchangeResponse oldResponse = ExchangeResponse.builder()
+                .result("success").baseCode("EUR").targetCode("PLN").conversionRate("4.2500").build();
+        ExchangeResponse newResponse = ExchangeResponse.builder()
+                .result("success").baseCode("EUR").targetCode("PLN").conversionRate("4.2600").build();
+        when(responseSpec.toEntity(ExchangeResponse.class))
+                .thenReturn(ResponseEntity.ok(oldResponse))
+                .thenReturn(ResponseEntity.ok(newResponse));
+
+        exchangeService.getExchangeRate(CurrencyCode.EUR, CurrencyCode.PLN);
+        exchangeService.refreshExchangeRates();
+
+        verify(exchangeRateApiRestClient, timeout(5000).times(2)).get();
+        assertEquals("4.2600", exchangeService.getExchangeRate(CurrencyCode.EUR, CurrencyCode.PLN).conversionRate());
+        verify(exchangeRateApiRestClient, times(2)).get();
+    }
+
+    @Test
+    void shouldReturnHistoricalRateFromRateStore() {
+        LocalDate date = LocalDate.of(2025, 3, 14);
+        when(historicalExchangeRateService.getRate(CurrencyCode.EUR, CurrencyCode.PLN, date))
+                .thenReturn(Optional.of(new BigDecimal("4.1820")));
+
+        ExchangeResponse result = exchangeService.getHistoricalExchangeRate(CurrencyCode.EUR, CurrencyCode.PLN, date);
+
+        assertAll(
+                () -> assertEquals("EUR", result.baseCode()),
+                () -> assertEquals("PLN", result.targetCode()),
+                () -> assertEquals("4.1820", result.conversionRate())
+        );
+        verify(exchangeRateApiRestClient, never()).get();
+    }
+
+    @Test
+    void shouldFallBackToCurrentRateWhenHistoricalRateIsMissing() {
+        mockRestClientChain();
+        LocalDate date = LocalDate.of(2025, 3, 14);
+        when(historicalExchangeRateService.getRate(CurrencyCode.AED, CurrencyCode.PLN, date))
+                .thenReturn(Optional.empty());
+        ExchangeResponse currentResponse = ExchangeResponse.builder()
+                .result("success").baseCode("AED").targetCode("PLN").conversionRate("1.0500").build();
+        when(responseSpec.toEntity(ExchangeResponse.class)).thenReturn(ResponseEntity.ok(currentResponse));
+
+        ExchangeResponse result = exchangeService.getHistoricalExchangeRate(CurrencyCode.AED, CurrencyCode.PLN, date);
+
+        assertEquals("1.0500", result.conversionRate());
+    }
+
+    @Test
+    void shouldResolveBatchFromRateStoreAndCurrentRates() {
+        mockRestClientChain();
+        LocalDate date = LocalDate.of(2025, 3, 14);
+        RateQuery stored = new RateQuery(date, CurrencyCode.EUR, CurrencyCode.PLN);
+        RateQuery missing = new RateQuery(date, CurrencyCode.AED, CurrencyCode.PLN);
+        RateQuery current = new RateQuery(LocalDate.now(), CurrencyCode.AED, CurrencyCode.PLN);
+        RateQuery same = new RateQuery(date, CurrencyCode.PLN, CurrencyCode.PLN);
+        when(historicalExchangeRateService.getRates(Set.of(stored, missing)))
+                .thenReturn(Map.of(stored, new BigDecimal("4.182000")));
+        ExchangeResponse currentResponse = ExchangeResponse.builder()
+                .result("success").baseCode("AED").targetCode("PLN").conversionRate("1.0500").build();
+        when(responseSpec.toEntity(ExchangeResponse.class)).thenReturn(ResponseEntity.ok(currentResponse));
+
+        Map<RateQuery, BigDecimal> result = exchangeService.getExchangeRates(List.of(stored, missing, current, same));
+
+        assertAll(
+                () -> assertEquals(new BigDecimal("4.182000"), result.get(stored)),
+                () -> assertEquals(new BigDecimal("1.0500"), result.get(missing)),
+                () -> assertEquals(new BigDecimal("1.0500"), result.get(current)),
+                () -> assertEquals(BigDecimal.ONE, result.get(same))
+        );
+        verify(historicalExchangeRateService, times(1)).getRates(any());
+        verify(exchangeRateApiRestClient, times(1)).get();
+    }
+
+    @Test
+    void shouldFetchCurrentRatesOfBatchConcurrently() throws Exception {
+        mockRestClientChain();
+        CountDownLatch bothFetching = new CountDownLatch(2);
+        when(historicalExchangeRateService.getRates(Set.of())).thenReturn(Map.of());
+        when(responseSpec.toEntity(ExchangeResponse.class)).thenAnswer(inv -> {
+            bothFetching.countDown();
+            assertTrue(bothFetching.await(5, TimeUnit.SECONDS));
+            return ResponseEntity.ok(ExchangeResponse.builder().result("success").conversionRate("2.0000").build());
+        });
+
+        Map<RateQuery, BigDecimal> result = exchangeService.getExchangeRates(List.of(
+                new RateQuery(LocalDate.now(), CurrencyCode.EUR, CurrencyCode.PLN),
+                new RateQuery(LocalDate.now(), CurrencyCode.USD, CurrencyCode.PLN)));
+
+        assertEquals(2, result.size());
+        verify(exchangeRateApiRestClient, times(2)).get();
     }
 
     @ParameterizedTest
@@ -0,0 +1,142 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoricalExchangeRateServiceTest {
+
+    @InjectMocks
+    private HistoricalExchangeRateServiceImpl historicalExchangeRateService;
+
+    @Mock
+    private ExchangeRateRepository exchangeRateRepository;
+    @Spy
+    private OfflineHistoricalRateProvider historicalRateProvider = new OfflineHistoricalRateProvider();
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Warsaw"));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(historicalExchangeRateService, "backfillFrom", today.minusDays(199));
+    }
+
+    @Test
+    @DisplayName("should backfill from the configured start in ranges the provider accepts")
+    void backfill_shouldFetchInBoundedRanges() {
+        when(exchangeRateRepository.findLatestDate(CurrencyCode.PLN)).thenReturn(Optional.empty());
+
+        historicalExchangeRateService.backfill();
+
+        verify(historicalRateProvider).fetchRates(today.minusDays(199), today.minusDays(107));
+        verify(historicalRateProvider).fetchRates(today.minusDays(106), today.minusDays(14));
+        verify(historicalRateProvider).fetchRates(today.minusDays(13), today);
+        verify(exchangeRateRepository, times(3)).insertAllIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("should only fetch the days after the latest stored rate")
+    void backfill_shouldContinueAfterLatestStoredDate() {
+        when(exchangeRateRepository.findLatestDate(CurrencyCode.PLN)).thenReturn(Optional.of(today.minusDays(3)));
+        ArgumentCaptor<List<ExchangeRate>> ratesCaptor = ArgumentCaptor.forClass(List.class);
+
+        historicalExchangeRateService.backfill();
+
+        verify(historicalRateProvider).fetchRates(today.minusDays(2), today);
+        verify(exchangeRateRepository).insertAllIfAbsent(ratesCaptor.capture());
+        assertThat(ratesCaptor.getValue())
+                .allSatisfy(rate -> assertThat(rate.getId().getDate()).isAfter(today.minusDays(3)));
+    }
+
+    @Test
+    @DisplayName("should derive a cross rate from the stored rates of both currencies")
+    void getRate_shouldDeriveCrossRate() {
+        LocalDate date = today.minusDays(30);
+        when(exchangeRateRepository.findLatestOnOrBefore(CurrencyCode.EUR, CurrencyCode.PLN, date))
+                .thenReturn(Optional.of(rate(date, CurrencyCode.EUR, "4.3000")));
+        when(exchangeRateRepository.findLatestOnOrBefore(CurrencyCode.USD, CurrencyCode.PLN, date))
+                .thenReturn(Optional.of(rate(date, CurrencyCode.USD, "4.0000")));
+
+        Optional<BigDecimal> result = historicalExchangeRateService.getRate(CurrencyCode.EUR, CurrencyCode.USD, date);
+
+        assertThat(result).contains(new BigDecimal("1.075000"));
+    }
+
+    @Test
+    @DisplayName("should answer from the stored rates without asking the provider")
+    void getRate_shouldNotFetchRates() {
+        LocalDate date = today;
+        when(exchangeRateRepository.findLatestOnOrBefore(CurrencyCode.EUR, CurrencyCode.PLN, date))
+                .thenReturn(Optional.of(rate(date.minusDays(1), CurrencyCode.EUR, "4.3000")));
+
+        Optional<BigDecimal> result = historicalExchangeRateService.getRate(CurrencyCode.EUR, CurrencyCode.PLN, date);
+
+        assertThat(result).contains(new BigDecimal("4.300000"));
+        verify(historicalRateProvider, never()).fetchRates(any(), any());
+        verify(exchangeRateRepository, never()).findLatestDate(any());
+    }
+
+    @Test
+    @DisplayName("should return empty when a currency has no published rate")
+    void getRate_shouldReturnEmpty_whenRateIsMissing() {
+        LocalDate date = today.minusDays(1);
+        when(exchangeRateRepository.findLatestOnOrBefore(CurrencyCode.AED, CurrencyCode.PLN, date))
+                .thenReturn(Optional.empty());
+
+        assertThat(historicalExchangeRateService.getRate(CurrencyCode.AED, CurrencyCode.PLN, date)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should resolve a batch of dates with one range query, using the last published rate on days off")
+    void getRates_shouldLoadRangeOnce() {
+        LocalDate friday = LocalDate.of(2025, 3, 14);
+        LocalDate sunday = friday.plusDays(2);
+        LocalDate monday = friday.plusDays(3);
+        when(exchangeRateRepository.findAllInRange(Set.of(CurrencyCode.EUR, CurrencyCode.USD), CurrencyCode.PLN,
+                friday.minusDays(10), monday))
+                .thenReturn(List.of(
+                        rate(friday, CurrencyCode.EUR, "4.3000"),
+                        rate(friday, CurrencyCode.USD, "4.0000"),
+                        rate(monday, CurrencyCode.EUR, "4.4000"),
+                        rate(monday, CurrencyCode.USD, "4.0000")));
+        RateQuery onFriday = new RateQuery(friday, CurrencyCode.EUR, CurrencyCode.USD);
+        RateQuery onSunday = new RateQuery(sunday, CurrencyCode.EUR, CurrencyCode.PLN);
+        RateQuery onMonday = new RateQuery(monday, CurrencyCode.EUR, CurrencyCode.PLN);
+
+        Map<RateQuery, BigDecimal> result = historicalExchangeRateService.getRates(List.of(onFriday, onSunday, onMonday));
+
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(
+                onFriday, new BigDecimal("1.075000"),
+                onSunday, new BigDecimal("4.300000"),
+                onMonday, new BigDecimal("4.400000")));
+        verify(exchangeRateRepository, never()).findLatestOnOrBefore(any(), any(), any());
+    }
+
+    private static ExchangeRate rate(LocalDate date, CurrencyCode currency, String rate) {
+        return ExchangeRate.builder()
+                .id(new ExchangeRateId(date, currency, CurrencyCode.PLN))
+                .rate(new BigDecimal(rate))
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.rainy.homebudgettracker.exchange;
+
+import com.rainy.homebudgettracker.exchange.nbp.NbpExchangeRateResponse;
+import com.rainy.homebudgettracker.exchange.nbp.NbpExchangeServiceImpl;
+import com.rainy.homebudgettracker.exchange.nbp.NbpRate;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NbpExchangeServiceTest {
+
+    @InjectMocks
+    private NbpExchangeServiceImpl nbpExchangeService;
+
+    @Mock
+    private RestClient.RequestHeadersUriSpec requestHeadersUriSpec;
+    @Mock
+    private RestClient.ResponseSpec responseSpec;
+    @Mock
+    @Qualifier("nbpApi")
+    private RestClient nbpRestClient;
+
+    private void mockTable(NbpRate... rates) {
+        when(nbpRestClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.body(any(ParameterizedTypeReference.class))).thenReturn(List.of(
+                NbpExchangeRateResponse.builder()
+                        .table("A")
+                        .effectiveDate("2025-07-15")
+                        .rates(List.of(rates))
+                        .build()
+        ));
+    }
+
+    @Test
+    void shouldAnswerEveryPairFromOneTableFetch() {
+        mockTable(
+                NbpRate.builder().code("EUR").mid(new BigDecimal("4.30")).build(),
+                NbpRate.builder().code("USD").mid(new BigDecimal("4.00")).build(),
+                NbpRate.builder().code("XDR").mid(new BigDecimal("5.50")).build()
+        );
+
+        BigDecimal eurUsd = nbpExchangeService.getCrossRate(CurrencyCode.EUR, CurrencyCode.USD);
+        BigDecimal usdPln = nbpExchangeService.getCrossRate(CurrencyCode.USD, CurrencyCode.PLN);
+        BigDecimal plnEur = nbpExchangeService.getCrossRate(CurrencyCode.PLN, CurrencyCode.EUR);
+
+        assertAll(
+                () -> assertEquals(new BigDecimal("1.0750"), eurUsd.setScale(4, RoundingMode.HALF_UP)),
+                () -> assertEquals(new BigDecimal("4.0000"), usdPln.setScale(4, RoundingMode.HALF_UP)),
+                () -> assertEquals(new BigDecimal("0.2326"), plnEur.setScale(4, RoundingMode.HALF_UP)),
+                () -> assertEquals(new BigDecimal("4.3"), nbpExchangeService.getRate(CurrencyCode.EUR))
+        );
+        verify(nbpRestClient, times(1)).get();
+    }
+
+    @Test
+    void shouldThrowWhenCurrencyIsNotInTable() {
+        mockTable(NbpRate.builder().code("EUR").mid(new BigDecimal("4.30")).build());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> nbpExchangeService.getCrossRate(CurrencyCode.AED, CurrencyCode.EUR));
+        assertEquals("Could not retrieve rate from NBP for currency: AED", exception.getMessage());
+    }
+
+    @Test
+    void shouldNotCallNbpForPln() {
+        assertEquals(BigDecimal.ONE, nbpExchangeService.getRate(CurrencyCode.PLN));
+        verifyNoInteractions(nbpRestClient);
+    }
+}
@@ -0,0 +1,84 @@
+package com.rainy.homebudgettracker.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+    private static final ConcurrencyLimitProperties PROPERTIES = new ConcurrencyLimitProperties(
+            20, 4, 200, Duration.ofMillis(250), 10, 1.5, 0.5, List.of(), Duration.ofSeconds(1));
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimit concurrencyLimit = new AdaptiveConcurrencyLimit(PROPERTIES, clock::get);
+
+    @Test
+    @DisplayName("Should reject requests over the limit and low priority ones over their share")
+    void shouldRejectOverLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(concurrencyLimit.tryAcquire(0.5)).isTrue();
+        }
+
+        assertThat(concurrencyLimit.tryAcquire(0.5)).isFalse();
+        for (int i = 0; i < 10; i++) {
+            assertThat(concurrencyLimit.tryAcquire(1.0)).isTrue();
+        }
+        assertThat(concurrencyLimit.tryAcquire(1.0)).isFalse();
+        assertThat(concurrencyLimit.inFlight()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should grow the limit while it is used and latency is steady")
+    void shouldGrowLimitWhenLatencyIsSteady() {
+        for (int window = 0; window < 5; window++) {
+            serveWindow(20, Duration.ofMillis(10));
+        }
+
+        assertThat(concurrencyLimit.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    @DisplayName("Should not grow the limit when it is not used")
+    void shouldNotGrowUnusedLimit() {
+        for (int window = 0; window < 5; window++) {
+            serveWindow(2, Duration.ofMillis(10));
+        }
+
+        assertThat(concurrencyLimit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Should shrink the limit when latency grows")
+    void shouldShrinkLimitWhenLatencyGrows() {
+        serveWindow(20, Duration.ofMillis(10));
+        int before = concurrencyLimit.limit();
+
+        for (int window = 0; window < 10; window++) {
+            serveWindow(before, Duration.ofMillis(100));
+        }
+
+        assertThat(concurrencyLimit.limit()).isLessThan(before);
+        assertThat(concurrencyLimit.limit()).isGreaterThanOrEqualTo(4);
+    }
+
+    /*
+     * Serves requests in rounds of the given concurrency until the sample window closes.
+     */
+    private void serveWindow(int concurrency, Duration latency) {
+        long windowEnd = clock.get() + Duration.ofMillis(250).toNanos();
+        while (clock.get() < windowEnd) {
+            int admitted = 0;
+            for (int i = 0; i < concurrency; i++) {
+                admitted += concurrencyLimit.tryAcquire(1.0) ? 1 : 0;
+            }
+            clock.addAndGet(latency.toNanos());
+            for (int i = 0; i < admitted; i++) {
+                concurrencyLimit.release(latency.toNanos(), true);
+            }
+        }
+    }
+}
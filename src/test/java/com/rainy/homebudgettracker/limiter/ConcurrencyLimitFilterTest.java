@@ -0,0 +1,93 @@
+package com.rainy.homebudgettracker.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+    private static final ConcurrencyLimitProperties PROPERTIES = new ConcurrencyLimitProperties(
+            4, 1, 10, Duration.ofMillis(250), 10, 1.5, 0.5,
+            List.of("/api/v1/reports/**"), Duration.ofSeconds(2));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(PROPERTIES, meterRegistry);
+
+    @Test
+    @DisplayName("Should shed report requests first and answer 503 with Retry-After")
+    void shouldShedLowPriorityRequestsFirst() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<CountDownLatch> started = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                CountDownLatch entered = new CountDownLatch(1);
+                started.add(entered);
+                executor.submit(() -> {
+                    filter.doFilter(request("/api/v1/reports/transactions/summary"),
+                            new MockHttpServletResponse(), blockingChain(entered, release));
+                    return null;
+                });
+            }
+            for (CountDownLatch entered : started) {
+                assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+
+            MockHttpServletResponse report = new MockHttpServletResponse();
+            filter.doFilter(request("/api/v1/reports/transactions/top-categories"), report, (req, res) -> {});
+            MockHttpServletResponse categories = new MockHttpServletResponse();
+            filter.doFilter(request("/api/v1/category"), categories, (req, res) -> {});
+
+            assertThat(report.getStatus()).isEqualTo(503);
+            assertThat(report.getHeader("Retry-After")).isEqualTo("2");
+            assertThat(categories.getStatus()).isEqualTo(200);
+            assertThat(meterRegistry.get("concurrency.limiter.rejections").tag("priority", "low").counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("concurrency.limiter.in.flight").gauge().value()).isEqualTo(2);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the place of a streamed response until it completes")
+    void shouldReleaseAsyncRequestOnCompletion() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/transactions/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertThat(meterRegistry.get("concurrency.limiter.in.flight").gauge().value()).isEqualTo(1);
+        request.getAsyncContext().complete();
+        assertThat(meterRegistry.get("concurrency.limiter.in.flight").gauge().value()).isEqualTo(0);
+    }
+
+    private static FilterChain blockingChain(CountDownLatch entered, CountDownLatch release) {
+        return (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
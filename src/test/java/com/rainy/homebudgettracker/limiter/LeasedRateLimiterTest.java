@@ -0,0 +1,103 @@
+package com.rainy.homebudgettracker.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeasedRateLimiterTest {
+    private static final RateLimitProperties.Budget BUDGET =
+            new RateLimitProperties.Budget(100, Duration.ofSeconds(10), Duration.ofMinutes(5), 1 << 20, 10);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final AtomicInteger storeRequests = new AtomicInteger();
+    private final InMemoryRateLimitStore sharedStore = new InMemoryRateLimitStore(() -> clock.get() / 1000);
+    private final RateLimitStore countingStore = (bucketKey, tokens, tokenMicros, capacityMicros) -> {
+        storeRequests.incrementAndGet();
+        return sharedStore.take(bucketKey, tokens, tokenMicros, capacityMicros);
+    };
+
+    @Test
+    @DisplayName("Should share one limit between instances")
+    void shouldShareLimitBetweenInstances() {
+        LeasedRateLimiter first = new LeasedRateLimiter("default", BUDGET, countingStore, clock::get);
+        LeasedRateLimiter second = new LeasedRateLimiter("default", BUDGET, countingStore, clock::get);
+
+        int allowed = 0;
+        for (int i = 0; i < 60; i++) {
+            allowed += first.tryAcquire("user:1", 1) ? 1 : 0;
+            allowed += second.tryAcquire("user:1", 1) ? 1 : 0;
+        }
+
+        assertThat(allowed).isEqualTo(100);
+        assertThat(second.tryAcquire("user:2", 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should use the store once per lease")
+    void shouldTakeTokensInLeases() {
+        LeasedRateLimiter limiter = new LeasedRateLimiter("default", BUDGET, countingStore, clock::get);
+
+        for (int i = 0; i < 25; i++) {
+            assertThat(limiter.tryAcquire("user:1", 1)).isTrue();
+        }
+
+        assertThat(storeRequests.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should block a key whose shared bucket is empty")
+    void shouldBlockWhenSharedBucketIsEmpty() {
+        LeasedRateLimiter first = new LeasedRateLimiter("default", BUDGET, countingStore, clock::get);
+        LeasedRateLimiter second = new LeasedRateLimiter("default", BUDGET, countingStore, clock::get);
+        for (int i = 0; i < 100; i++) {
+            first.tryAcquire("user:1", 1);
+        }
+
+        assertThat(second.tryAcquire("user:1", 1)).isFalse();
+        int requests = storeRequests.get();
+
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+        assertThat(second.tryAcquire("user:1", 1)).isFalse();
+        assertThat(storeRequests.get()).isEqualTo(requests);
+    }
+
+    @Test
+    @DisplayName("Should limit on its own when the store is unavailable")
+    void shouldFallBackWhenStoreFails() {
+        RateLimitStore failingStore = (bucketKey, tokens, tokenMicros, capacityMicros) -> {
+            throw new IllegalStateException("Connection refused");
+        };
+        LeasedRateLimiter limiter = new LeasedRateLimiter("default", BUDGET, failingStore, clock::get);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire("user:1", 1)).isTrue();
+        }
+        assertThat(limiter.tryAcquire("user:1", 1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should try a failed store again only after one window")
+    void shouldBackOffFromFailedStore() {
+        RateLimitStore failingStore = (bucketKey, tokens, tokenMicros, capacityMicros) -> {
+            storeRequests.incrementAndGet();
+            throw new IllegalStateException("Connection is not available, request timed out");
+        };
+        LeasedRateLimiter limiter = new LeasedRateLimiter("default", BUDGET, failingStore, clock::get);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("user:" + i, 1);
+        }
+        assertThat(storeRequests.get()).isEqualTo(1);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("user:" + i, 1);
+        }
+        assertThat(storeRequests.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,121 @@
+package com.rainy.homebudgettracker.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimitFilterTest {
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yaml"))
+                .forEach(environment.getPropertySources()::addLast);
+        properties = new Binder(ConfigurationPropertySources.get(environment))
+                .bindOrCreate("application.rate-limit", RateLimitProperties.class);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(
+                properties, new DefaultListableBeanFactory().getBeanProvider(RateLimitStore.class), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should charge routes to the budgets configured in application.yaml")
+    void shouldMatchConfiguredRoutes() {
+        RateLimitRoutes routes = new RateLimitRoutes(properties);
+
+        RateLimitRoutes.Route export = routes.match(request("GET", "/api/v1/transactions/export"));
+        RateLimitRoutes.Route upload = routes.match(request("POST", "/api/v1/transaction/import/csv/upload"));
+        RateLimitRoutes.Route jobStatus = routes.match(request("GET", "/api/v1/transaction/import/jobs"));
+        RateLimitRoutes.Route categories = routes.match(request("GET", "/api/v1/category"));
+
+        assertThat(export.budget()).isEqualTo("heavy");
+        assertThat(export.cost()).isEqualTo(20);
+        assertThat(upload.budget()).isEqualTo("heavy");
+        assertThat(jobStatus.budget()).isEqualTo(RateLimitRoutes.DEFAULT_BUDGET);
+        assertThat(categories.budget()).isEqualTo(RateLimitRoutes.DEFAULT_BUDGET);
+        assertThat(categories.cost()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should limit expensive routes without throttling cheap ones")
+    void shouldLimitExpensiveRoutesSeparately() throws Exception {
+        authenticate("user-1");
+        for (int i = 0; i < 5; i++) {
+            assertThat(doFilter(request("GET", "/api/v1/transactions/export")).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(doFilter(request("GET", "/api/v1/transactions/export")).getStatus()).isEqualTo(429);
+        assertThat(doFilter(request("GET", "/api/v1/category")).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("rate.limiter.rejections").tag("budget", "heavy").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should limit authenticated users separately even behind one address")
+    void shouldLimitPerUser() throws Exception {
+        authenticate("user-1");
+        for (int i = 0; i < 6; i++) {
+            doFilter(request("GET", "/api/v1/transactions/export"));
+        }
+
+        authenticate("user-2");
+
+        assertThat(doFilter(request("GET", "/api/v1/transactions/export")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should reject a route that is defined with an unknown budget")
+    void shouldRejectUnknownBudget() {
+        RateLimitProperties invalid = new RateLimitProperties(properties.budgets(),
+                List.of(new RateLimitProperties.Route("/api/**", Set.of(), "missing", 1)));
+
+        assertThatThrownBy(() -> new RateLimitRoutes(invalid))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("missing");
+    }
+
+    private MockHttpServletResponse doFilter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    private static void authenticate(String userSub) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userSub, "token", List.of()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.rainy.homebudgettracker.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final TokenBucketRateLimiter limiter =
+            new TokenBucketRateLimiter(10, Duration.ofSeconds(2), Duration.ofMinutes(5), 1 << 20, clock::get);
+
+    @Test
+    @DisplayName("Should allow a burst of the limit and reject the next request")
+    void shouldAllowBurstUpToLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("1.1.1.1")).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire("1.1.1.1")).isFalse();
+        assertThat(limiter.tryAcquire("2.2.2.2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should refill tokens evenly over the window")
+    void shouldRefillTokens() {
+        TokenBucketRateLimiter unblocked =
+                new TokenBucketRateLimiter(10, Duration.ofSeconds(2), Duration.ZERO, 1 << 20, clock::get);
+        for (int i = 0; i < 10; i++) {
+            unblocked.tryAcquire("1.1.1.1");
+        }
+        assertThat(unblocked.tryAcquire("1.1.1.1")).isFalse();
+
+        clock.addAndGet(Duration.ofMillis(400).toNanos());
+
+        assertThat(unblocked.tryAcquire("1.1.1.1")).isTrue();
+        assertThat(unblocked.tryAcquire("1.1.1.1")).isTrue();
+        assertThat(unblocked.tryAcquire("1.1.1.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should block a key for the block duration and give it a full bucket afterwards")
+    void shouldBlockKeyThatRunsOutOfTokens() {
+        for (int i = 0; i < 11; i++) {
+            limiter.tryAcquire("1.1.1.1");
+        }
+
+        clock.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertThat(limiter.tryAcquire("1.1.1.1")).isFalse();
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("1.1.1.1")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("1.1.1.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject a request it cannot afford without blocking the key")
+    void shouldRejectUnaffordableCostWithoutBlocking() {
+        assertThat(limiter.tryAcquire("1.1.1.1", 8)).isTrue();
+
+        assertThat(limiter.tryAcquire("1.1.1.1", 3)).isFalse();
+        assertThat(limiter.tryAcquire("1.1.1.1", 2)).isTrue();
+        assertThat(limiter.tryAcquire("1.1.1.1")).isFalse();
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(limiter.tryAcquire("1.1.1.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should forget keys whose buckets are full again but remember blocked ones")
+    void shouldExpireIdleKeys() {
+        limiter.tryAcquire("1.1.1.1");
+        for (int i = 0; i < 11; i++) {
+            limiter.tryAcquire("2.2.2.2");
+        }
+
+        clock.addAndGet(Duration.ofSeconds(3).toNanos());
+        limiter.cleanUp();
+
+        assertThat(limiter.trackedKeys()).isEqualTo(1);
+        assertThat(limiter.expirations()).isEqualTo(1);
+        assertThat(limiter.tryAcquire("2.2.2.2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should evict keys to stay within the memory limit")
+    void shouldEvictKeysOverMemoryLimit() {
+        TokenBucketRateLimiter bounded = new TokenBucketRateLimiter(10, Duration.ofSeconds(2), Duration.ofMinutes(5),
+                100L * TokenBucketRateLimiter.weigh("10.0.0.0"), clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            bounded.tryAcquire("10.0." + i / 256 + "." + i % 256);
+        }
+        bounded.cleanUp();
+
+        assertThat(bounded.trackedKeys()).isLessThanOrEqualTo(100);
+        assertThat(bounded.trackedWeightBytes()).isLessThanOrEqualTo(100L * TokenBucketRateLimiter.weigh("10.0.0.0"));
+        assertThat(bounded.sizeEvictions()).isEqualTo(1000 - bounded.trackedKeys());
+    }
+}
@@ -6,6 +6,7 @@ import com.rainy.homebudgettracker.category.Category;
 import com.rainy.homebudgettracker.category.CategoryRequest;
 import com.rainy.homebudgettracker.category.CategoryResponse;
 import com.rainy.homebudgettracker.transaction.Transaction;
+import com.rainy.homebudgettracker.transaction.TransactionView;
 import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
 import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
@@ -15,7 +16,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -176,4 +179,71 @@ class ModelMapperTest {
 
         assertEquals(transactionResponse, returnedTransactionResponse);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldMapTransactionViewToTransactionResponse() {
+        var transactionView = TransactionView.builder()
+                .id(TestData.ACCOUNT_ID)
+                .amount(TestData.AMOUNT)
+                .date(TestData.TRANSACTION_DATE)
+                .transactionMethod(TransactionMethod.CASH)
+                .details(TestData.DETAILS)
+                .imageFilePath(TestData.IMAGE_URL)
+                .accountId(TestData.ACCOUNT_ID)
+                .accountName(TestData.ACCOUNT_NAME)
+                .accountCurrencyCode(TestData.ACCOUNT_CURRENCY)
+                .categoryId(TestData.CATEGORY_ID)
+                .categoryName(TestData.CATEGORY_NAME)
+                .build();
+
+        var returnedTransactionResponse = modelMapper.map(transactionView, TransactionResponse.class);
+
+        var transactionResponse = TransactionResponse.builder()
+                .id(transactionView.id())
+                .amount("100.00")
+                .category(CategoryResponse.builder()
+                        .id(TestData.CATEGORY_ID)
+                        .name(TestData.CATEGORY_NAME)
+                        .build())
+                .date(String.valueOf(transactionView.date()))
+                .account(AccountResponse.builder()
+                        .id(TestData.ACCOUNT_ID)
+                        .name(TestData.ACCOUNT_NAME)
+                        .currencyCode(TestData.ACCOUNT_CURRENCY.name())
+                        .build())
+                .transactionMethod(TransactionMethod.CASH.name())
+                .details(TestData.DETAILS)
+                .hasImage(true)
+                .build();
+
+        assertEquals(transactionResponse, returnedTransactionResponse);
+    }
+
+    @Test
+    public void shouldMapExtractedTransactionToTransactionRequest() {
+        var extractedTransaction = TransactionResponse.builder()
+                .amount("-150.55")
+                .category(CategoryResponse.builder()
+                        .id(TestData.CATEGORY_ID)
+                        .name(TestData.CATEGORY_NAME)
+                        .build())
+                .date("2025-07-10")
+                .transactionMethod(TransactionMethod.DEBIT_CARD.name())
+                .details(TestData.DETAILS)
+                .build();
+
+        var returnedTransactionRequest = modelMapper.map(extractedTransaction, TransactionRequest.class);
+
+        var transactionRequest = TransactionRequest.builder()
+                .amount(new BigDecimal("-150.55"))
+                .categoryName(CategoryRequest.builder()
+                        .name(TestData.CATEGORY_NAME)
+                        .build())
+                .date(LocalDate.of(2025, 7, 10))
+                .transactionMethod(TransactionMethod.DEBIT_CARD)
+                .details(TestData.DETAILS)
+                .build();
+
+        assertEquals(transactionRequest, returnedTransactionRequest);
+    }
+}
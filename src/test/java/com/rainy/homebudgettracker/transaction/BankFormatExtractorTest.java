@@ -0,0 +1,106 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormat;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormatExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormats;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BankFormatExtractorTest {
+
+    private static final String FORMAT = """
+            bank-name: test-bank
+            display-name: Test Bank
+            charset: UTF-8
+            separator: "|"
+            header:
+              row: 2
+              accepted:
+                - Booked|Method|Amount|Payee|Memo
+            required-columns: [0, 2]
+            date:
+              column: 0
+              format: dd.MM.yyyy
+            amount:
+              column: 2
+              decimal-separator: ","
+              grouping-separator: "."
+            details:
+              columns: [3, 4]
+            transaction-method:
+              column: 1
+              mapping:
+                CARD: DEBIT_CARD
+                WIRE: BANK_TRANSFER
+            """;
+
+    @Test
+    @DisplayName("should extract rows according to a format definition")
+    void stream_shouldApplyDefinition() {
+        BankFormatExtractor extractor = BankFormatExtractor.compile(read(FORMAT));
+        String statement = "Account statement\n"
+                + "\uFEFFBooked|Method|Amount|Payee|Memo\n"
+                + "10.07.2025| CARD |-1.234,50| Shop |  Groceries\n"
+                + "09.07.2025|WIRE|2.000,00||Salary\n"
+                + "08.07.2025|CASH|-20,00|ATM|\n"
+                + "|CARD|-1,00|Shop|Missing date\n"
+                + "07.07.2025|CARD\n";
+
+        List<TransactionResponse> transactions = extractor.extract(
+                new ByteArrayInputStream(statement.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(transactions).extracting(TransactionResponse::date)
+                .containsExactly("2025-07-10", "2025-07-09", "2025-07-08");
+        assertThat(transactions).extracting(TransactionResponse::amount)
+                .containsExactly("-1234.50", "2000.00", "-20.00");
+        assertThat(transactions).extracting(TransactionResponse::details)
+                .containsExactly("Shop Groceries", "Salary", "ATM");
+        assertThat(transactions).extracting(TransactionResponse::transactionMethod)
+                .containsExactly("DEBIT_CARD", "BANK_TRANSFER", "OTHER");
+    }
+
+    @Test
+    @DisplayName("should find a compiled format by its name regardless of case")
+    void find_shouldMatchBankNameIgnoringCase() {
+        BankFormatExtractor extractor = BankFormatExtractor.compile(read(FORMAT));
+        TransactionExtractors extractors = new TransactionExtractors(List.of(extractor));
+
+        assertThat(extractors.find(BankName.valueOf("Test-Bank"))).isSameAs(extractor);
+        assertThatThrownBy(() -> extractors.find(BankName.ING)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should refuse a definition that maps to an unknown transaction method")
+    void compile_shouldThrowException_forUnknownTransactionMethod() {
+        BankFormat format = read(FORMAT.replace("BANK_TRANSFER", "WIRE_TRANSFER"));
+
+        assertThatThrownBy(() -> BankFormatExtractor.compile(format))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("test-bank");
+    }
+
+    @Test
+    @DisplayName("should load every definition shipped with the application")
+    void readAll_shouldCompileBundledFormats() {
+        List<BankName> bankNames = BankFormats.readAll("classpath*:bank-formats/*.yaml").stream()
+                .map(BankFormatExtractor::compile)
+                .map(BankFormatExtractor::getBankName)
+                .toList();
+
+        assertThat(bankNames).contains(BankName.ING, BankName.REVOLUT);
+    }
+
+    private static BankFormat read(String definition) {
+        return BankFormats.read(new ByteArrayInputStream(definition.getBytes(StandardCharsets.UTF_8)));
+    }
+}
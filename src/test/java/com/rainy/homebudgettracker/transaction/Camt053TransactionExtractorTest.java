@@ -0,0 +1,136 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.service.extractor.Camt053TransactionExtractor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Camt053TransactionExtractorTest {
+
+    private static final String STATEMENT = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02">
+              <BkToCstmrStmt>
+                <Stmt>
+                  <Bal><Amt Ccy="PLN">1000.00</Amt><CdtDbtInd>CRDT</CdtDbtInd></Bal>
+                  <Ntry>
+                    <Amt Ccy="PLN">25.50</Amt>
+                    <CdtDbtInd>DBIT</CdtDbtInd>
+                    <Sts>BOOK</Sts>
+                    <BookgDt><Dt>2024-05-02</Dt></BookgDt>
+                    <ValDt><Dt>2024-05-03</Dt></ValDt>
+                    <BkTxCd><Domn><Cd>PMNT</Cd><Fmly><Cd>CCRD</Cd><SubFmlyCd>POSD</SubFmlyCd></Fmly></Domn></BkTxCd>
+                    <NtryDtls><TxDtls>
+                      <RltdPties>
+                        <Dbtr><Nm>Jan Kowalski</Nm></Dbtr>
+                        <Cdtr><Nm>Grocery Store</Nm></Cdtr>
+                      </RltdPties>
+                      <RmtInf><Ustrd>Card payment</Ustrd></RmtInf>
+                    </TxDtls></NtryDtls>
+                  </Ntry>
+                  <Ntry>
+                    <Amt Ccy="PLN">3000.00</Amt>
+                    <CdtDbtInd>CRDT</CdtDbtInd>
+                    <Sts><Cd>BOOK</Cd></Sts>
+                    <BookgDt><DtTm>2024-05-10T08:15:00</DtTm></BookgDt>
+                    <BkTxCd><Domn><Cd>PMNT</Cd><Fmly><Cd>RCDT</Cd><SubFmlyCd>ESCT</SubFmlyCd></Fmly></Domn></BkTxCd>
+                    <AddtlNtryInf>Salary</AddtlNtryInf>
+                    <NtryDtls><TxDtls>
+                      <RltdPties><Dbtr><Nm>Employer</Nm></Dbtr></RltdPties>
+                      <RmtInf><Ustrd>Salary</Ustrd><Ustrd>May</Ustrd></RmtInf>
+                    </TxDtls></NtryDtls>
+                  </Ntry>
+                  <Ntry>
+                    <Amt Ccy="PLN">10.00</Amt>
+                    <CdtDbtInd>DBIT</CdtDbtInd>
+                    <Sts>PDNG</Sts>
+                    <BookgDt><Dt>2024-05-11</Dt></BookgDt>
+                  </Ntry>
+                  <Ntry>
+                    <Amt Ccy="PLN">1.99</Amt>
+                    <CdtDbtInd>DBIT</CdtDbtInd>
+                    <Sts>BOOK</Sts>
+                    <ValDt><Dt>2024-05-12</Dt></ValDt>
+                    <AddtlNtryInf>Account fee</AddtlNtryInf>
+                  </Ntry>
+                </Stmt>
+              </BkToCstmrStmt>
+            </Document>
+            """;
+
+    private final Camt053TransactionExtractor extractor = new Camt053TransactionExtractor();
+
+    @Test
+    @DisplayName("Should extract booked entries")
+    void shouldExtractBookedEntries() {
+        List<TransactionResponse> transactions = extractor.extract(toInputStream(STATEMENT));
+
+        assertThat(transactions).hasSize(3);
+        assertThat(transactions.get(0).amount()).isEqualTo("-25.50");
+        assertThat(transactions.get(0).date()).isEqualTo("2024-05-02");
+        assertThat(transactions.get(0).details()).isEqualTo("Grocery Store Card payment");
+        assertThat(transactions.get(0).transactionMethod()).isEqualTo("DEBIT_CARD");
+        assertThat(transactions.get(1).amount()).isEqualTo("3000.00");
+        assertThat(transactions.get(1).date()).isEqualTo("2024-05-10");
+        assertThat(transactions.get(1).details()).isEqualTo("Employer Salary May");
+        assertThat(transactions.get(1).transactionMethod()).isEqualTo("BANK_TRANSFER");
+        assertThat(transactions.get(2).amount()).isEqualTo("-1.99");
+        assertThat(transactions.get(2).date()).isEqualTo("2024-05-12");
+        assertThat(transactions.get(2).details()).isEqualTo("Account fee");
+        assertThat(transactions.get(2).transactionMethod()).isEqualTo("OTHER");
+    }
+
+    @Test
+    @DisplayName("Should throw WrongFileFormatException when the document is not a CAMT.053 statement")
+    void shouldThrowWhenNotCamt053() {
+        InputStream inputStream = toInputStream("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.052.001.02"><BkToCstmrAcctRpt/></Document>
+                """);
+
+        assertThatThrownBy(() -> extractor.stream(inputStream))
+                .isInstanceOf(WrongFileFormatException.class)
+                .hasMessage("Incorrect file format. The file is not a CAMT.053 statement.");
+    }
+
+    @Test
+    @DisplayName("Should throw WrongFileFormatException when the file is not XML")
+    void shouldThrowWhenNotXml() {
+        InputStream inputStream = toInputStream("Date;Amount;Details\n2024-05-02;10.00;Shop\n");
+
+        assertThatThrownBy(() -> extractor.stream(inputStream))
+                .isInstanceOf(WrongFileFormatException.class)
+                .hasMessage("Incorrect file format. The file is not a valid CAMT.053 statement.");
+    }
+
+    @Test
+    @DisplayName("Should not resolve external entities")
+    void shouldNotResolveExternalEntities() {
+        InputStream inputStream = toInputStream("""
+                <?xml version="1.0" encoding="UTF-8"?>
+                <!DOCTYPE Document [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02">
+                  <BkToCstmrStmt><Stmt><Ntry>
+                    <Amt Ccy="PLN">1.00</Amt><CdtDbtInd>CRDT</CdtDbtInd><Sts>BOOK</Sts>
+                    <AddtlNtryInf>&secret;</AddtlNtryInf>
+                  </Ntry></Stmt></BkToCstmrStmt>
+                </Document>
+                """);
+
+        assertThatThrownBy(() -> extractor.extract(inputStream))
+                .isInstanceOf(WrongFileFormatException.class);
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
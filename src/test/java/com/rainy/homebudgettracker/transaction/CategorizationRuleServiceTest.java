@@ -0,0 +1,106 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.category.CategoryRepository;
+import com.rainy.homebudgettracker.category.CategoryResponse;
+import com.rainy.homebudgettracker.mapper.ModelMapper;
+import com.rainy.homebudgettracker.transaction.dto.RuleRequest;
+import com.rainy.homebudgettracker.transaction.dto.RuleResponse;
+import com.rainy.homebudgettracker.transaction.repository.CategorizationRuleRepository;
+import com.rainy.homebudgettracker.transaction.service.CategorizationRuleServiceImpl;
+import com.rainy.homebudgettracker.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategorizationRuleServiceTest {
+
+    @InjectMocks
+    private CategorizationRuleServiceImpl ruleService;
+
+    @Mock
+    private CategorizationRuleRepository ruleRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private ModelMapper modelMapper;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+        lenient().when(modelMapper.map(any(CategorizationRule.class), eq(RuleResponse.class))).thenAnswer(inv -> {
+            CategorizationRule rule = inv.getArgument(0);
+            return RuleResponse.builder()
+                    .id(rule.getId())
+                    .keyword(rule.getKeyword())
+                    .category(CategoryResponse.builder()
+                            .id(rule.getCategory().getId())
+                            .name(rule.getCategory().getName())
+                            .build())
+                    .build();
+        });
+    }
+
+    @Test
+    @DisplayName("should prefer the longest keyword when several rules match")
+    void getCurrentUserRuleMatcher_shouldPreferLongestKeyword() {
+        Category transport = Category.builder().id(UUID.randomUUID()).name("Transport").userSub(TestData.USER_SUB).build();
+        when(ruleRepository.findByUserSub(TestData.USER_SUB)).thenReturn(List.of(
+                rule("uber", transport),
+                rule("uber eats", TestData.CATEGORY)
+        ));
+
+        Optional<RuleResponse> match = ruleService.getCurrentUserRuleMatcher().match("UBER EATS *ORDER 123");
+
+        assertThat(match).map(rule -> rule.category().getName()).contains(TestData.CATEGORY.getName());
+    }
+
+    @Test
+    @DisplayName("should compile the rules once and recompile them after a rule is created")
+    void getCurrentUserRuleMatcher_shouldBeCachedUntilRulesChange() {
+        CategorizationRule food = rule("biedronka", TestData.CATEGORY);
+        when(ruleRepository.findByUserSub(TestData.USER_SUB)).thenReturn(List.of(food));
+
+        ruleService.getCurrentUserRuleMatcher();
+        ruleService.getCurrentUserRuleMatcher();
+        verify(ruleRepository, times(1)).findByUserSub(TestData.USER_SUB);
+
+        RuleRequest request = new RuleRequest("lidl", TestData.CATEGORY.getName());
+        CategorizationRule lidl = rule("lidl", TestData.CATEGORY);
+        when(categoryRepository.findByUserSubAndName(TestData.USER_SUB, TestData.CATEGORY.getName()))
+                .thenReturn(Optional.of(TestData.CATEGORY));
+        when(modelMapper.map(request, CategorizationRule.class, TestData.USER_SUB, TestData.CATEGORY)).thenReturn(lidl);
+        when(ruleRepository.save(lidl)).thenReturn(lidl);
+        when(ruleRepository.findByUserSub(TestData.USER_SUB)).thenReturn(List.of(food, lidl));
+
+        ruleService.createRule(request);
+
+        assertThat(ruleService.getCurrentUserRuleMatcher().match("LIDL SP. Z O.O.")).isPresent();
+        verify(ruleRepository, times(2)).findByUserSub(TestData.USER_SUB);
+    }
+
+    private static CategorizationRule rule(String keyword, Category category) {
+        return CategorizationRule.builder()
+                .id(UUID.randomUUID())
+                .keyword(keyword)
+                .category(category)
+                .userSub(TestData.USER_SUB)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.transaction.service.extractor.CsvTokenizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTokenizerTest {
+
+    @Test
+    @DisplayName("Should split records on the separator and keep empty fields")
+    void shouldSplitRecords() throws IOException {
+        List<List<String>> records = tokenize(new StringReader("a;b;;c\n;\nlast;"), ';');
+
+        assertThat(records).containsExactly(
+                List.of("a", "b", "", "c"),
+                List.of("", ""),
+                List.of("last", ""));
+    }
+
+    @Test
+    @DisplayName("Should unquote fields and keep separators, line breaks and escaped quotes inside them")
+    void shouldHandleQuotedFields() throws IOException {
+        String csv = "\"Shop, Inc\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n\"\",plain\r\n";
+
+        List<List<String>> records = tokenize(new StringReader(csv), ',');
+
+        assertThat(records).containsExactly(
+                List.of("Shop, Inc", "say \"hi\"", "two\nlines"),
+                List.of("", "plain"));
+    }
+
+    @Test
+    @DisplayName("Should keep a stray quote inside a field")
+    void shouldKeepStrayQuotes() throws IOException {
+        List<List<String>> records = tokenize(new StringReader("5\" screen;\"ab\"c\";x"), ';');
+
+        assertThat(records).containsExactly(List.of("5\" screen", "ab\"c", "x"));
+    }
+
+    @Test
+    @DisplayName("Should return trimmed views of the fields")
+    void shouldTrimFields() throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("  SKLEP ABC ;\"  \""), ';');
+
+        assertThat(tokenizer.next()).isTrue();
+        assertThat(tokenizer.trimmedField(0).toString()).isEqualTo("SKLEP ABC");
+        assertThat(tokenizer.trimmedField(1).isEmpty()).isTrue();
+        assertThat(tokenizer.field(0).length()).isEqualTo(12);
+    }
+
+    @Test
+    @DisplayName("Should produce the same records when the input arrives one character at a time")
+    void shouldHandleRecordsSpanningReads() throws IOException {
+        String longField = "x".repeat(20_000);
+        String csv = "\"a\"\"b\";" + longField + "\r\n\"quoted;\"\n";
+
+        List<List<String>> records = tokenize(new OneCharReader(csv), ';');
+
+        assertThat(records).containsExactly(List.of("a\"b", longField), List.of("quoted;"));
+    }
+
+    private static List<List<String>> tokenize(Reader reader, char separator) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvTokenizer tokenizer = new CsvTokenizer(reader, separator)) {
+            while (tokenizer.next()) {
+                List<String> fields = new ArrayList<>();
+                for (int i = 0; i < tokenizer.fieldCount(); i++) {
+                    fields.add(tokenizer.value(i));
+                }
+                records.add(fields);
+            }
+        }
+        return records;
+    }
+
+    private static final class OneCharReader extends Reader {
+        private final StringReader delegate;
+
+        private OneCharReader(String content) {
+            this.delegate = new StringReader(content);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return delegate.read(buffer, offset, Math.min(length, 1));
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
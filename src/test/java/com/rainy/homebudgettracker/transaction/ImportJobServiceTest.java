@@ -0,0 +1,194 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException;
+import com.rainy.homebudgettracker.handler.exception.TooManyImportJobsException;
+import com.rainy.homebudgettracker.transaction.dto.ImportJobResponse;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.enums.ImportJobStatus;
+import com.rainy.homebudgettracker.transaction.service.*;
+import com.rainy.homebudgettracker.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    private static final TransactionResponse ROW = TransactionResponse.builder()
+            .amount("-25.50").date("2025-07-10").transactionMethod("DEBIT_CARD").details("Biedronka").build();
+
+    @Mock
+    private ImportTransactionService importTransactionService;
+    @Mock
+    private UserService userService;
+
+    private final ImportSessionStore importSessionStore = new ImportSessionStore(1024 * 1024, Duration.ofMinutes(30));
+    private ImportJobServiceImpl importJobService;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = new ImportJobServiceImpl(
+                importTransactionService, importSessionStore, userService, 1, 1, 1, 2, Duration.ofHours(1));
+        when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+    }
+
+    @Test
+    @DisplayName("should run the import in the background and report its progress")
+    void submitImportJob_shouldRunImportAndReportProgress() throws InterruptedException {
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of(ROW, ROW, ROW));
+        when(importTransactionService.importTransactions(
+                eq(session), eq(TestData.ACCOUNT.getId()), isNull(), eq(2), any(ImportProgress.class)))
+                .thenAnswer(invocation -> {
+                    ImportProgress progress = invocation.getArgument(4);
+                    progress.rowsRead(3);
+                    progress.rowsProcessed(List.of(
+                            ImportRowResult.builder().index(0).imported(true).build(),
+                            ImportRowResult.builder().index(1).imported(true).build()));
+                    progress.rowsProcessed(List.of(
+                            ImportRowResult.builder().index(2).imported(false).error("Invalid amount").build()));
+                    return List.of();
+                });
+
+        ImportJobResponse submitted = importJobService.submitImportJob(session.id(), TestData.ACCOUNT.getId(), null);
+        ImportJobResponse finished = awaitFinished(submitted.jobId());
+
+        assertThat(submitted.totalRows()).isEqualTo(3);
+        assertThat(importSessionStore.find(session.id(), TestData.USER_SUB)).isEmpty();
+        assertThat(finished.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finished.parsedRows()).isEqualTo(3);
+        assertThat(finished.insertedRows()).isEqualTo(2);
+        assertThat(finished.failedRows()).isEqualTo(1);
+        assertThat(finished.failures()).extracting(ImportRowResult::index).containsExactly(2);
+        assertThat(finished.rowsPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("should refuse a job above the per user limit and keep its session")
+    void submitImportJob_shouldThrowException_whenUserHasTooManyJobs() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ImportSession first = importSessionStore.create(TestData.USER_SUB, List.of(ROW));
+        ImportSession second = importSessionStore.create(TestData.USER_SUB, List.of(ROW));
+        when(importTransactionService.importTransactions(any(), any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return List.of();
+                });
+
+        ImportJobResponse running = importJobService.submitImportJob(first.id(), TestData.ACCOUNT.getId(), null);
+
+        assertThatThrownBy(() -> importJobService.submitImportJob(second.id(), TestData.ACCOUNT.getId(), null))
+                .isInstanceOf(TooManyImportJobsException.class);
+        assertThat(importSessionStore.find(second.id(), TestData.USER_SUB)).contains(second);
+
+        release.countDown();
+        awaitFinished(running.jobId());
+        assertThat(importJobService.submitImportJob(second.id(), TestData.ACCOUNT.getId(), null).jobId())
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("should pass the cancellation to the running import")
+    void cancelImportJob_shouldStopRunningImport() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of(ROW, ROW));
+        when(importTransactionService.importTransactions(any(), any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    ImportProgress progress = invocation.getArgument(4);
+                    started.countDown();
+                    while (!progress.isCancelled()) {
+                        Thread.sleep(5);
+                    }
+                    return List.of();
+                });
+
+        ImportJobResponse submitted = importJobService.submitImportJob(session.id(), TestData.ACCOUNT.getId(), null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        importJobService.cancelImportJob(submitted.jobId());
+
+        assertThat(awaitFinished(submitted.jobId()).status()).isEqualTo(ImportJobStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("should keep an unfinished job however long ago it was read, and expire it once finished")
+    void findImportJob_shouldKeepUnfinishedJob() throws InterruptedException {
+        importJobService = new ImportJobServiceImpl(
+                importTransactionService, importSessionStore, userService, 1, 1, 1, 2, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of(ROW));
+        when(importTransactionService.importTransactions(any(), any(), any(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return List.of();
+                });
+
+        ImportJobResponse submitted = importJobService.submitImportJob(session.id(), TestData.ACCOUNT.getId(), null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(importJobService.findImportJob(submitted.jobId()).status()).isEqualTo(ImportJobStatus.RUNNING);
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && isFound(submitted.jobId())) {
+            Thread.sleep(10);
+        }
+        assertThatThrownBy(() -> importJobService.findImportJob(submitted.jobId()))
+                .isInstanceOf(RecordDoesNotExistException.class);
+    }
+
+    @Test
+    @DisplayName("should not find a job of another user")
+    void findImportJob_shouldThrowException_forJobOfAnotherUser() {
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of(ROW));
+        ImportJobResponse submitted = importJobService.submitImportJob(session.id(), TestData.ACCOUNT.getId(), null);
+        when(userService.getUserSub()).thenReturn(TestData.USER_SUB_2);
+
+        assertThatThrownBy(() -> importJobService.findImportJob(submitted.jobId()))
+                .isInstanceOf(RecordDoesNotExistException.class);
+        assertThatThrownBy(() -> importJobService.cancelImportJob(submitted.jobId()))
+                .isInstanceOf(RecordDoesNotExistException.class);
+    }
+
+    @Test
+    @DisplayName("should not start a job for a missing session")
+    void submitImportJob_shouldThrowException_forMissingSession() {
+        assertThatThrownBy(() -> importJobService.submitImportJob(UUID.randomUUID(), TestData.ACCOUNT.getId(), null))
+                .isInstanceOf(RecordDoesNotExistException.class);
+        verifyNoInteractions(importTransactionService);
+    }
+
+    private boolean isFound(UUID jobId) {
+        try {
+            importJobService.findImportJob(jobId);
+            return true;
+        } catch (RecordDoesNotExistException e) {
+            return false;
+        }
+    }
+
+    private ImportJobResponse awaitFinished(UUID jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJobResponse response = importJobService.findImportJob(jobId);
+        while (response.finishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            response = importJobService.findImportJob(jobId);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,58 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.handler.exception.FileProcessingException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.service.ImportSession;
+import com.rainy.homebudgettracker.transaction.service.ImportSessionStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportSessionStoreTest {
+
+    private static final TransactionResponse ROW = TransactionResponse.builder()
+            .amount("-150.55")
+            .date("2025-07-10")
+            .transactionMethod("DEBIT_CARD")
+            .details("SKLEP ABC ZAKUP PRZY UZYCIU KARTY")
+            .build();
+
+    private final ImportSessionStore store = new ImportSessionStore(1024 * 1024, Duration.ofMinutes(30));
+
+    @Test
+    @DisplayName("should return a session only to the user who created it")
+    void find_shouldReturnSessionOnlyToOwner() {
+        ImportSession session = store.create(TestData.USER_SUB, List.of(ROW));
+
+        assertThat(store.find(session.id(), TestData.USER_SUB)).contains(session);
+        assertThat(store.find(session.id(), TestData.USER_SUB_2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should hand out a session for saving only once")
+    void take_shouldRemoveSession() {
+        ImportSession session = store.create(TestData.USER_SUB, List.of(ROW));
+
+        assertThat(store.take(session.id(), TestData.USER_SUB_2)).isEmpty();
+        assertThat(store.take(session.id(), TestData.USER_SUB)).contains(session);
+        assertThat(store.take(session.id(), TestData.USER_SUB)).isEmpty();
+
+        store.restore(session);
+        assertThat(store.find(session.id(), TestData.USER_SUB)).contains(session);
+    }
+
+    @Test
+    @DisplayName("should reject a statement that would not fit into the store")
+    void create_shouldRejectSessionHeavierThanStore() {
+        List<TransactionResponse> rows = Collections.nCopies(10_000, ROW);
+
+        assertThatThrownBy(() -> store.create(TestData.USER_SUB, rows))
+                .isInstanceOf(FileProcessingException.class);
+    }
+}
@@ -0,0 +1,191 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.category.CategoryRequest;
+import com.rainy.homebudgettracker.handler.exception.RecordDoesNotExistException;
+import com.rainy.homebudgettracker.mapper.ModelMapper;
+import com.rainy.homebudgettracker.transaction.dto.*;
+import com.rainy.homebudgettracker.transaction.enums.BankName;
+import com.rainy.homebudgettracker.transaction.service.*;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormatExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormats;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractors;
+import com.rainy.homebudgettracker.transaction.service.helper.KeywordMatcher;
+import com.rainy.homebudgettracker.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportTransactionServiceTest {
+
+    private static final String REVOLUT_FILE =
+            "Type,Product,Started Date,Completed Date,Description,Amount,Fee,Currency,State,Balance\n"
+            + "CARD_PAYMENT,Current,2025-07-10 12:30:00,2025-07-11 12:31:00,Biedronka 123,-25.50,0,PLN,COMPLETED,1000.00\n"
+            + "TRANSFER,Current,2025-07-09 08:00:00,2025-07-09 08:01:00,Przelew od Anny,500.00,0,PLN,COMPLETED,1025.50\n"
+            + "CARD_PAYMENT,Current,2025-07-08 10:00:00,2025-07-08 10:01:00,Lidl,-15.00,0,PLN,COMPLETED,525.50\n";
+
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private CategorizationRuleService categorizationRuleService;
+    @Mock
+    private UserService userService;
+
+    private final ImportSessionStore importSessionStore = new ImportSessionStore(1024 * 1024, Duration.ofMinutes(30));
+    private ImportTransactionServiceImpl importTransactionService;
+
+    @BeforeEach
+    void setUp() {
+        importTransactionService = new ImportTransactionServiceImpl(
+                transactionService,
+                new TransactionExtractors(List.of(BankFormatExtractor.compile(
+                        BankFormats.read(getClass().getResourceAsStream("/bank-formats/revolut.yaml"))))),
+                categorizationRuleService,
+                importSessionStore,
+                userService,
+                new ModelMapper()
+        );
+        lenient().when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+    }
+
+    @Test
+    @DisplayName("should parse the file once into a session and return the first page of it")
+    void createImportSession_shouldStoreRowsAndReturnPreview() {
+        RuleResponse rule = RuleResponse.builder()
+                .id(UUID.randomUUID())
+                .keyword("biedronka")
+                .category(TestData.CATEGORY_RESPONSE)
+                .build();
+        when(categorizationRuleService.getCurrentUserRuleMatcher())
+                .thenReturn(KeywordMatcher.compile(List.of(rule), RuleResponse::keyword));
+
+        ImportSessionResponse response = importTransactionService.createImportSession(
+                revolutFile(), BankName.REVOLUT, PageRequest.of(0, 2));
+
+        assertThat(response.rowCount()).isEqualTo(3);
+        assertThat(response.preview().getContent()).extracting(TransactionResponse::details)
+                .containsExactly("Biedronka 123", "Przelew od Anny");
+        assertThat(response.preview().getContent().get(0).category()).isEqualTo(TestData.CATEGORY_RESPONSE);
+        assertThat(importTransactionService.findImportSessionRows(response.sessionId(), PageRequest.of(1, 2)))
+                .extracting(TransactionResponse::details)
+                .containsExactly("Lidl");
+    }
+
+    @Test
+    @DisplayName("should save the session rows with overrides, skip rows and report them by their session index")
+    void importTransactions_shouldSaveFromSession() {
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of(
+                TransactionResponse.builder().amount("-25.50").date("2025-07-10").transactionMethod("DEBIT_CARD")
+                        .details("Biedronka").category(TestData.CATEGORY_RESPONSE).build(),
+                TransactionResponse.builder().amount("500.00").date("2025-07-09").transactionMethod("BANK_TRANSFER")
+                        .details("Przelew").build(),
+                TransactionResponse.builder().amount("n/a").date("2025-07-08").transactionMethod("DEBIT_CARD")
+                        .details("Broken").build(),
+                TransactionResponse.builder().amount("-15.00").date("2025-07-08").transactionMethod("DEBIT_CARD")
+                        .details("Lidl").build()
+        ));
+        TransactionRequest override = TransactionRequest.builder()
+                .amount(new BigDecimal("-15.00"))
+                .categoryName(CategoryRequest.builder().name("Groceries").build())
+                .date(TestData.TEST_DATE)
+                .transactionMethod(TestData.TRANSACTION_REQUEST.getTransactionMethod())
+                .build();
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        when(transactionService.createTransactionsForCurrentUser(eq(TestData.ACCOUNT.getId()), anyList(), any()))
+                .thenReturn(List.of(
+                        ImportRowResult.builder().index(0).imported(true).transactionId(firstId).build(),
+                        ImportRowResult.builder().index(1).imported(true).transactionId(secondId).build()));
+
+        List<ImportRowResult> results = importTransactionService.importTransactions(session.id(),
+                TestData.ACCOUNT.getId(), new ImportCommitRequest(Map.of(3, override), Set.of(1)));
+
+        assertThat(results).extracting(ImportRowResult::index).containsExactly(0, 2, 3);
+        assertThat(results).extracting(ImportRowResult::transactionId).containsExactly(firstId, null, secondId);
+        assertThat(results.get(1).imported()).isFalse();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransactionRequest>> requestsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService).createTransactionsForCurrentUser(eq(TestData.ACCOUNT.getId()), requestsCaptor.capture(), any());
+        assertThat(requestsCaptor.getValue()).hasSize(2);
+        assertThat(requestsCaptor.getValue().get(0).getCategoryName().getName()).isEqualTo(TestData.CATEGORY.getName());
+        assertThat(requestsCaptor.getValue().get(1)).isSameAs(override);
+        assertThat(importSessionStore.find(session.id(), TestData.USER_SUB)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should keep the session when saving it fails")
+    void importTransactions_shouldRestoreSession_whenSavingFails() {
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of());
+        when(transactionService.createTransactionsForCurrentUser(eq(TestData.ACCOUNT.getId()), anyList(), any()))
+                .thenThrow(new RecordDoesNotExistException("Account does not exist."));
+
+        assertThatThrownBy(() -> importTransactionService.importTransactions(session.id(), TestData.ACCOUNT.getId(), null))
+                .isInstanceOf(RecordDoesNotExistException.class);
+        assertThat(importSessionStore.find(session.id(), TestData.USER_SUB)).contains(session);
+    }
+
+    @Test
+    @DisplayName("should save the rows in chunks, report each chunk and stop when cancelled")
+    void importTransactions_shouldSaveInChunksUntilCancelled() {
+        TransactionResponse row = TransactionResponse.builder().amount("-25.50").date("2025-07-10")
+                .transactionMethod("DEBIT_CARD").details("Biedronka").build();
+        ImportSession session = importSessionStore.create(TestData.USER_SUB, List.of(row, row, row, row, row));
+        when(transactionService.createTransactionsForCurrentUser(eq(TestData.ACCOUNT.getId()), anyList(), any()))
+                .thenReturn(List.of(
+                        ImportRowResult.builder().index(0).imported(true).transactionId(UUID.randomUUID()).build(),
+                        ImportRowResult.builder().index(1).imported(false).error("Invalid amount").build()));
+        ImportJob progress = new ImportJob(UUID.randomUUID(), TestData.USER_SUB, 5) {
+            @Override
+            public void rowsProcessed(List<ImportRowResult> results) {
+                super.rowsProcessed(results);
+                if (getInsertedRows().get() + getFailedRows().get() == 4) {
+                    cancel();
+                }
+            }
+        };
+
+        List<ImportRowResult> results = importTransactionService.importTransactions(
+                session, TestData.ACCOUNT.getId(), null, 2, progress);
+
+        assertThat(results).extracting(ImportRowResult::index).containsExactly(0, 1, 2, 3);
+        assertThat(results.get(3).error()).isEqualTo("Invalid amount");
+        assertThat(progress.getParsedRows()).hasValue(5);
+        assertThat(progress.getInsertedRows()).hasValue(2);
+        assertThat(progress.getFailedRows()).hasValue(2);
+        verify(transactionService, times(2)).createTransactionsForCurrentUser(eq(TestData.ACCOUNT.getId()), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("should not find a session of another user")
+    void findImportSessionRows_shouldThrowException_forSessionOfAnotherUser() {
+        ImportSession session = importSessionStore.create(TestData.USER_SUB_2, List.of());
+
+        assertThatThrownBy(() -> importTransactionService.findImportSessionRows(session.id(), PageRequest.of(0, 10)))
+                .isInstanceOf(RecordDoesNotExistException.class);
+    }
+
+    private static MockMultipartFile revolutFile() {
+        return new MockMultipartFile("file", "revolut.csv", "text/csv", REVOLUT_FILE.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,7 +2,9 @@ package com.rainy.homebudgettracker.transaction;
 
 import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
-import com.rainy.homebudgettracker.transaction.service.extractor.IngTransactionExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormatExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormats;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,11 +21,12 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class IngTransactionExtractorTest {
 
-    private IngTransactionExtractor extractor;
+    private TransactionExtractor extractor;
 
     @BeforeEach
     void setUp() {
-        extractor = new IngTransactionExtractor();
+        extractor = BankFormatExtractor.compile(
+                BankFormats.read(getClass().getResourceAsStream("/bank-formats/ing.yaml")));
     }
 
     @Test
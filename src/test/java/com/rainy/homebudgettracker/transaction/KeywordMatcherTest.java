@@ -0,0 +1,53 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.transaction.service.helper.KeywordMatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordMatcherTest {
+
+    @Test
+    @DisplayName("should match keywords regardless of case")
+    void match_shouldIgnoreCase() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(List.of("Biedronka", "ORLEN"), Function.identity());
+
+        assertThat(matcher.match("Platnosc karta BIEDRONKA 1234 Warszawa")).contains("Biedronka");
+        assertThat(matcher.match("stacja orlen nr 55")).contains("ORLEN");
+        assertThat(matcher.match("Przelew wlasny")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should find keywords that start inside a partial match of another keyword")
+    void match_shouldFollowFailureLinks() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(List.of("hers", "she", "his"), Function.identity());
+
+        assertThat(matcher.match("ushers")).contains("hers");
+        assertThat(matcher.match("xshe")).contains("she");
+        assertThat(matcher.match("ahishe")).contains("she");
+        assertThat(matcher.match("hi")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should return the first keyword of the compiled list when several keywords occur")
+    void match_shouldPreferEarlierKeyword() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(List.of("uber eats", "uber", "eats"), Function.identity());
+
+        assertThat(matcher.match("UBER EATS order")).contains("uber eats");
+        assertThat(matcher.match("eats with uber")).contains("uber");
+        assertThat(matcher.match("uber trip")).contains("uber");
+    }
+
+    @Test
+    @DisplayName("should not match anything when there are no keywords")
+    void match_shouldReturnEmpty_whenThereAreNoKeywords() {
+        KeywordMatcher<String> matcher = KeywordMatcher.compile(List.of(), Function.identity());
+
+        assertThat(matcher.match("anything")).isEmpty();
+        assertThat(matcher.match(null)).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
+import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.service.extractor.Mt940TransactionExtractor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Mt940TransactionExtractorTest {
+
+    private final Mt940TransactionExtractor extractor = new Mt940TransactionExtractor("UTF-8");
+
+    @Test
+    @DisplayName("Should extract transactions with structured information")
+    void shouldExtractStructuredTransactions() {
+        String statement = """
+                {1:F01INGBPLPWAXXX0000000000}{2:I940INGBPLPWXXXXN}{4:
+                :20:P240531000000001
+                :25:/PL12105000997603123456789123
+                :28C:00105
+                :60F:C240501PLN1000,00
+                :61:2405020502DN25,50NTRFNONREF//2405021234
+                :86:020~00VE02~20Card payment~21GROCERY~3010500099
+                ~32Grocery Store~33Sp. z o.o.
+                :61:2405100510CN3000,NTRFNONREF
+                :86:051~00PRZELEW~20Salary May~32Employer
+                :62F:C240531PLN3974,50
+                -}
+                """;
+
+        List<TransactionResponse> transactions = extractor.extract(toInputStream(statement));
+
+        assertThat(transactions).hasSize(2);
+        assertThat(transactions.get(0).amount()).isEqualTo("-25.50");
+        assertThat(transactions.get(0).date()).isEqualTo("2024-05-02");
+        assertThat(transactions.get(0).details()).isEqualTo("Grocery StoreSp. z o.o. Card paymentGROCERY");
+        assertThat(transactions.get(0).transactionMethod()).isEqualTo("BANK_TRANSFER");
+        assertThat(transactions.get(1).amount()).isEqualTo("3000");
+        assertThat(transactions.get(1).date()).isEqualTo("2024-05-10");
+        assertThat(transactions.get(1).details()).isEqualTo("Employer Salary May");
+    }
+
+    @Test
+    @DisplayName("Should join unstructured information and fall back to supplementary details")
+    void shouldExtractUnstructuredTransactions() {
+        String statement = """
+                :20:STATEMENT
+                :25:12345678
+                :28C:1/1
+                :60F:C240501EUR100,00
+                :61:240503D12,00NMSCNONREF
+                :86:Coffee shop
+                Main Street 1
+                :61:240504RD5,00NCHGNONREF
+                ATM fee
+                :62F:C240531EUR83,00
+                """;
+
+        List<TransactionResponse> transactions = extractor.extract(toInputStream(statement));
+
+        assertThat(transactions).hasSize(2);
+        assertThat(transactions.get(0).amount()).isEqualTo("-12.00");
+        assertThat(transactions.get(0).details()).isEqualTo("Coffee shop Main Street 1");
+        assertThat(transactions.get(0).transactionMethod()).isEqualTo("OTHER");
+        assertThat(transactions.get(1).amount()).isEqualTo("5.00");
+        assertThat(transactions.get(1).date()).isEqualTo("2024-05-04");
+        assertThat(transactions.get(1).details()).isEqualTo("ATM fee");
+    }
+
+    @Test
+    @DisplayName("Should throw WrongFileFormatException when the file is not an MT940 statement")
+    void shouldThrowWhenNotMt940() {
+        InputStream inputStream = toInputStream("Date;Amount;Details\n2024-05-02;10.00;Shop\n");
+
+        assertThatThrownBy(() -> extractor.stream(inputStream))
+                .isInstanceOf(WrongFileFormatException.class)
+                .hasMessage("Incorrect file format. The file is not an MT940 statement.");
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,26 +2,34 @@ package com.rainy.homebudgettracker.transaction;
 
 import com.rainy.homebudgettracker.handler.exception.WrongFileFormatException;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
-import com.rainy.homebudgettracker.transaction.service.extractor.RevolutTransactionExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormatExtractor;
+import com.rainy.homebudgettracker.transaction.service.extractor.BankFormats;
+import com.rainy.homebudgettracker.transaction.service.extractor.TransactionExtractor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class RevolutTransactionExtractorTest {
 
-    private RevolutTransactionExtractor extractor;
+    private TransactionExtractor extractor;
 
     @BeforeEach
     void setUp() {
-        extractor = new RevolutTransactionExtractor();
+        extractor = BankFormatExtractor.compile(
+                BankFormats.read(getClass().getResourceAsStream("/bank-formats/revolut.yaml")));
     }
 
     @Test
@@ -94,4 +102,50 @@ class RevolutTransactionExtractorTest {
                 .isInstanceOf(WrongFileFormatException.class)
                 .hasMessage("The file is empty. Expected a header line.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should keep commas inside quoted descriptions")
+    void shouldExtractQuotedDescription() {
+        String csvContent = "Type,Product,Started Date,Completed Date,Description,Amount,Fee,Currency,State,Balance\n"
+                + "CARD_PAYMENT,Current,2025-07-10 12:30:00,2025-07-11 12:31:00,\"Shop, Inc\",-25.50,0,PLN,COMPLETED,1000.00\n";
+
+        List<TransactionResponse> transactions = extractor.extract(
+                new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(transactions).singleElement().satisfies(transaction -> {
+            assertThat(transaction.details()).isEqualTo("Shop, Inc");
+            assertThat(transaction.amount()).isEqualTo("-25.50");
+        });
+    }
+
+    @Test
+    @DisplayName("Should parse rows lazily and close the file together with the stream")
+    void shouldStreamRowsLazilyAndCloseInput() {
+        String header = "Type,Product,Started Date,Completed Date,Description,Amount,Fee,Currency,State,Balance\n";
+        String row = "CARD_PAYMENT,Current,2025-07-10 12:30:00,2025-07-11 12:31:00,Sklep,-25.50,0,PLN,COMPLETED,1000.00\n";
+        AtomicInteger bytesRead = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream inputStream = new FilterInputStream(new ByteArrayInputStream(
+                (header + row.repeat(100_000)).getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                bytesRead.addAndGet(Math.max(read, 0));
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                closed.set(true);
+                super.close();
+            }
+        };
+
+        try (Stream<TransactionResponse> transactions = extractor.stream(inputStream)) {
+            assertThat(transactions.limit(2)).extracting(TransactionResponse::details).containsExactly("Sklep", "Sklep");
+        }
+
+        assertThat(bytesRead.get()).isLessThan(row.length() * 1_000);
+        assertThat(closed).isTrue();
+    }
+}
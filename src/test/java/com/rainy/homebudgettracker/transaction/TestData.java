@@ -115,6 +115,30 @@ public class TestData {
             .details("EUR->PLN: 0.24 - " + TEST_DATE)
             .build();
 
+    public static final TransactionView TRANSACTION_VIEW = TransactionView.builder()
+            .id(UUID.fromString(TRANSACTION_ID))
+            .amount(BigDecimal.valueOf(100).setScale(2, RoundingMode.HALF_UP))
+            .date(TEST_DATE)
+            .transactionMethod(TransactionMethod.CASH)
+            .accountId(ACCOUNT.getId())
+            .accountName(ACCOUNT.getName())
+            .accountCurrencyCode(ACCOUNT.getCurrencyCode())
+            .categoryId(CATEGORY.getId())
+            .categoryName(CATEGORY.getName())
+            .build();
+    public static final TransactionView CONVERTED_TRANSACTION_VIEW_2 = TransactionView.builder()
+            .id(UUID.fromString(TRANSACTION_ID))
+            .amount(BigDecimal.valueOf(416).setScale(2, RoundingMode.HALF_UP))
+            .date(TEST_DATE)
+            .transactionMethod(TransactionMethod.CASH)
+            .details("EUR->PLN: 0.24 - " + TEST_DATE)
+            .accountId(ACCOUNT_2.getId())
+            .accountName(ACCOUNT_2.getName())
+            .accountCurrencyCode(ACCOUNT_2.getCurrencyCode())
+            .categoryId(CATEGORY.getId())
+            .categoryName(CATEGORY.getName())
+            .build();
+
     public static final TransactionResponse TRANSACTION_RESPONSE = TransactionResponse.builder()
             .id(UUID.fromString(TRANSACTION_ID))
             .amount("100.00")
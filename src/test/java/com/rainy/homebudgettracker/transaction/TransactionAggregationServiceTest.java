@@ -1,13 +1,19 @@
 package com.rainy.homebudgettracker.transaction;
 
-import com.rainy.homebudgettracker.exchange.ExchangeResponse;
+import com.rainy.homebudgettracker.category.CategoryResponse;
 import com.rainy.homebudgettracker.exchange.ExchangeService;
+import com.rainy.homebudgettracker.exchange.RateQuery;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
+import com.rainy.homebudgettracker.transaction.dto.BalanceHistoryResponse;
 import com.rainy.homebudgettracker.transaction.dto.SumResponse;
+import com.rainy.homebudgettracker.transaction.enums.AmountType;
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
-import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
+import com.rainy.homebudgettracker.transaction.enums.PeriodType;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
 import com.rainy.homebudgettracker.transaction.service.TransactionAggregationServiceImpl;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.AggregationFilter;
+import com.rainy.homebudgettracker.transaction.service.queryfilter.PeriodicAggregationFilter;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecificationBuilder;
 import com.rainy.homebudgettracker.user.DefaultCurrencyResponseRequest;
 import com.rainy.homebudgettracker.user.UserService;
@@ -18,16 +24,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
-import java.util.Collections;
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class TransactionAggregationServiceTest {
@@ -36,7 +43,9 @@ class TransactionAggregationServiceTest {
     private TransactionAggregationServiceImpl aggregationService;
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private DailyTransactionRollupRepository rollupRepository;
+    @Mock
+    private AccountMonthlyBalanceRepository monthlyBalanceRepository;
     @Mock
     private UserService userService;
     @Mock
@@ -46,6 +55,12 @@ class TransactionAggregationServiceTest {
     @Mock
     private TransactionSpecificationBuilder transactionSpecificationBuilder;
 
+    private static Map<RateQuery, BigDecimal> ratesOf(Collection<RateQuery> queries, String rate) {
+        Map<RateQuery, BigDecimal> rates = new HashMap<>();
+        queries.forEach(query -> rates.put(query, query.from() == query.to() ? BigDecimal.ONE : new BigDecimal(rate)));
+        return rates;
+    }
+
     @Nested
     @DisplayName("Get Sum Tests")
     class GetSumTests {
@@ -58,14 +73,13 @@ class TransactionAggregationServiceTest {
             AggregationFilter filter = new AggregationFilter(
                     TestData.ACCOUNT.getId(), null, null, null, null, false, false
             );
-            List<Transaction> transactions = List.of(
-                    TestData.TRANSACTION,
-                    TestData.TRANSACTION_2
+            List<CurrencySum> sums = List.of(
+                    new CurrencySum(CurrencyCode.USD, null, new BigDecimal("400.00"))
             );
 
             when(userService.getUserSub()).thenReturn(userSub);
-            when(transactionSpecificationBuilder.build(filter, userSub)).thenReturn(Specification.where(null));
-            when(transactionRepository.findAll(any(Specification.class))).thenReturn(transactions);
+            when(transactionSpecificationBuilder.buildForRollups(filter, userSub)).thenReturn(Specification.where(null));
+            when(rollupRepository.sumByCurrency(any(), any())).thenReturn(sums);
 
             when(modelMapper.map(any(BigDecimal.class), eq(SumResponse.class)))
                     .thenAnswer(inv -> SumResponse.builder()
@@ -86,23 +100,19 @@ class TransactionAggregationServiceTest {
                     null, null, null, null, null, true, true
             );
 
-            Transaction usdTransaction = TestData.TRANSACTION;
-            Transaction plnTransaction = TestData.TRANSACTION_3;
-            List<Transaction> transactions = List.of(usdTransaction, plnTransaction);
+            List<CurrencySum> sums = List.of(
+                    new CurrencySum(CurrencyCode.USD, TestData.TEST_DATE, new BigDecimal("100.00")),
+                    new CurrencySum(CurrencyCode.PLN, TestData.TEST_DATE, new BigDecimal("200.00"))
+            );
 
             when(userService.getUserSub()).thenReturn(userSub);
             when(userService.getDefaultCurrency()).thenReturn(DefaultCurrencyResponseRequest.builder()
                     .currencyCode(defaultCurrency.name())
                     .build());
-            when(transactionSpecificationBuilder.build(filter, userSub)).thenReturn(Specification.where(null));
-            when(transactionRepository.findAll(any(Specification.class))).thenReturn(transactions);
-
-            when(exchangeService.getHistoricalExchangeRate(eq(CurrencyCode.USD), eq(CurrencyCode.PLN), any()))
-                    .thenReturn(ExchangeResponse.builder()
-                            .baseCode(CurrencyCode.USD.toString())
-                            .targetCode(CurrencyCode.PLN.toString())
-                            .conversionRate("4.00")
-                            .build());
+            when(transactionSpecificationBuilder.buildForRollups(filter, userSub)).thenReturn(Specification.where(null));
+            when(rollupRepository.sumByCurrencyAndDate(any(), any())).thenReturn(sums);
+
+            when(exchangeService.getExchangeRates(any())).thenAnswer(inv -> ratesOf(inv.getArgument(0), "4.00"));
 
             when(modelMapper.map(any(BigDecimal.class), eq(SumResponse.class)))
                     .thenAnswer(inv -> SumResponse.builder()
@@ -123,8 +133,8 @@ class TransactionAggregationServiceTest {
             );
 
             when(userService.getUserSub()).thenReturn(userSub);
-            when(transactionSpecificationBuilder.build(filter, userSub)).thenReturn(Specification.where(null));
-            when(transactionRepository.findAll(any(Specification.class))).thenReturn(Collections.emptyList());
+            when(transactionSpecificationBuilder.buildForRollups(filter, userSub)).thenReturn(Specification.where(null));
+            when(rollupRepository.sumByCurrency(any(), any())).thenReturn(Collections.emptyList());
             when(modelMapper.map(any(BigDecimal.class), eq(SumResponse.class)))
                     .thenAnswer(inv -> SumResponse.builder()
                             .amount("0.00")
@@ -135,4 +145,107 @@ class TransactionAggregationServiceTest {
             assertThat(result.amount()).isEqualTo("0.00");
         }
     }
+
+    @Nested
+    @DisplayName("Get Top Five Tests")
+    class GetTopFiveTests {
+
+        @Test
+        @DisplayName("should rank expense categories after converting every currency to the default one")
+        void getTopFiveExpenses_shouldRankConvertedTotals() {
+            String userSub = TestData.USER_SUB;
+            AggregationFilter filter = new AggregationFilter(
+                    null, null, TestData.TEST_DATE, TestData.TEST_DATE, AmountType.NEGATIVE, true, false
+            );
+            UUID foodId = UUID.randomUUID();
+            UUID carId = UUID.randomUUID();
+            List<CategorySum> sums = List.of(
+                    new CategorySum(foodId, "Food", CurrencyCode.PLN, null, new BigDecimal("-300.00")),
+                    new CategorySum(carId, "Car", CurrencyCode.USD, null, new BigDecimal("-100.00")),
+                    new CategorySum(foodId, "Food", CurrencyCode.USD, null, new BigDecimal("-10.00"))
+            );
+
+            when(userService.getUserSub()).thenReturn(userSub);
+            when(userService.getDefaultCurrency()).thenReturn(DefaultCurrencyResponseRequest.builder()
+                    .currencyCode(CurrencyCode.PLN.name())
+                    .build());
+            when(transactionSpecificationBuilder.buildForRollups(filter, userSub)).thenReturn(Specification.where(null));
+            when(rollupRepository.sumByCategoryAndCurrency(any(), eq(AmountType.NEGATIVE), eq(Sort.Direction.ASC))).thenReturn(sums);
+            when(exchangeService.getExchangeRates(any())).thenAnswer(inv -> ratesOf(inv.getArgument(0), "4.00"));
+            when(modelMapper.map(any(CategorySum.class), eq(CategoryResponse.class)))
+                    .thenAnswer(inv -> CategoryResponse.builder()
+                            .name(inv.<CategorySum>getArgument(0).categoryName())
+                            .build());
+            when(modelMapper.map(any(BigDecimal.class), eq(SumResponse.class), any(CategoryResponse.class)))
+                    .thenAnswer(inv -> SumResponse.builder()
+                            .amount(inv.getArgument(0).toString())
+                            .category(inv.getArgument(2))
+                            .build());
+
+            List<SumResponse> result = aggregationService.getTopFiveExpenses(filter);
+
+            assertThat(result).extracting(SumResponse::amount).containsExactly("-400.00", "-340.00");
+            assertThat(result).extracting(r -> r.category().getName()).containsExactly("Car", "Food");
+            verify(exchangeService, times(1)).getExchangeRates(Set.of(
+                    new RateQuery(LocalDate.now(), CurrencyCode.PLN, CurrencyCode.PLN),
+                    new RateQuery(LocalDate.now(), CurrencyCode.USD, CurrencyCode.PLN)));
+        }
+
+        @Test
+        @DisplayName("should let the database rank and limit categories when no conversion is requested")
+        void getTopFiveIncomes_shouldLimitInDatabase_withoutConversion() {
+            String userSub = TestData.USER_SUB;
+            AggregationFilter filter = new AggregationFilter(
+                    null, null, TestData.TEST_DATE, TestData.TEST_DATE, AmountType.POSITIVE, false, false
+            );
+
+            when(userService.getUserSub()).thenReturn(userSub);
+            when(transactionSpecificationBuilder.buildForRollups(filter, userSub)).thenReturn(Specification.where(null));
+            when(rollupRepository.sumByCategory(any(), eq(AmountType.POSITIVE), eq(Sort.Direction.DESC), eq(5)))
+                    .thenReturn(Collections.emptyList());
+
+            List<SumResponse> result = aggregationService.getTopFiveIncomes(filter);
+
+            assertThat(result).isEmpty();
+            verify(rollupRepository, never()).sumByCategoryAndCurrency(any(), any(), any());
+            verifyNoInteractions(exchangeService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Balance History Tests")
+    class GetBalanceHistoryTests {
+
+        @Test
+        @DisplayName("should start from the monthly snapshot and add daily deltas of the period")
+        void getBalanceHistory_shouldUseSnapshotAndDailyDeltas() {
+            String userSub = TestData.USER_SUB;
+            PeriodicAggregationFilter filter = new PeriodicAggregationFilter(
+                    TestData.ACCOUNT.getId(), TestData.TEST_DATE, PeriodType.MONTH
+            );
+            List<AccountBalance> closingBalances = List.of(
+                    new AccountBalance(TestData.ACCOUNT.getId(), new BigDecimal("1000.00")),
+                    new AccountBalance(TestData.ACCOUNT_2.getId(), new BigDecimal("50.00"))
+            );
+            List<CurrencySum> dailySums = List.of(
+                    new CurrencySum(CurrencyCode.USD, LocalDate.of(2025, 7, 1), new BigDecimal("-20.00")),
+                    new CurrencySum(CurrencyCode.USD, LocalDate.of(2025, 7, 31), new BigDecimal("300.00"))
+            );
+
+            when(userService.getUserSub()).thenReturn(userSub);
+            when(monthlyBalanceRepository.findClosingBalancesBefore(userSub, LocalDate.of(2025, 7, 1)))
+                    .thenReturn(closingBalances);
+            when(transactionSpecificationBuilder.buildForRollups(any(AggregationFilter.class), eq(userSub)))
+                    .thenReturn(Specification.where(null));
+            when(rollupRepository.sumByCurrencyAndDate(any(), isNull())).thenReturn(dailySums);
+
+            BalanceHistoryResponse result = aggregationService.getBalanceHistory(filter);
+
+            assertThat(result.initialBalance()).isEqualByComparingTo("1000.00");
+            assertThat(result.periodicBalance()).hasSize(31);
+            assertThat(result.periodicBalance().get(0)).isEqualByComparingTo("-20.00");
+            assertThat(result.periodicBalance().get(30)).isEqualByComparingTo("300.00");
+            verify(rollupRepository, never()).sumByCurrency(any(), any());
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import com.rainy.homebudgettracker.transaction.service.helper.TransactionFingerprints;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionFingerprintsTest {
+
+    @Test
+    @DisplayName("should give the same fingerprint to rows that differ only in formatting")
+    void next_shouldNormalizeContent() {
+        String first = new TransactionFingerprints().next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN,
+                request("-25.50", null, "  Biedronka   123 "));
+        String second = new TransactionFingerprints().next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN,
+                request("-25.5", CurrencyCode.PLN, "BIEDRONKA 123"));
+
+        assertThat(first).hasSize(64).isEqualTo(second);
+        assertThat(new TransactionFingerprints().next(TestData.ACCOUNT.getId(), CurrencyCode.PLN,
+                request("-25.50", null, "Biedronka 123"))).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("should tell identical rows of one import apart and repeat the same fingerprints for another import")
+    void next_shouldCountOccurrences() {
+        TransactionFingerprints firstImport = new TransactionFingerprints();
+        String first = firstImport.next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN, request("-4.00", null, "Coffee"));
+        String second = firstImport.next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN, request("-4.00", null, "Coffee"));
+
+        TransactionFingerprints secondImport = new TransactionFingerprints();
+
+        assertThat(first).isNotEqualTo(second);
+        assertThat(secondImport.next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN, request("-4.00", null, "Coffee")))
+                .isEqualTo(first);
+        assertThat(secondImport.next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN, request("-4.00", null, "Coffee")))
+                .isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("should not fingerprint a row without an amount")
+    void next_shouldReturnNull_whenAmountIsMissing() {
+        TransactionRequest request = TransactionRequest.builder().date(TestData.TEST_DATE).build();
+
+        assertThat(new TransactionFingerprints().next(TestData.ACCOUNT_2.getId(), CurrencyCode.PLN, request)).isNull();
+    }
+
+    private static TransactionRequest request(String amount, CurrencyCode currencyCode, String details) {
+        return TransactionRequest.builder()
+                .amount(new BigDecimal(amount))
+                .date(TestData.TEST_DATE)
+                .currencyCode(currencyCode)
+                .details(details)
+                .build();
+    }
+}
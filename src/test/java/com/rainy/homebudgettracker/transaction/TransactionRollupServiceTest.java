@@ -0,0 +1,178 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.account.Account;
+import com.rainy.homebudgettracker.account.AccountRepository;
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.repository.AccountMonthlyBalanceRepository;
+import com.rainy.homebudgettracker.transaction.repository.DailyTransactionRollupRepository;
+import com.rainy.homebudgettracker.transaction.service.TransactionRollupServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRollupServiceTest {
+
+    @InjectMocks
+    private TransactionRollupServiceImpl rollupService;
+
+    @Mock
+    private DailyTransactionRollupRepository rollupRepository;
+    @Mock
+    private AccountMonthlyBalanceRepository monthlyBalanceRepository;
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("should add an income to the income sum and count of its day")
+    void recordCreated_shouldAddIncome() {
+        Transaction transaction = TestData.TRANSACTION;
+
+        rollupService.recordCreated(transaction);
+
+        verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(), TestData.CATEGORY.getId(),
+                TestData.TEST_DATE, transaction.getAmount(), BigDecimal.ZERO, 1, 0);
+        verify(rollupRepository, never()).deleteIfEmpty(any());
+        verify(monthlyBalanceRepository).openMonth(TestData.ACCOUNT.getId(), TestData.TEST_DATE.withDayOfMonth(1),
+                TestData.USER_SUB);
+        verify(monthlyBalanceRepository).addToClosingBalances(TestData.ACCOUNT.getId(),
+                TestData.TEST_DATE.withDayOfMonth(1), transaction.getAmount());
+    }
+
+    @Test
+    @DisplayName("should apply one aggregated delta per day and category for a batch of transactions")
+    void recordCreated_shouldAggregateBatch() {
+        Transaction expense = Transaction.builder()
+                .userSub(TestData.USER_SUB)
+                .amount(new BigDecimal("-40.00"))
+                .date(TestData.TEST_DATE)
+                .category(TestData.CATEGORY)
+                .account(TestData.ACCOUNT)
+                .build();
+        Transaction nextMonthIncome = Transaction.builder()
+                .userSub(TestData.USER_SUB)
+                .amount(new BigDecimal("10.00"))
+                .date(TestData.TEST_DATE.plusMonths(1))
+                .category(TestData.CATEGORY)
+                .account(TestData.ACCOUNT)
+                .build();
+        Transaction income = TestData.TRANSACTION;
+
+        rollupService.recordCreated(List.of(income, expense, nextMonthIncome));
+
+        verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(), TestData.CATEGORY.getId(),
+                TestData.TEST_DATE, income.getAmount(), expense.getAmount(), 1, 1);
+        verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(), TestData.CATEGORY.getId(),
+                TestData.TEST_DATE.plusMonths(1), new BigDecimal("10.00"), BigDecimal.ZERO, 1, 0);
+        verifyNoMoreInteractions(rollupRepository);
+        verify(accountRepository, times(1)).lockById(TestData.ACCOUNT.getId());
+        verify(monthlyBalanceRepository).addToClosingBalances(TestData.ACCOUNT.getId(),
+                TestData.TEST_DATE.withDayOfMonth(1), income.getAmount().add(expense.getAmount()));
+        verify(monthlyBalanceRepository).addToClosingBalances(TestData.ACCOUNT.getId(),
+                TestData.TEST_DATE.plusMonths(1).withDayOfMonth(1), new BigDecimal("10.00"));
+    }
+
+    @Test
+    @DisplayName("should lock the account and then apply the deltas in date order, whatever the order of the batch")
+    void recordCreated_shouldApplyDeltasInKeyOrder() {
+        Transaction newer = Transaction.builder()
+                .userSub(TestData.USER_SUB)
+                .amount(new BigDecimal("-40.00"))
+                .date(TestData.TEST_DATE.plusDays(2))
+                .category(TestData.CATEGORY)
+                .account(TestData.ACCOUNT)
+                .build();
+        Transaction older = TestData.TRANSACTION;
+
+        rollupService.recordCreated(List.of(newer, older));
+
+        InOrder inOrder = inOrder(accountRepository, rollupRepository);
+        inOrder.verify(accountRepository).lockById(TestData.ACCOUNT.getId());
+        inOrder.verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(),
+                TestData.CATEGORY.getId(), TestData.TEST_DATE, older.getAmount(), BigDecimal.ZERO, 1, 0);
+        inOrder.verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(),
+                TestData.CATEGORY.getId(), TestData.TEST_DATE.plusDays(2), BigDecimal.ZERO, newer.getAmount(), 0, 1);
+    }
+
+    @Test
+    @DisplayName("should subtract a deleted expense and drop the row once it is empty")
+    void recordDeleted_shouldSubtractExpense() {
+        Transaction transaction = Transaction.builder()
+                .userSub(TestData.USER_SUB)
+                .amount(new BigDecimal("-25.00"))
+                .date(TestData.TEST_DATE)
+                .category(TestData.CATEGORY)
+                .account(TestData.ACCOUNT)
+                .build();
+
+        rollupService.recordDeleted(transaction);
+
+        verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(), TestData.CATEGORY.getId(),
+                TestData.TEST_DATE, BigDecimal.ZERO, new BigDecimal("25.00"), 0, -1);
+        verify(rollupRepository).deleteIfEmpty(DailyTransactionRollupId.builder()
+                .userSub(TestData.USER_SUB)
+                .accountId(TestData.ACCOUNT.getId())
+                .categoryId(TestData.CATEGORY.getId())
+                .date(TestData.TEST_DATE)
+                .build());
+        verify(monthlyBalanceRepository).addToClosingBalances(TestData.ACCOUNT.getId(),
+                TestData.TEST_DATE.withDayOfMonth(1), new BigDecimal("25.00"));
+    }
+
+    @Test
+    @DisplayName("should move the amount from the previous category to the new one")
+    void recordCategoryChanged_shouldMoveAmount() {
+        Transaction transaction = TestData.TRANSACTION;
+        Category previousCategory = Category.builder()
+                .id(UUID.randomUUID())
+                .name("Car")
+                .userSub(TestData.USER_SUB)
+                .build();
+
+        rollupService.recordCategoryChanged(transaction, previousCategory);
+
+        verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(), previousCategory.getId(),
+                TestData.TEST_DATE, transaction.getAmount().negate(), BigDecimal.ZERO, -1, 0);
+        verify(rollupRepository).applyDelta(TestData.USER_SUB, TestData.ACCOUNT.getId(), TestData.CATEGORY.getId(),
+                TestData.TEST_DATE, transaction.getAmount(), BigDecimal.ZERO, 1, 0);
+        verifyNoInteractions(monthlyBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("should not touch the rollups when the category did not change")
+    void recordCategoryChanged_shouldDoNothing_whenCategoryIsTheSame() {
+        rollupService.recordCategoryChanged(TestData.TRANSACTION, TestData.CATEGORY);
+
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("should lock the user's accounts in id order before rebuilding their rows")
+    void rebuildForUser_shouldLockAccountsFirst() {
+        UUID lowerId = new UUID(0, 1);
+        UUID higherId = new UUID(0, 2);
+        when(accountRepository.findAllByUserSub(TestData.USER_SUB)).thenReturn(List.of(
+                Account.builder().id(higherId).userSub(TestData.USER_SUB).build(),
+                Account.builder().id(lowerId).userSub(TestData.USER_SUB).build()));
+
+        rollupService.rebuildForUser(TestData.USER_SUB);
+
+        InOrder inOrder = inOrder(accountRepository, rollupRepository, monthlyBalanceRepository);
+        inOrder.verify(accountRepository).lockById(lowerId);
+        inOrder.verify(accountRepository).lockById(higherId);
+        inOrder.verify(rollupRepository).deleteAllByUserSub(TestData.USER_SUB);
+        inOrder.verify(rollupRepository).insertRecomputedForUser(TestData.USER_SUB);
+        inOrder.verify(monthlyBalanceRepository).deleteAllByUserSub(TestData.USER_SUB);
+    }
+}
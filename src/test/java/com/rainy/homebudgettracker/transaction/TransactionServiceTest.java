@@ -5,17 +5,25 @@ import com.rainy.homebudgettracker.account.AccountService;
 import com.rainy.homebudgettracker.category.*;
 import com.rainy.homebudgettracker.exchange.ExchangeResponse;
 import com.rainy.homebudgettracker.exchange.ExchangeService;
+import com.rainy.homebudgettracker.exchange.RateQuery;
+import com.rainy.homebudgettracker.handler.exception.InvalidCursorException;
 import com.rainy.homebudgettracker.handler.exception.PremiumStatusRequiredException;
 import com.rainy.homebudgettracker.handler.exception.UserIsNotOwnerException;
 import com.rainy.homebudgettracker.handler.exception.WrongFileTypeException;
 import com.rainy.homebudgettracker.images.ImageService;
 import com.rainy.homebudgettracker.images.S3Service;
 import com.rainy.homebudgettracker.mapper.ModelMapper;
+import com.rainy.homebudgettracker.transaction.dto.ImportRowResult;
 import com.rainy.homebudgettracker.transaction.dto.TransactionRequest;
 import com.rainy.homebudgettracker.transaction.dto.TransactionResponse;
+import com.rainy.homebudgettracker.transaction.dto.TransactionSliceResponse;
 import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
 import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
+import com.rainy.homebudgettracker.transaction.service.TransactionBatchWriter;
+import com.rainy.homebudgettracker.transaction.service.TransactionRollupService;
 import com.rainy.homebudgettracker.transaction.service.TransactionServiceImpl;
+import com.rainy.homebudgettracker.transaction.service.helper.TransactionFingerprints;
+import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionCursor;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionFilter;
 import com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecificationBuilder;
 import com.rainy.homebudgettracker.user.UserService;
@@ -27,23 +35,32 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -70,6 +87,10 @@ class TransactionServiceTest {
     private S3Service s3Service;
     @Mock
     private ImageService imageService;
+    @Mock
+    private TransactionRollupService transactionRollupService;
+    @Mock
+    private TransactionBatchWriter transactionBatchWriter;
 
     @Nested
     @DisplayName("Finding Transactions")
@@ -80,7 +101,7 @@ class TransactionServiceTest {
         void findCurrentUserTransactions_shouldUseFilter() {
             TransactionFilter filter = new TransactionFilter(TestData.ACCOUNT.getId(), null, null, null);
             Pageable pageable = PageRequest.of(0, 10);
-            Page<Transaction> transactionPage = new PageImpl<>(List.of(TestData.TRANSACTION));
+            Page<TransactionView> transactionPage = new PageImpl<>(List.of(TestData.TRANSACTION_VIEW));
             Specification<Transaction> dummySpecification = Specification.where(null);
 
             when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
@@ -88,11 +109,68 @@ class TransactionServiceTest {
             when(transactionSpecificationBuilder.build(any(TransactionFilter.class), anyString()))
                     .thenReturn(dummySpecification);
 
-            when(transactionRepository.findAll(dummySpecification, pageable)).thenReturn(transactionPage);
+            when(transactionRepository.findViews(dummySpecification, pageable)).thenReturn(transactionPage);
+            when(modelMapper.map(TestData.TRANSACTION_VIEW, TransactionResponse.class))
+                    .thenReturn(TestData.TRANSACTION_RESPONSE);
+
+            Page<TransactionResponse> result = transactionService.findCurrentUserTransactions(filter, pageable);
+
+            assertThat(result.getContent()).containsExactly(TestData.TRANSACTION_RESPONSE);
+            verify(transactionRepository).findViews(dummySpecification, pageable);
+            verify(transactionRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("should return a slice with a cursor to the last transaction when more transactions exist")
+        void findCurrentUserTransactions_shouldReturnNextCursor_whenMoreTransactionsExist() {
+            TransactionFilter filter = new TransactionFilter(TestData.ACCOUNT.getId(), null, null, null);
+            TransactionView first = TransactionView.builder().id(UUID.randomUUID()).date(TestData.TEST_DATE).build();
+            TransactionView second = TransactionView.builder().id(UUID.randomUUID()).date(TestData.TEST_DATE).build();
+            TransactionView extra = TransactionView.builder()
+                    .id(UUID.randomUUID()).date(TestData.TEST_DATE.minusDays(1)).build();
+
+            when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+            when(transactionSpecificationBuilder.build(filter, TestData.USER_SUB)).thenReturn(Specification.where(null));
+            when(transactionRepository.findViews(any(), eq(Sort.by(Sort.Direction.DESC, "date", "id")), eq(3)))
+                    .thenReturn(List.of(first, second, extra));
+
+            TransactionSliceResponse result = transactionService.findCurrentUserTransactions(filter, null, 2);
+
+            assertThat(result.content()).hasSize(2);
+            assertThat(result.hasNext()).isTrue();
+            assertThat(TransactionCursor.decode(result.nextCursor()))
+                    .isEqualTo(new TransactionCursor(second.date(), second.id()));
+            verify(transactionRepository, never()).count(any(Specification.class));
+        }
 
-            transactionService.findCurrentUserTransactions(filter, pageable);
+        @Test
+        @DisplayName("should return the last slice without a cursor")
+        void findCurrentUserTransactions_shouldReturnNoCursor_onLastSlice() {
+            TransactionFilter filter = new TransactionFilter(TestData.ACCOUNT.getId(), null, null, null);
+            String cursor = new TransactionCursor(TestData.TEST_DATE, UUID.randomUUID()).encode();
+
+            when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+            when(transactionSpecificationBuilder.build(filter, TestData.USER_SUB)).thenReturn(Specification.where(null));
+            when(transactionRepository.findViews(any(), any(Sort.class), eq(3))).thenReturn(List.of(TestData.TRANSACTION_VIEW));
+
+            TransactionSliceResponse result = transactionService.findCurrentUserTransactions(filter, cursor, 2);
+
+            assertThat(result.content()).hasSize(1);
+            assertThat(result.hasNext()).isFalse();
+            assertThat(result.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject a cursor that was not issued by the service")
+        void findCurrentUserTransactions_shouldThrowException_whenCursorIsInvalid() {
+            TransactionFilter filter = new TransactionFilter(TestData.ACCOUNT.getId(), null, null, null);
+
+            when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+            when(transactionSpecificationBuilder.build(filter, TestData.USER_SUB)).thenReturn(Specification.where(null));
 
-            verify(transactionRepository).findAll(dummySpecification, pageable);
+            assertThatThrownBy(() -> transactionService.findCurrentUserTransactions(filter, "not-a-cursor", 2))
+                    .isInstanceOf(InvalidCursorException.class);
+            verifyNoInteractions(transactionRepository);
         }
 
         @Nested
@@ -121,6 +199,7 @@ class TransactionServiceTest {
                 assertThat(actualResponse).isEqualTo(TestData.TRANSACTION_RESPONSE);
                 verify(modelMapper, times(1)).map(transaction, TransactionResponse.class);
                 verify(modelMapper, never()).map(any(Transaction.class), eq(TransactionResponse.class), anyString());
+                verify(transactionRollupService).recordCreated(transaction);
             }
 
             @Test
@@ -200,6 +279,137 @@ class TransactionServiceTest {
                 assertThat(savedTransaction.getDetails()).contains("EUR->PLN: 0.24 - " + TestData.TEST_DATE);
                 assertThat(savedTransaction.getAccount().getCurrencyCode()).isEqualTo(CurrencyCode.PLN);
             }
+
+            @Test
+            @DisplayName("should import transactions in one batch and report rows that could not be imported")
+            void createTransactionsForCurrentUser_shouldResolveDependenciesOnceAndReportFailedRows() {
+                TransactionRequest unknownCategoryRequest = TransactionRequest.builder()
+                        .amount(BigDecimal.TEN)
+                        .categoryName(CategoryRequest.builder().name("Unknown").build())
+                        .date(TestData.TEST_DATE)
+                        .currencyCode(CurrencyCode.PLN)
+                        .transactionMethod(TestData.TRANSACTION_REQUEST.getTransactionMethod())
+                        .build();
+                TransactionRequest plnRequest = TransactionRequest.builder()
+                        .amount(BigDecimal.ONE)
+                        .categoryName(TestData.CATEGORY_REQUEST)
+                        .date(TestData.TEST_DATE)
+                        .currencyCode(CurrencyCode.PLN)
+                        .transactionMethod(TestData.TRANSACTION_REQUEST.getTransactionMethod())
+                        .build();
+                List<TransactionRequest> requests = List.of(
+                        TestData.CONVERTED_TRANSACTION_REQUEST_2, unknownCategoryRequest, plnRequest);
+
+                when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+                when(accountService.findCurrentUserAccount(TestData.ACCOUNT_2.getId())).thenReturn(TestData.ACCOUNT_2);
+                when(categoryRepository.findAllByUserSubAndNameIn(TestData.USER_SUB, Set.of("Food", "Unknown")))
+                        .thenReturn(List.of(TestData.CATEGORY));
+                RateQuery rateQuery = new RateQuery(LocalDate.now(), CurrencyCode.EUR, CurrencyCode.PLN);
+                when(exchangeService.getExchangeRates(Set.of(rateQuery)))
+                        .thenReturn(Map.of(rateQuery, new BigDecimal("4.2")));
+                when(modelMapper.map(
+                        any(TransactionRequest.class), eq(Transaction.class), anyString(), any(Category.class), any(Account.class)
+                )).thenAnswer(inv -> Transaction.builder()
+                        .amount(inv.<TransactionRequest>getArgument(0).getAmount())
+                        .details(inv.<TransactionRequest>getArgument(0).getDetails())
+                        .build());
+                when(transactionBatchWriter.insertAll(anyList())).thenAnswer(inv -> {
+                    List<Transaction> transactions = inv.getArgument(0);
+                    transactions.forEach(transaction -> transaction.setId(UUID.randomUUID()));
+                    return transactions;
+                });
+
+                List<ImportRowResult> results = transactionService.createTransactionsForCurrentUser(
+                        TestData.ACCOUNT_2.getId(), requests, new TransactionFingerprints());
+
+                assertThat(results).extracting(ImportRowResult::index).containsExactly(0, 1, 2);
+                assertThat(results).extracting(ImportRowResult::imported).containsExactly(true, false, true);
+                assertThat(results.get(1).error()).contains("Unknown");
+                assertThat(results.get(1).transactionId()).isNull();
+
+                ArgumentCaptor<List<Transaction>> insertedCaptor = ArgumentCaptor.forClass(List.class);
+                verify(transactionBatchWriter).insertAll(insertedCaptor.capture());
+                List<Transaction> inserted = insertedCaptor.getValue();
+                assertThat(inserted).hasSize(2);
+                assertThat(inserted.get(0).getAmount()).isEqualByComparingTo("1747.20");
+                assertThat(inserted.get(0).getDetails()).contains("EUR->PLN: 4.2000");
+                assertThat(results.get(0).transactionId()).isEqualTo(inserted.get(0).getId());
+                assertThat(results.get(2).transactionId()).isEqualTo(inserted.get(1).getId());
+
+                verify(accountService, times(1)).findCurrentUserAccount(TestData.ACCOUNT_2.getId());
+                verify(categoryRepository, never()).findByUserSubAndName(anyString(), anyString());
+                verify(exchangeService, never()).getExchangeRate(any(), any());
+                verify(transactionRepository, never()).save(any(Transaction.class));
+            }
+
+            @Test
+            @DisplayName("should skip imported rows whose fingerprint is already stored, with one lookup per batch")
+            void createTransactionsForCurrentUser_shouldSkipDuplicates() {
+                TransactionRequest request = TransactionRequest.builder()
+                        .amount(BigDecimal.ONE)
+                        .categoryName(TestData.CATEGORY_REQUEST)
+                        .date(TestData.TEST_DATE)
+                        .transactionMethod(TestData.TRANSACTION_REQUEST.getTransactionMethod())
+                        .details("Coffee")
+                        .build();
+                TransactionFingerprints previousImport = new TransactionFingerprints();
+                String storedFingerprint = previousImport.next(
+                        TestData.ACCOUNT_2.getId(), TestData.ACCOUNT_2.getCurrencyCode(), request);
+
+                when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+                when(accountService.findCurrentUserAccount(TestData.ACCOUNT_2.getId())).thenReturn(TestData.ACCOUNT_2);
+                when(categoryRepository.findAllByUserSubAndNameIn(TestData.USER_SUB, Set.of("Food")))
+                        .thenReturn(List.of(TestData.CATEGORY));
+                when(modelMapper.map(
+                        any(TransactionRequest.class), eq(Transaction.class), anyString(), any(Category.class), any(Account.class)
+                )).thenAnswer(inv -> Transaction.builder().amount(BigDecimal.ONE).build());
+                when(transactionRepository.findExistingFingerprints(anyCollection())).thenReturn(Set.of(storedFingerprint));
+                when(transactionBatchWriter.insertAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+                List<ImportRowResult> results = transactionService.createTransactionsForCurrentUser(
+                        TestData.ACCOUNT_2.getId(), List.of(request, request), new TransactionFingerprints());
+
+                assertThat(results).extracting(ImportRowResult::imported).containsExactly(false, true);
+                assertThat(results).extracting(ImportRowResult::duplicate).containsExactly(true, false);
+                assertThat(results.get(0).error()).isNull();
+
+                ArgumentCaptor<List<Transaction>> insertedCaptor = ArgumentCaptor.forClass(List.class);
+                verify(transactionBatchWriter).insertAll(insertedCaptor.capture());
+                assertThat(insertedCaptor.getValue()).hasSize(1);
+                assertThat(insertedCaptor.getValue().get(0).getFingerprint()).isNotEqualTo(storedFingerprint).hasSize(64);
+                verify(transactionRepository, times(1)).findExistingFingerprints(anyCollection());
+            }
+
+            @Test
+            @DisplayName("should check for duplicates again when a concurrent import inserted the same rows")
+            void createTransactionsForCurrentUser_shouldRetry_whenFingerprintCollides() {
+                TransactionRequest request = TransactionRequest.builder()
+                        .amount(BigDecimal.ONE)
+                        .categoryName(TestData.CATEGORY_REQUEST)
+                        .date(TestData.TEST_DATE)
+                        .transactionMethod(TestData.TRANSACTION_REQUEST.getTransactionMethod())
+                        .build();
+
+                when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
+                when(accountService.findCurrentUserAccount(TestData.ACCOUNT_2.getId())).thenReturn(TestData.ACCOUNT_2);
+                when(categoryRepository.findAllByUserSubAndNameIn(TestData.USER_SUB, Set.of("Food")))
+                        .thenReturn(List.of(TestData.CATEGORY));
+                when(modelMapper.map(
+                        any(TransactionRequest.class), eq(Transaction.class), anyString(), any(Category.class), any(Account.class)
+                )).thenAnswer(inv -> Transaction.builder().amount(BigDecimal.ONE).build());
+                when(transactionRepository.findExistingFingerprints(anyCollection()))
+                        .thenReturn(Set.of())
+                        .thenAnswer(inv -> Set.copyOf(inv.<Collection<String>>getArgument(0)));
+                when(transactionBatchWriter.insertAll(anyList()))
+                        .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                        .thenAnswer(inv -> inv.getArgument(0));
+
+                List<ImportRowResult> results = transactionService.createTransactionsForCurrentUser(
+                        TestData.ACCOUNT_2.getId(), List.of(request), new TransactionFingerprints());
+
+                assertThat(results).extracting(ImportRowResult::duplicate).containsExactly(true);
+                verify(transactionBatchWriter, times(2)).insertAll(anyList());
+            }
         }
     }
 
@@ -217,6 +427,7 @@ class TransactionServiceTest {
             transactionService.deleteCurrentUserTransaction(TestData.TRANSACTION.getId());
 
             verify(transactionRepository).delete(TestData.TRANSACTION);
+            verify(transactionRollupService).recordDeleted(TestData.TRANSACTION);
         }
 
         @Test
@@ -228,6 +439,7 @@ class TransactionServiceTest {
 
             assertThatThrownBy(() -> transactionService.deleteCurrentUserTransaction(transaction.getId()))
                     .isInstanceOf(UserIsNotOwnerException.class);
+            verifyNoInteractions(transactionRollupService);
         }
     }
 
@@ -322,15 +534,15 @@ class TransactionServiceTest {
         @Test
         @DisplayName("should generate correct CSV for user with transactions")
         void generateCSV_shouldSucceed_forUserWithTransactions() {
-            Transaction transaction1 = TestData.TRANSACTION;
-            Transaction transaction2 = TestData.CONVERTED_TRANSACTION_2;
-            List<Transaction> userTransactions = List.of(transaction1, transaction2);
+            TransactionView transaction1 = TestData.TRANSACTION_VIEW;
+            TransactionView transaction2 = TestData.CONVERTED_TRANSACTION_VIEW_2;
+            List<TransactionView> userTransactions = List.of(transaction1, transaction2);
 
             TransactionResponse response1 = TestData.TRANSACTION_RESPONSE;
             TransactionResponse response2 = TestData.CONVERTED_TRANSACTION_RESPONSE_2;
 
             when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
-            when(transactionRepository.findAll(any(Specification.class))).thenReturn(userTransactions);
+            when(transactionRepository.streamViews(any(), anyInt())).thenReturn(userTransactions.stream());
 
             when(modelMapper.map(transaction1, TransactionResponse.class)).thenReturn(response1);
             when(modelMapper.map(transaction2, TransactionResponse.class)).thenReturn(response2);
@@ -340,8 +552,9 @@ class TransactionServiceTest {
                     "USD account,USD,100.00,Food,2025-07-15,CASH,\"\"\n" +
                     "PLN account,PLN,416.00,Food,2025-07-15,CASH,\"EUR->PLN: 0.24 - 2025-07-15\"\n";
 
-            byte[] csvBytes = transactionService.generateCSVWithCurrentUserTransactions();
-            String actualCsvContent = new String(csvBytes, StandardCharsets.UTF_8);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            transactionService.writeCSVWithCurrentUserTransactions(outputStream);
+            String actualCsvContent = outputStream.toString(StandardCharsets.UTF_8);
 
             assertThat(actualCsvContent).isEqualTo(expectedCsvContent);
         }
@@ -350,13 +563,14 @@ class TransactionServiceTest {
         @DisplayName("should generate CSV with only header for user with no transactions")
         void generateCSV_shouldReturnOnlyHeader_forUserWithNoTransactions() {
             when(userService.getUserSub()).thenReturn(TestData.USER_SUB);
-            when(transactionRepository.findAll(any(Specification.class))).thenReturn(Collections.emptyList());
+            when(transactionRepository.streamViews(any(), anyInt())).thenReturn(Stream.empty());
 
             String expectedCsvContent = "sep=,\n" +
                     "Account name,Currency code,Amount,Category,Date,Transaction method,Description\n";
 
-            byte[] csvBytes = transactionService.generateCSVWithCurrentUserTransactions();
-            String actualCsvContent = new String(csvBytes, StandardCharsets.UTF_8);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            transactionService.writeCSVWithCurrentUserTransactions(outputStream);
+            String actualCsvContent = outputStream.toString(StandardCharsets.UTF_8);
 
             assertThat(actualCsvContent).isEqualTo(expectedCsvContent);
         }
@@ -0,0 +1,111 @@
+package com.rainy.homebudgettracker.transaction;
+
+import com.rainy.homebudgettracker.account.Account;
+import com.rainy.homebudgettracker.category.Category;
+import com.rainy.homebudgettracker.transaction.enums.CurrencyCode;
+import com.rainy.homebudgettracker.transaction.enums.TransactionMethod;
+import com.rainy.homebudgettracker.transaction.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.rainy.homebudgettracker.transaction.service.queryfilter.TransactionSpecifications.byUserSub;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionViewRepositoryTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int a = 0; a < 3; a++) {
+            Account account = Account.builder()
+                    .name("Account " + a)
+                    .currencyCode(CurrencyCode.PLN)
+                    .userSub(TestData.USER_SUB)
+                    .build();
+            entityManager.persist(account);
+            for (int c = 0; c < 5; c++) {
+                Category category = Category.builder().name("Category " + a + c).userSub(TestData.USER_SUB).build();
+                entityManager.persist(category);
+                for (int t = 0; t < 4; t++) {
+                    entityManager.persist(Transaction.builder()
+                            .amount(BigDecimal.TEN)
+                            .date(TestData.TEST_DATE.minusDays(t))
+                            .transactionMethod(TransactionMethod.CASH)
+                            .userSub(TestData.USER_SUB)
+                            .account(account)
+                            .category(category)
+                            .build());
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("should load a page with its accounts and categories in one select plus the count")
+    void findViews_shouldUseTwoStatementsPerPage() {
+        Page<TransactionView> page = transactionRepository.findViews(
+                byUserSub(TestData.USER_SUB), PageRequest.of(1, 25, Sort.by("date")));
+
+        assertThat(page.getContent()).hasSize(25);
+        assertThat(page.getTotalElements()).isEqualTo(60);
+        assertThat(page.getContent()).allSatisfy(view -> {
+            assertThat(view.accountName()).startsWith("Account ");
+            assertThat(view.categoryName()).startsWith("Category ");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should skip the count query on the last page")
+    void findViews_shouldSkipCountOnLastPage() {
+        Page<TransactionView> page = transactionRepository.findViews(
+                byUserSub(TestData.USER_SUB), PageRequest.of(2, 25, Sort.by("date")));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should load a slice and the export with a single statement")
+    void findViews_shouldUseOneStatementWithoutPaging() {
+        List<TransactionView> slice = transactionRepository.findViews(
+                byUserSub(TestData.USER_SUB), Sort.by(Sort.Direction.DESC, "date", "id"), 21);
+        long exported;
+        try (Stream<TransactionView> all = transactionRepository.streamViews(byUserSub(TestData.USER_SUB), 10)) {
+            exported = all.count();
+        }
+
+        assertThat(slice).hasSize(21);
+        assertThat(exported).isEqualTo(60);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}